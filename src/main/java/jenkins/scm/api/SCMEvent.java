@@ -533,6 +533,16 @@ public abstract class SCMEvent<P> {
 
         protected abstract void fire(SCMEventListener l, E event);
 
+        /**
+         * Called once before the event is fired to the {@link SCMEventListener} instances, for example to discard
+         * cached state that the event renders stale.
+         *
+         * @param event the event about to be fired.
+         * @since 3.5.0
+         */
+        protected void beforeDispatch(E event) {
+        }
+
         @Override
         public void run() {
             lock.lock();
@@ -550,6 +560,7 @@ public abstract class SCMEvent<P> {
                 Thread.currentThread().setName(String.format("%s %tc / %s",
                         event.getClass(), event.getTimestamp(), oldName)
                 );
+                beforeDispatch(event);
                 for (final SCMEventListener l : ExtensionList.lookup(SCMEventListener.class)) {
                     try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
                         try {
@@ -62,7 +62,11 @@ import org.kohsuke.stapler.export.ExportedBean;
  * The contract for {@link Object#hashCode()} is:
  * <ul>
  *     <li>{@link Object#hashCode()} for a {@link SCMHeadMixin} implementation must be equal to the
- *     {@link String#hashCode()} of {@link SCMHeadMixin#getName()}</li>
+ *     {@link String#hashCode()} of {@link SCMHeadMixin#getName()} combined with the hashes of those property
+ *     values from the implemented {@link SCMHeadMixin} sub-interfaces whose types are known to hash consistently
+ *     with the equality above (integral primitives, {@link String}, enums, {@link SCMHead} and
+ *     {@link SCMHeadOrigin}). Implementations without such properties hash as their name. Prior to 3.5.0 every
+ *     implementation hashed as its name, so hash codes must not be persisted.</li>
  * </ul>
  * The {@link SCMHead#equals(Object)} and {@link SCMHead#hashCode()} methods enforce the above requirements and
  * are final.
@@ -197,10 +201,14 @@ public class SCMHead implements SCMHeadMixin {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Combines the hash of {@link #getName()} with the hashes of those {@link SCMHeadMixin} properties whose types are
+     * known to hash consistently with {@link #equals(Object)}, so that for example change requests with the same name
+     * from different forks do not collide. Heads without any such properties hash as their name.
      */
     @Override
     public final int hashCode() {
-        return name.hashCode();
+        return name.hashCode() ^ SCMHeadMixinEqualityGenerator.getOrCreate(getClass()).hashCode(this);
     }
 
     /**
@@ -31,7 +31,8 @@ import hudson.model.Item;
 import hudson.scm.SCM;
 import hudson.triggers.SCMTrigger;
 import java.io.IOException;
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -54,6 +55,13 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
      */
     private static final Logger LOGGER = Logger.getLogger(SCMHeadEvent.class.getName());
 
+    /**
+     * The most recent {@link #heads(SCMSource)} result, an event is typically matched and then filtered against the
+     * same source in quick succession so a single entry is sufficient.
+     */
+    @CheckForNull
+    private transient volatile SourceHeads sourceHeads;
+
     /**
      * {@inheritDoc}
      */
@@ -134,7 +142,7 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
      * @return {@code true} if and only if this event concerns the supplied {@link SCMSource}.
      */
     public boolean isMatch(@NonNull SCMSource source) {
-        return !heads(source).isEmpty();
+        return !headsFor(source).isEmpty();
     }
 
     /**
@@ -163,6 +171,25 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
     @NonNull
     public abstract Map<SCMHead, SCMRevision> heads(@NonNull SCMSource source);
 
+    /**
+     * Returns the (memoized) {@link #heads(SCMSource)} for the supplied {@link SCMSource}. The returned map must not
+     * be modified.
+     *
+     * @param source the {@link SCMSource}.
+     * @return the {@link SCMHead} (and optional {@link SCMRevision}) that this event corresponds to when considered
+     * from the point of view of the supplied {@link SCMSource}.
+     */
+    @NonNull
+    /*package*/ final Map<SCMHead, SCMRevision> headsFor(@NonNull SCMSource source) {
+        SourceHeads cached = sourceHeads;
+        if (cached != null && cached.source.get() == source) {
+            return cached.heads;
+        }
+        Map<SCMHead, SCMRevision> heads = heads(source);
+        sourceHeads = new SourceHeads(source, heads);
+        return heads;
+    }
+
     /**
      * Tests if this event applies to the supplied {@link SCM}. Implementations that return {@code true} will trigger
      * polling for the matching jobs that have enabled the {@link SCMTrigger} and have not disabled the post commit
@@ -231,6 +258,11 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
             super(event);
         }
 
+        @Override
+        protected void beforeDispatch(SCMHeadEvent<?> event) {
+            SCMSourceCache.invalidateAll(event);
+        }
+
         @Override
         protected void log(SCMEventListener l, Throwable e) {
             LogRecord lr = new LogRecord(Level.WARNING,
@@ -259,13 +291,16 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
          */
         private final Set<SCMHead> includes;
         /**
-         * The heads and revisions mentioned in the event.
+         * The {@link SCMHead} instances we have yet to observe or {@code null} when there is at most one head in
+         * {@link #includes} in which case {@link #pending} tracks progress.
          */
-        private final Map<SCMHead, SCMRevision> untrusted;
+        @CheckForNull
+        private final Set<SCMHead> remaining;
         /**
-         * The actual heads and revisions confirmed by the source.
+         * Whether the (single) head in {@link #includes} has yet to be observed, only used when {@link #remaining} is
+         * {@code null}.
          */
-        private final Map<SCMHead, SCMRevision> trusted;
+        private boolean pending;
 
         /**
          * Constructor.
@@ -274,13 +309,36 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
          */
         private Validated(O delegate, SCMSource source) {
             super(delegate);
-            untrusted = new HashMap<>(SCMHeadEvent.this.heads(source));
+            Set<SCMHead> heads = headsFor(source).keySet();
             Set<SCMHead> i = super.getIncludes();
-            if (i != null) {
-                untrusted.keySet().retainAll(i);
+            Set<SCMHead> includes;
+            if (i == null) {
+                includes = heads;
+            } else if (heads.size() <= 1) {
+                includes = heads.isEmpty() || i.contains(heads.iterator().next())
+                        ? heads
+                        : Collections.<SCMHead>emptySet();
+            } else {
+                includes = new HashSet<>(heads);
+                includes.retainAll(i);
+            }
+            switch (includes.size()) {
+                case 0:
+                    this.includes = Collections.emptySet();
+                    this.remaining = null;
+                    this.pending = false;
+                    break;
+                case 1:
+                    this.includes = Collections.singleton(includes.iterator().next());
+                    this.remaining = null;
+                    this.pending = true;
+                    break;
+                default:
+                    this.includes = Collections.unmodifiableSet(includes);
+                    // copy now because we use remaining to track progress
+                    this.remaining = new HashSet<>(includes);
+                    break;
             }
-            includes = new HashSet<>(untrusted.keySet()); // copy now because we use untrusted to track progress
-            trusted = new HashMap<>(untrusted.size());
         }
 
         /**
@@ -289,9 +347,12 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
         @Override
         public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
                 throws IOException, InterruptedException {
-            if (untrusted.containsKey(head)) {
-                trusted.put(head, revision);
-                untrusted.remove(head);
+            if (remaining == null) {
+                if (pending && includes.contains(head)) {
+                    pending = false;
+                    super.observe(head, revision);
+                }
+            } else if (remaining.remove(head)) {
                 super.observe(head, revision);
             }
         }
@@ -301,11 +362,7 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
          */
         @Override
         public boolean isObserving() {
-            return !untrusted.isEmpty() && super.isObserving();
-        }
-
-        public Map<SCMHead, SCMRevision> heads() {
-            return trusted;
+            return (remaining == null ? pending : !remaining.isEmpty()) && super.isObserving();
         }
 
         /**
@@ -317,4 +374,31 @@ public abstract class SCMHeadEvent<P> extends SCMEvent<P> {
         }
 
     }
+
+    /**
+     * A memoized {@link #heads(SCMSource)} result.
+     */
+    private static final class SourceHeads {
+        /**
+         * The source, weakly held as events may outlive the source they were matched against.
+         */
+        @NonNull
+        private final WeakReference<SCMSource> source;
+        /**
+         * The heads.
+         */
+        @NonNull
+        private final Map<SCMHead, SCMRevision> heads;
+
+        /**
+         * Constructor.
+         *
+         * @param source the source.
+         * @param heads  the heads.
+         */
+        private SourceHeads(@NonNull SCMSource source, @NonNull Map<SCMHead, SCMRevision> heads) {
+            this.source = new WeakReference<>(source);
+            this.heads = heads;
+        }
+    }
 }
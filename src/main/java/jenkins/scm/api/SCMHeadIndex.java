@@ -0,0 +1,211 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import jenkins.scm.api.mixin.ChangeRequestSCMHead;
+import jenkins.scm.api.mixin.ChangeRequestSCMRevision;
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * A bounded in-memory index of the heads and revisions most recently observed by {@link SCMSource#fetch} and of the
+ * parent relationships between them, used to answer {@link SCMSource#parentHeads(SCMHead, hudson.model.TaskListener)}
+ * and {@link SCMSource#parentRevisions(SCMHead, SCMRevision, hudson.model.TaskListener)} without a remote call.
+ * When full, the least recently used entries are evicted. Lookups are always by exact head or revision, so the
+ * entries are kept in access order, which is what bounded eviction needs, rather than in a sorted structure; only
+ * the answers handed back to callers are sorted.
+ *
+ * @see SCMSource#getHeadIndexSize()
+ * @since 3.5.0
+ */
+class SCMHeadIndex {
+
+    /**
+     * The maximum number of heads and of parent revision sets to retain.
+     */
+    private final int maxSize;
+
+    /**
+     * The most recently observed revision of each head, in access order.
+     */
+    @GuardedBy("this")
+    private final LinkedHashMap<SCMHead, SCMRevision> heads;
+
+    /**
+     * The parent revisions recorded for each revision, in access order.
+     */
+    @GuardedBy("this")
+    private final LinkedHashMap<SCMRevision, Set<SCMRevision>> parents;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of heads and of parent revision sets to retain.
+     */
+    SCMHeadIndex(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.heads = new LinkedHashMap<SCMHead, SCMRevision>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SCMHead, SCMRevision> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.parents = new LinkedHashMap<SCMRevision, Set<SCMRevision>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SCMRevision, Set<SCMRevision>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the maximum number of heads and of parent revision sets that will be retained.
+     *
+     * @return the maximum number of heads and of parent revision sets that will be retained.
+     */
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Records the revision of a head.
+     *
+     * @param head     the head.
+     * @param revision the revision or {@code null} if the revision is unknown.
+     */
+    synchronized void observe(@NonNull SCMHead head, @CheckForNull SCMRevision revision) {
+        if (revision == null || !revision.isDeterministic()) {
+            heads.remove(head);
+        } else {
+            heads.put(head, revision);
+        }
+    }
+
+    /**
+     * Records the immediate parent revisions of a revision.
+     *
+     * @param revision the revision.
+     * @param parents  the immediate parent revisions.
+     */
+    synchronized void putParentRevisions(@NonNull SCMRevision revision, @NonNull Set<SCMRevision> parents) {
+        if (revision.isDeterministic()) {
+            this.parents.put(revision, Collections.unmodifiableSet(new LinkedHashSet<>(parents)));
+        }
+    }
+
+    /**
+     * Returns the most recently observed revision of a head.
+     *
+     * @param head the head.
+     * @return the revision or {@code null} if the head has not been observed.
+     */
+    @CheckForNull
+    synchronized SCMRevision getRevision(@NonNull SCMHead head) {
+        return heads.get(head);
+    }
+
+    /**
+     * Returns the indexed parent heads of a head. Only the target of a {@link ChangeRequestSCMHead} is known to be a
+     * parent head, the parent relationship is established at the target revision of the most recently observed
+     * {@link ChangeRequestSCMRevision} or, failing that, the most recently observed revision of the target.
+     *
+     * @param head the head.
+     * @return the parent heads sorted by head or {@code null} if the index cannot answer.
+     */
+    @CheckForNull
+    synchronized Map<SCMHead, SCMRevision> getParentHeads(@NonNull SCMHead head) {
+        if (!(head instanceof ChangeRequestSCMHead)) {
+            return null;
+        }
+        SCMHead target = ((ChangeRequestSCMHead) head).getTarget();
+        SCMRevision revision = heads.get(head);
+        SCMRevision targetRevision = revision instanceof ChangeRequestSCMRevision
+                ? ((ChangeRequestSCMRevision<?>) revision).getTarget()
+                : heads.get(target);
+        if (targetRevision == null) {
+            return null;
+        }
+        Map<SCMHead, SCMRevision> result = new TreeMap<>();
+        result.put(target, targetRevision);
+        return result;
+    }
+
+    /**
+     * Returns the recorded parent revisions of a revision.
+     *
+     * @param revision the revision.
+     * @return the parent revisions or {@code null} if none have been recorded.
+     */
+    @CheckForNull
+    synchronized Set<SCMRevision> getParentRevisions(@NonNull SCMRevision revision) {
+        return parents.get(revision);
+    }
+
+    /**
+     * Forgets everything recorded about the supplied heads, including the parent heads of any change requests
+     * targeting them.
+     *
+     * @param keys the heads.
+     */
+    synchronized void remove(@NonNull Set<SCMHead> keys) {
+        for (Iterator<SCMHead> iterator = heads.keySet().iterator(); iterator.hasNext(); ) {
+            SCMHead head = iterator.next();
+            if (keys.contains(head)
+                    || head instanceof ChangeRequestSCMHead && keys.contains(((ChangeRequestSCMHead) head).getTarget())) {
+                iterator.remove();
+            }
+        }
+        parents.keySet().removeIf(revision -> keys.contains(revision.getHead()));
+    }
+
+    /**
+     * Forgets everything.
+     */
+    synchronized void clear() {
+        heads.clear();
+        parents.clear();
+    }
+
+    /**
+     * Returns the number of indexed heads.
+     *
+     * @return the number of indexed heads.
+     */
+    synchronized int size() {
+        return heads.size();
+    }
+}
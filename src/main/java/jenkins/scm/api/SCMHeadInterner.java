@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import jenkins.util.SystemProperties;
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * An optional weak interning pool for {@link SCMHead} and {@link SCMHeadOrigin.Fork} instances, so that the many equal
+ * instances created by repeated indexing and deserialization can share a single canonical instance. Instances are
+ * pooled by {@link Object#equals(Object)}, which for {@link SCMHead} means the class, the name and the
+ * {@link jenkins.scm.api.mixin.SCMHeadMixin} properties. Any other state carried by a subclass is taken from whichever
+ * equal instance was pooled first, which is why interning is disabled unless the
+ * {@code jenkins.scm.api.SCMHead.intern} system property is {@code true}.
+ *
+ * @since 3.5.0
+ */
+final class SCMHeadInterner {
+
+    /**
+     * Whether interning is enabled.
+     */
+    static final boolean ENABLED = SystemProperties.getBoolean(SCMHead.class.getName() + ".intern", false);
+
+    /**
+     * The pooled instances. Both keys and values are weakly referenced so that unused instances can be collected.
+     */
+    @GuardedBy("pool")
+    private static final Map<Object, WeakReference<Object>> pool = new WeakHashMap<>();
+
+    /**
+     * Utility class.
+     */
+    private SCMHeadInterner() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Returns the canonical instance of a head if interning is enabled.
+     *
+     * @param head the head.
+     * @param <H>  the type of head.
+     * @return the canonical instance or the supplied instance.
+     */
+    @NonNull
+    static <H extends SCMHead> H intern(@NonNull H head) {
+        return ENABLED ? canonical(head) : head;
+    }
+
+    /**
+     * Returns the canonical instance of a fork origin if interning is enabled.
+     *
+     * @param origin the origin.
+     * @param <O>    the type of origin.
+     * @return the canonical instance or the supplied instance.
+     */
+    @NonNull
+    static <O extends SCMHeadOrigin.Fork> O intern(@NonNull O origin) {
+        return ENABLED ? canonical(origin) : origin;
+    }
+
+    /**
+     * Returns the canonical instance, pooling the supplied instance if there is none.
+     *
+     * @param instance the instance.
+     * @param <T>      the type of instance.
+     * @return the canonical instance.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    static <T> T canonical(@NonNull T instance) {
+        synchronized (pool) {
+            WeakReference<Object> ref = pool.get(instance);
+            Object existing = ref == null ? null : ref.get();
+            if (existing != null) {
+                // equals requires the same class so this is safe
+                return (T) existing;
+            }
+            pool.put(instance, new WeakReference<>(instance));
+            return instance;
+        }
+    }
+
+    /**
+     * Returns the number of pooled instances.
+     *
+     * @return the number of pooled instances.
+     */
+    static int size() {
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+}
@@ -118,7 +118,7 @@ public abstract class SCMHeadMigration<S extends SCMSource, H extends SCMHead, R
      *
      * @param source the source instance.
      * @param head the candidate head.
-     * @return the migrated head or the original head.
+     * @return the migrated head or the original head, or an equal canonical instance when interning is enabled.
      */
     @SuppressWarnings("unchecked")
     @NonNull
@@ -128,11 +128,11 @@ public abstract class SCMHeadMigration<S extends SCMSource, H extends SCMHead, R
                     && m.headClass == head.getClass()) {
                 SCMHead migrated = m.migrate(source, head);
                 if (migrated != null) {
-                    return migrated;
+                    return SCMHeadInterner.intern(migrated);
                 }
             }
         }
-        return head;
+        return SCMHeadInterner.intern(head);
     }
     /**
      * Perform a migration.
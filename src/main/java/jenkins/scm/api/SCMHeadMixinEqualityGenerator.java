@@ -26,21 +26,19 @@
 package jenkins.scm.api;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import jenkins.scm.api.mixin.SCMHeadMixin;
-import net.jcip.annotations.GuardedBy;
 import org.apache.commons.lang.ClassUtils;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
@@ -48,9 +46,12 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.BIPUSH;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
 import static org.objectweb.asm.Opcodes.DCMPL;
 import static org.objectweb.asm.Opcodes.DLOAD;
@@ -59,6 +60,7 @@ import static org.objectweb.asm.Opcodes.FCMPL;
 import static org.objectweb.asm.Opcodes.FLOAD;
 import static org.objectweb.asm.Opcodes.FSTORE;
 import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.IADD;
 import static org.objectweb.asm.Opcodes.ICONST_0;
 import static org.objectweb.asm.Opcodes.ICONST_1;
 import static org.objectweb.asm.Opcodes.IFEQ;
@@ -67,8 +69,10 @@ import static org.objectweb.asm.Opcodes.IFNONNULL;
 import static org.objectweb.asm.Opcodes.IFNULL;
 import static org.objectweb.asm.Opcodes.IF_ICMPEQ;
 import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.IMUL;
 import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.IRETURN;
 import static org.objectweb.asm.Opcodes.ISTORE;
@@ -82,11 +86,16 @@ import static org.objectweb.asm.Opcodes.RETURN;
  * We need {@link SCMHead} instances to perform equality based on the {@link SCMHead#getName()} plus all the property
  * values declared on the {@link SCMHeadMixin} interfaces implemented by the {@link SCMHead} concrete type.
  * As {@link SCMHead#equals(Object)} is expected to be a hot method, we'd much rather avoid using reflection, so
- * instead we use bytecode generation to create our {@link SCMHeadMixin.Equality} subclass for us.
+ * instead we use bytecode generation to create our {@link SCMHeadMixin.Equality} subclass for us. The generated class
+ * is a hidden class defined alongside the {@link SCMHead} type, so it is unloaded together with the type.
  *
  * @since 2.0
  */
-class SCMHeadMixinEqualityGenerator extends ClassLoader {
+final class SCMHeadMixinEqualityGenerator {
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SCMHeadMixinEqualityGenerator.class.getName());
     /**
      * Are you debugging this class and finding it hard to decipher what the generated code is doing?
      * Would you like to be able to step through some equivalent code with your debugger?
@@ -97,21 +106,22 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
             SCMHeadMixinEqualityGenerator.class.getName()+".forceReflection"
     );
     /**
-     * Lock to guard access to the maps.
-     */
-    private static final ReadWriteLock lock = new ReentrantReadWriteLock();
-    /**
-     * Weak hashmap of equality generators for each classloader.
+     * Lock-free lookup of the {@link SCMHeadMixin.Equality} instances keyed by the concrete type that requires them.
+     * Racing threads may each generate an instance, only one of which will be retained.
      */
-    @GuardedBy("lock")
-    private static final Map<ClassLoader, SCMHeadMixinEqualityGenerator> generators
-            = new WeakHashMap<>();
+    private static final ClassValue<SCMHeadMixin.Equality> equalities = new ClassValue<SCMHeadMixin.Equality>() {
+        @Override
+        protected SCMHeadMixin.Equality computeValue(Class<?> type) {
+            return create(type.asSubclass(SCMHead.class), forceReflection);
+        }
+    };
+
     /**
-     * Weak hashmap of the {@link SCMHeadMixin.Equality} instances keyed by the concrete type that requires them.
+     * Utility class.
      */
-    @GuardedBy("lock")
-    private static final WeakHashMap<Class<? extends SCMHead>, SCMHeadMixin.Equality> mixinEqualities
-            = new WeakHashMap<>();
+    private SCMHeadMixinEqualityGenerator() {
+        throw new IllegalAccessError("Utility class");
+    }
 
     /**
      * Get the {@link SCMHeadMixin.Equality} instance to use.
@@ -121,59 +131,18 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
      */
     @NonNull
     static SCMHeadMixin.Equality getOrCreate(@NonNull Class<? extends SCMHead> type) {
-        lock.readLock().lock();
-        try {
-            SCMHeadMixin.Equality result = mixinEqualities.get(type);
-            if (result != null) {
-                return result;
-            }
-        } finally {
-            lock.readLock().unlock();
-        }
-        lock.writeLock().lock();
-        try {
-            SCMHeadMixin.Equality result = mixinEqualities.get(type);
-            if (result != null) {
-                // somebody else created it while we were waiting for the write lock
-                return result;
-            }
-            final ClassLoader loader = type.getClassLoader();
-            SCMHeadMixinEqualityGenerator generator;
-            generator = generators.get(loader);
-            if (generator == null) {
-                generator = AccessController.doPrivileged(new PrivilegedAction<>() {
-                    @Override
-                    public SCMHeadMixinEqualityGenerator run() {
-                        return new SCMHeadMixinEqualityGenerator(loader);
-                    }
-                });
-                generators.put(loader, generator);
-            }
-            result = generator.create(type);
-            mixinEqualities.put(type, result);
-            return result;
-        } finally {
-            lock.writeLock().unlock();
-        }
-    }
-
-    /**
-     * Constructor.
-     *
-     * @param parent the parent classloader.
-     */
-    private SCMHeadMixinEqualityGenerator(ClassLoader parent) {
-        super(parent);
+        return equalities.get(type);
     }
 
     /**
      * Creates the {@link SCMHeadMixin.Equality} instance.
      *
-     * @param type the {@link SCMHead} type to create the instance for.
+     * @param type       the {@link SCMHead} type to create the instance for.
+     * @param reflection {@code true} to use reflection rather than generated bytecode.
      * @return the {@link SCMHeadMixin.Equality} instance.
      */
     @NonNull
-    private SCMHeadMixin.Equality create(@NonNull Class<? extends SCMHead> type) {
+    static SCMHeadMixin.Equality create(@NonNull Class<? extends SCMHead> type, boolean reflection) {
         Map<String, Method> properties = new TreeMap<>();
         for (Class clazz : (List<Class>) ClassUtils.getAllInterfaces(type)) {
             if (!SCMHeadMixin.class.isAssignableFrom(clazz)) {
@@ -227,29 +196,96 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
             // no properties to consider
             return new ConstantEquality();
         }
-        if (forceReflection) {
-            return new ReflectiveEquality(properties.values().toArray(new Method[0]));
+        List<Method> hashed = new ArrayList<>();
+        for (Method method : properties.values()) {
+            if (isHashable(method.getReturnType())) {
+                hashed.add(method);
+            }
+        }
+        if (reflection) {
+            return new ReflectiveEquality(properties.values().toArray(new Method[0]), hashed.toArray(new Method[0]));
+        }
+        try {
+            return define(type, properties.values(), hashed);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not generate the SCMHead equality for " + type.getName()
+                    + ", falling back to reflection which will be slower", e);
         }
-        // now we define the class
-        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
-        String name = SCMHeadMixin.class.getPackage().getName() + ".internal." + type.getName();
+        return new ReflectiveEquality(properties.values().toArray(new Method[0]), hashed.toArray(new Method[0]));
+    }
+
+    /**
+     * Generates and instantiates the {@link SCMHeadMixin.Equality} class. Where we have full privilege access to the
+     * {@link SCMHead} type (i.e. it was loaded by the same class loader as this plugin) the class is defined as a
+     * hidden class nested in the package of the type. Otherwise it is defined by a dedicated child of the class loader
+     * of the type. Either way the generated class resolves the mixin interfaces through the class loader of the type
+     * and is only reachable from the type, so it is unloaded along with the type.
+     *
+     * @param type       the {@link SCMHead} type to create the instance for.
+     * @param properties the property getters to compare.
+     * @param hashed     the property getters to hash.
+     * @return the {@link SCMHeadMixin.Equality} instance.
+     * @throws ReflectiveOperationException if the class cannot be defined or instantiated.
+     */
+    @NonNull
+    private static SCMHeadMixin.Equality define(@NonNull final Class<? extends SCMHead> type,
+                                                @NonNull Collection<Method> properties,
+                                                @NonNull Collection<Method> hashed)
+            throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            // the package of the type is not open to us
+            lookup = null;
+        }
+        boolean hidden = lookup != null && lookup.hasFullPrivilegeAccess();
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                // any frame computation must see the types visible to the SCMHead
+                return type.getClassLoader();
+            }
+        };
+        String name = hidden
+                ? Type.getInternalName(type) + "$$MixinEquality"
+                : (SCMHeadMixin.class.getPackage().getName() + ".internal." + type.getName()).replace('.', '/');
 
-        cw.visit(Opcodes.V1_7, ACC_PUBLIC, name.replace('.', '/'), null, Type
+        cw.visit(Opcodes.V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, Type
                 .getInternalName(Object.class), new String[]{Type.getInternalName(SCMHeadMixin.Equality.class)});
         generateDefaultConstructor(cw);
-        generateEquals(cw, properties.values());
+        generateEquals(cw, properties);
+        generateHashCode(cw, hashed);
+        cw.visitEnd();
         byte[] image = cw.toByteArray();
 
-        Class<? extends SCMHeadMixin.Equality> c = defineClass(name, image, 0, image.length).asSubclass(
-                SCMHeadMixin.Equality.class);
-
-        try {
-            return c.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            // fallback to reflection
-        }
-        return new ReflectiveEquality(properties.values().toArray(new Method[0]));
+        Class<?> c = hidden
+                ? lookup.defineHiddenClass(image, true).lookupClass()
+                : new DefiningClassLoader(type.getClassLoader()).define(name.replace('/', '.'), image);
+        return c.asSubclass(SCMHeadMixin.Equality.class).getDeclaredConstructor().newInstance();
+    }
 
+    /**
+     * Checks if a property type can contribute to {@link SCMHeadMixin.Equality#hashCode(SCMHeadMixin)}. We can only
+     * hash values whose {@link Object#hashCode()} we know to be consistent with the comparison made by
+     * {@link SCMHeadMixin.Equality#equals(SCMHeadMixin, SCMHeadMixin)}. Floating point values are excluded as they
+     * are compared with {@code ==} and arbitrary objects are excluded as they may not implement
+     * {@link Object#hashCode()} at all.
+     *
+     * @param type the property type.
+     * @return {@code true} if values of the type can be hashed.
+     */
+    private static boolean isHashable(@NonNull Class<?> type) {
+        return boolean.class.equals(type)
+                || byte.class.equals(type)
+                || char.class.equals(type)
+                || int.class.equals(type)
+                || short.class.equals(type)
+                || long.class.equals(type)
+                || String.class.equals(type)
+                || Enum.class.isAssignableFrom(type)
+                || SCMHead.class.isAssignableFrom(type)
+                || SCMHeadOrigin.class.isAssignableFrom(type);
     }
 
     /**
@@ -258,7 +294,7 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
      * @param cw      the {@link ClassWriter}
      * @param methods the property getters.
      */
-    private void generateEquals(@NonNull ClassWriter cw, @NonNull Collection<Method> methods) {
+    private static void generateEquals(@NonNull ClassWriter cw, @NonNull Collection<Method> methods) {
         String scmHeadMixinDescriptor = Type.getDescriptor(SCMHeadMixin.class);
         MethodVisitor mv = cw.visitMethod(
                 ACC_PUBLIC,
@@ -403,12 +439,59 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
         mv.visitEnd();
     }
 
+    /**
+     * Generates {@link SCMHeadMixin.Equality#hashCode(SCMHeadMixin)}.
+     *
+     * @param cw      the {@link ClassWriter}
+     * @param methods the property getters, all of which must be {@link #isHashable(Class)}.
+     */
+    private static void generateHashCode(@NonNull ClassWriter cw, @NonNull Collection<Method> methods) {
+        String scmHeadMixinDescriptor = Type.getDescriptor(SCMHeadMixin.class);
+        MethodVisitor mv = cw.visitMethod(
+                ACC_PUBLIC,
+                "hashCode",
+                "(" + scmHeadMixinDescriptor + ")I",
+                null,
+                null
+        );
+        mv.visitCode();
+        // int h = 0;
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 2);
+        for (Method m : methods) {
+            String declClass = Type.getInternalName(m.getDeclaringClass());
+            Class<?> returnType = m.getReturnType();
+            String methodDesc = "()" + Type.getDescriptor(returnType);
+            // h = 31 * h + hash(((T)o).get___());
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitIntInsn(BIPUSH, 31);
+            mv.visitInsn(IMUL);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, declClass);
+            mv.visitMethodInsn(INVOKEINTERFACE, declClass, m.getName(), methodDesc, true);
+            if (long.class.equals(returnType)) {
+                mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Long.class), "hashCode", "(J)I", false);
+            } else if (!returnType.isPrimitive()) {
+                mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Objects.class), "hashCode",
+                        "(Ljava/lang/Object;)I", false);
+            }
+            // boolean, byte, char, int and short are already ints
+            mv.visitInsn(IADD);
+            mv.visitVarInsn(ISTORE, 2);
+        }
+        // return h;
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(4, 3);
+        mv.visitEnd();
+    }
+
     /**
      * Generates the default contstructor.
      *
      * @param cw the {@link ClassWriter}.
      */
-    private void generateDefaultConstructor(@NonNull ClassWriter cw) {
+    private static void generateDefaultConstructor(@NonNull ClassWriter cw) {
         MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
         mv.visitCode();
         mv.visitVarInsn(ALOAD, 0);
@@ -418,6 +501,32 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
         mv.visitEnd();
     }
 
+    /**
+     * Defines a single generated class for an {@link SCMHead} type that is not visible to our class loader.
+     */
+    private static final class DefiningClassLoader extends ClassLoader {
+
+        /**
+         * Constructor.
+         *
+         * @param parent the class loader of the {@link SCMHead} type.
+         */
+        private DefiningClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        /**
+         * Defines the generated class.
+         *
+         * @param name  the binary name of the class.
+         * @param image the class file.
+         * @return the class.
+         */
+        private Class<?> define(String name, byte[] image) {
+            return defineClass(name, image, 0, image.length);
+        }
+    }
+
     /**
      * {@link SCMHeadMixin.Equality} to use when there are no properties to consider.
      */
@@ -430,6 +539,14 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
         public boolean equals(@NonNull SCMHeadMixin o1, @NonNull SCMHeadMixin o2) {
             return true;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode(@NonNull SCMHeadMixin o) {
+            return 0;
+        }
     }
 
     /**
@@ -440,14 +557,48 @@ class SCMHeadMixinEqualityGenerator extends ClassLoader {
          * The getters to check.
          */
         private final Method[] props;
+        /**
+         * The getters to hash.
+         */
+        private final Method[] hashed;
 
         /**
          * Constructor.
          *
-         * @param props the getters to check.
+         * @param props  the getters to check.
+         * @param hashed the getters to hash.
          */
-        private ReflectiveEquality(Method[] props) {
+        private ReflectiveEquality(Method[] props, Method[] hashed) {
             this.props = props;
+            this.hashed = hashed;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode(@NonNull SCMHeadMixin o) {
+            int h = 0;
+            for (Method p : hashed) {
+                Object value;
+                try {
+                    value = p.invoke(o);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    // consistent with equals, which treats heads that fail the same way as equal
+                    value = null;
+                }
+                if (value instanceof Boolean) {
+                    // match the generated code, which hashes the raw int value
+                    h = 31 * h + (((Boolean) value) ? 1 : 0);
+                } else if (value instanceof Character) {
+                    h = 31 * h + (Character) value;
+                } else if (value instanceof Byte || value instanceof Short || value instanceof Integer) {
+                    h = 31 * h + ((Number) value).intValue();
+                } else {
+                    h = 31 * h + Objects.hashCode(value);
+                }
+            }
+            return h;
         }
 
         /**
@@ -27,20 +27,54 @@ package jenkins.scm.api;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
-import net.jcip.annotations.GuardedBy;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.ToLongBiFunction;
 
 /**
  * Something that observes {@link SCMHead} and corresponding {@link SCMRevision} details.
+ * <p>
+ * Unless documented otherwise, observers are not thread safe and {@link #observe(SCMHead, SCMRevision)} must not be
+ * called concurrently. Implementations that discover heads in parallel should use the thread safe variants, such as
+ * {@link #collectConcurrently()}, {@link #selectConcurrently(SCMHead)}, {@link #namedConcurrently(String)},
+ * {@link #anyConcurrently()} and {@link #filterConcurrently(SCMHeadObserver, SCMHead...)}. The thread safe variants may
+ * be observed from any number of threads and their results may be read from any thread once the observing threads
+ * have completed.
  */
 public abstract class SCMHeadObserver {
 
+    /**
+     * The names of {@link #getIncludes()}, only valid once {@link #includedNamesPopulated}.
+     */
+    @CheckForNull
+    private volatile Set<String> includedNames;
+    /**
+     * Flag to track initialization of {@link #includedNames}.
+     */
+    private volatile boolean includedNamesPopulated;
+
     /**
      * Observes a head and current revision.
      *
@@ -76,6 +110,52 @@ public abstract class SCMHeadObserver {
         return null;
     }
 
+    /**
+     * Returns the names of the {@link SCMHead} instances that this observer is interested in or {@code null} if
+     * interested in heads of any name. This is a weaker form of {@link #getIncludes()} for observers that can
+     * identify the heads they want by {@link SCMHead#getName()} but not by full {@link SCMHead#equals(Object)},
+     * allowing {@link SCMSource} implementations to look up heads by name rather than enumerating every head.
+     * <p>
+     * <strong>Implementations should not assume that the {@link #getIncludedNames()} will be honoured.</strong>
+     * This method is designed to provide a <i>hint</i> to {@link SCMSource} implementations.
+     * <p>
+     * The default implementation derives the names from {@link #getIncludes()} the first time it is called and returns
+     * the same unmodifiable set thereafter, so it assumes that {@link #getIncludes()} does not change once the observer
+     * has been constructed.
+     *
+     * @return the names of the {@link SCMHead} instances that this observer is interested in or {@code null}.
+     * @since 3.5.0
+     */
+    @CheckForNull
+    public Set<String> getIncludedNames() {
+        if (includedNamesPopulated) {
+            return includedNames;
+        }
+        // racing threads compute the same result so there is no need to lock
+        Set<String> result = namesOf(getIncludes());
+        includedNames = result;
+        includedNamesPopulated = true;
+        return result;
+    }
+
+    /**
+     * Returns the names of the supplied heads.
+     *
+     * @param heads the heads or {@code null}.
+     * @return the unmodifiable names of the heads or {@code null} if the heads were {@code null}.
+     */
+    @CheckForNull
+    private static Set<String> namesOf(@CheckForNull Set<SCMHead> heads) {
+        if (heads == null) {
+            return null;
+        }
+        Set<String> names = new HashSet<>(heads.size() * 2);
+        for (SCMHead head : heads) {
+            names.add(head.getName());
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
     /**
      * Wraps multiple observers returning a combined observer that remains observing as long as at least one of the
      * wrapped observers
@@ -135,183 +215,1396 @@ public abstract class SCMHeadObserver {
         return new Filter<>(delegate, heads);
     }
 
-    /**
-     * Creates an observer that selects the revision of a specific head.
-     *
-     * @param headName the head to watch out for.
-     * @return an observer that selects the revision of a specific head.
-     * @since 2.0
-     */
-    @NonNull
-    public static Named named(@NonNull String headName) {
-        return new Named(headName);
-    }
+    /**
+     * Creates an observer that selects the revision of a specific head.
+     *
+     * @param headName the head to watch out for.
+     * @return an observer that selects the revision of a specific head.
+     * @since 2.0
+     */
+    @NonNull
+    public static Named named(@NonNull String headName) {
+        return new Named(headName);
+    }
+
+    /**
+     * Creates an observer that selects the first revision it finds. Also useful for quick checks of non-empty.
+     *
+     * @return an observer that selects the first revision of a any head.
+     * @since 2.0
+     */
+    @NonNull
+    public static Any any() {
+        return new Any();
+    }
+
+    /**
+     * Creates an observer that selects the first revision it finds. Also useful for quick checks of non-empty.
+     *
+     * @return an observer that selects the first revision of a any head.
+     * @since 2.2.0
+     */
+    @NonNull
+    public static None none() {
+        return None.INSTANCE;
+    }
+
+    /**
+     * Creates an observer that retains only the best {@code limit} heads as ranked by the supplied comparator, for
+     * example the most recently modified heads. Memory use is proportional to {@code limit} rather than to the
+     * number of heads observed.
+     *
+     * @param limit      the number of heads to retain.
+     * @param comparator ranks the revisions (and through {@link SCMRevision#getHead()} the heads), greatest first.
+     * @return an observer that retains the best heads.
+     * @since TODO
+     */
+    @NonNull
+    public static Top top(int limit, @NonNull Comparator<? super SCMRevision> comparator) {
+        return new Top(limit, comparator);
+    }
+
+    /**
+     * Creates an observer that retains only the {@code limit} heads with the greatest rank, where the rank of each
+     * head is taken once, when it is observed. Because the observer only sees the head and the revision, a rank that
+     * comes from elsewhere, such as the {@link SCMProbe#lastModified()} of the probe that the criteria were evaluated
+     * against, can be recorded while the criteria are checked and looked up when the head is observed, which
+     * {@link jenkins.scm.api.trait.SCMSourceRequest} always does after checking the criteria:
+     * <pre>{@code
+     * Map<String, Long> lastModified = new ConcurrentHashMap<>();
+     * SCMSourceCriteria recording = (probe, listener) -> {
+     *     lastModified.put(probe.name(), probe.lastModified());
+     *     return true;
+     * };
+     * SCMHeadObserver.Top newest = SCMHeadObserver.topBy(10,
+     *         (head, revision) -> lastModified.getOrDefault(head.getName(), 0L));
+     * source.fetch(recording, newest, null, listener);
+     * }</pre>
+     *
+     * @param limit the number of heads to retain.
+     * @param rank  the rank of an observed head and revision, greatest first.
+     * @return an observer that retains the greatest ranked heads.
+     * @since TODO
+     */
+    @NonNull
+    public static Top topBy(int limit, @NonNull ToLongBiFunction<? super SCMHead, ? super SCMRevision> rank) {
+        Objects.requireNonNull(rank); // fail fast if null
+        return new Top(limit, Comparator.comparingLong(key -> (Long) key),
+                (head, revision) -> rank.applyAsLong(head, revision));
+    }
+
+    /**
+     * Creates an observer that collects the heads matching the supplied predicate, for example the heads in a
+     * {@link SCMHeadCategory}, and stops observing once {@code limit} heads have been collected.
+     *
+     * @param predicate the predicate heads must match.
+     * @param limit     the maximum number of heads to collect.
+     * @return an observer that collects the matching heads.
+     * @since TODO
+     */
+    @NonNull
+    public static Matching matching(@NonNull Predicate<? super SCMHead> predicate, int limit) {
+        return new Matching(predicate, limit);
+    }
+
+    /**
+     * Creates a thread safe observer that collects all the heads and revisions.
+     *
+     * @return a thread safe observer that collects all the heads and revisions.
+     * @since 3.5.0
+     */
+    @NonNull
+    public static ConcurrentCollector collectConcurrently() {
+        return new ConcurrentCollector();
+    }
+
+    /**
+     * Creates a thread safe observer that selects the revision of a specific head.
+     *
+     * @param head the head to watch for.
+     * @return a thread safe observer that selects the revision of a specific head.
+     * @since 3.5.0
+     */
+    @NonNull
+    public static ConcurrentSelector selectConcurrently(@NonNull SCMHead head) {
+        return new ConcurrentSelector(head);
+    }
+
+    /**
+     * Creates a thread safe observer that selects the revision of a specific head.
+     *
+     * @param headName the name of the head to watch for.
+     * @return a thread safe observer that selects the revision of a specific head.
+     * @since 3.5.0
+     */
+    @NonNull
+    public static ConcurrentNamed namedConcurrently(@NonNull String headName) {
+        return new ConcurrentNamed(headName);
+    }
+
+    /**
+     * Creates a thread safe observer that selects the first revision it finds.
+     *
+     * @return a thread safe observer that selects the first revision of any head.
+     * @since 3.5.0
+     */
+    @NonNull
+    public static ConcurrentAny anyConcurrently() {
+        return new ConcurrentAny();
+    }
+
+    /**
+     * Creates a thread safe observer that filters a delegate observer to the specified heads. The delegate will
+     * observe each head at most once, but may do so from any of the observing threads so it must be thread safe
+     * itself.
+     *
+     * @param delegate the thread safe delegate.
+     * @param heads    the heads to filter.
+     * @param <O>      the type of observer.
+     * @return a thread safe filtering observer.
+     * @since 3.5.0
+     */
+    @NonNull
+    public static <O extends SCMHeadObserver> ConcurrentFilter<O> filterConcurrently(O delegate, SCMHead... heads) {
+        return new ConcurrentFilter<>(delegate, heads);
+    }
+
+    /**
+     * An observer that wraps multiple observers and keeps observing as long as one of the wrapped observers wants to.
+     * The wrapped observers are captured on construction, once a wrapped observer stops observing it is not observed
+     * again.
+     */
+    public static class AllFinished extends SCMHeadObserver {
+        /**
+         * The wrapped observers.
+         */
+        @NonNull
+        private final Composite observers;
+
+        /**
+         * Constructor.
+         *
+         * @param observers the observers to wrap.
+         */
+        public AllFinished(SCMHeadObserver... observers) {
+            this(Arrays.asList(observers));
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param observers the observers to wrap.
+         */
+        public AllFinished(@NonNull Iterable<SCMHeadObserver> observers) {
+            Objects.requireNonNull(observers); // fail fast if null
+            this.observers = new Composite(observers);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
+                throws IOException, InterruptedException {
+            observers.observe(head, revision);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isObserving() {
+            return observers.anyObserving();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<SCMHead> getIncludes() {
+            return observers.getIncludes();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<String> getIncludedNames() {
+            return observers.getIncludedNames();
+        }
+    }
+
+    /**
+     * An observer that wraps multiple observers and keeps observing until one of the wrapped observers stops observing.
+     * The wrapped observers are captured on construction, once a wrapped observer stops observing it is not observed
+     * again.
+     */
+    public static class OneFinished extends SCMHeadObserver {
+        /**
+         * The wrapped observers.
+         */
+        @NonNull
+        private final Composite observers;
+
+        /**
+         * Constructor.
+         *
+         * @param observers the observers to wrap.
+         */
+        public OneFinished(SCMHeadObserver... observers) {
+            this(Arrays.asList(observers));
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param observers the observers to wrap.
+         */
+        public OneFinished(@NonNull Iterable<SCMHeadObserver> observers) {
+            Objects.requireNonNull(observers); // fail fast if null
+            this.observers = new Composite(observers);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
+                throws IOException, InterruptedException {
+            observers.observe(head, revision);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isObserving() {
+            return observers.allObserving();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<SCMHead> getIncludes() {
+            return observers.getIncludes();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<String> getIncludedNames() {
+            return observers.getIncludedNames();
+        }
+    }
+
+    /**
+     * The wrapped observers of {@link AllFinished} and {@link OneFinished}. Tracks which of the wrapped observers have
+     * stopped observing, so that observations and checks whether the composite is still observing skip them. A wrapped
+     * observer can also stop observing other than through {@link #observe(SCMHead, SCMRevision)}, so the checks still
+     * ask the wrapped observers that have not been seen to stop.
+     */
+    private static final class Composite {
+        /**
+         * The wrapped observers.
+         */
+        @NonNull
+        private final SCMHeadObserver[] observers;
+        /**
+         * Which of {@link #observers} have stopped observing.
+         */
+        @NonNull
+        private final boolean[] finished;
+        /**
+         * The number of {@link #observers} that are still observing.
+         */
+        private volatile int observing;
+        /**
+         * The union of the includes of {@link #observers}, only valid once {@link #includesPopulated}.
+         */
+        @CheckForNull
+        private volatile Set<SCMHead> includes;
+        /**
+         * Flag to track initialization of {@link #includes}.
+         */
+        private volatile boolean includesPopulated;
+        /**
+         * The union of the included names of {@link #observers}, only valid once {@link #includedNamesPopulated}.
+         */
+        @CheckForNull
+        private volatile Set<String> includedNames;
+        /**
+         * Flag to track initialization of {@link #includedNames}.
+         */
+        private volatile boolean includedNamesPopulated;
+
+        /**
+         * Constructor.
+         *
+         * @param observers the observers to wrap.
+         */
+        private Composite(@NonNull Iterable<SCMHeadObserver> observers) {
+            List<SCMHeadObserver> list = new ArrayList<>();
+            for (SCMHeadObserver observer : observers) {
+                list.add(observer);
+            }
+            this.observers = list.toArray(new SCMHeadObserver[0]);
+            this.finished = new boolean[this.observers.length];
+            int observing = 0;
+            for (int i = 0; i < this.observers.length; i++) {
+                if (this.observers[i].isObserving()) {
+                    observing++;
+                } else {
+                    finished[i] = true;
+                }
+            }
+            this.observing = observing;
+        }
+
+        /**
+         * Passes an observation on to the wrapped observers that are still observing.
+         *
+         * @param head     the head.
+         * @param revision the revision.
+         * @throws IOException          if a wrapped observer could not process the observation.
+         * @throws InterruptedException if a wrapped observer was interrupted.
+         */
+        private void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
+                throws IOException, InterruptedException {
+            for (int i = 0; i < observers.length; i++) {
+                if (finished[i]) {
+                    continue;
+                }
+                SCMHeadObserver observer = observers[i];
+                observer.observe(head, revision);
+                if (!observer.isObserving()) {
+                    finish(i);
+                }
+            }
+        }
+
+        /**
+         * Checks if any of the wrapped observers is still observing. Only the wrapped observers not yet seen to stop are
+         * asked, stopping at the first that is still observing.
+         *
+         * @return {@code true} if at least one wrapped observer is still observing.
+         */
+        private boolean anyObserving() {
+            if (observing == 0) {
+                return false;
+            }
+            for (int i = 0; i < observers.length; i++) {
+                if (finished[i]) {
+                    continue;
+                }
+                if (observers[i].isObserving()) {
+                    return true;
+                }
+                finish(i);
+            }
+            return false;
+        }
+
+        /**
+         * Checks if all of the wrapped observers are still observing.
+         *
+         * @return {@code true} if every wrapped observer is still observing.
+         */
+        private boolean allObserving() {
+            if (observing < observers.length) {
+                return false;
+            }
+            for (int i = 0; i < observers.length; i++) {
+                if (!observers[i].isObserving()) {
+                    finish(i);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Records that a wrapped observer has stopped observing.
+         *
+         * @param index the index of the wrapped observer.
+         */
+        private void finish(int index) {
+            finished[index] = true;
+            observing--;
+        }
+
+        /**
+         * Returns the union of the included names of the wrapped observers, computed once.
+         *
+         * @return the union or {@code null} if at least one wrapped observer is interested in any name.
+         */
+        @CheckForNull
+        private Set<String> getIncludedNames() {
+            if (includedNamesPopulated) {
+                return includedNames;
+            }
+            // racing threads compute the same result so there is no need to lock
+            Set<String> result = null;
+            for (SCMHeadObserver observer : observers) {
+                Set<String> names = observer.getIncludedNames();
+                if (names == null) {
+                    // at least one of the observers is interested in any name, thus we are also
+                    result = null;
+                    break;
+                }
+                if (result == null) {
+                    result = new HashSet<>(names);
+                } else {
+                    result.addAll(names);
+                }
+            }
+            if (result != null) {
+                result = Collections.unmodifiableSet(result);
+            }
+            this.includedNames = result;
+            includedNamesPopulated = true;
+            return result;
+        }
+
+        /**
+         * Returns the union of the includes of the wrapped observers, computed once.
+         *
+         * @return the union or {@code null} if at least one wrapped observer is interested in everything.
+         */
+        @CheckForNull
+        private Set<SCMHead> getIncludes() {
+            if (includesPopulated) {
+                return includes;
+            }
+            // racing threads compute the same result so there is no need to lock
+            Set<SCMHead> result = null;
+            for (SCMHeadObserver observer : observers) {
+                Set<SCMHead> includes = observer.getIncludes();
+                if (includes == null) {
+                    // at least one of the observers is interested in everything, thus we are also
+                    result = null;
+                    break;
+                }
+                if (result == null) {
+                    result = new HashSet<>(includes);
+                } else {
+                    result.addAll(includes);
+                }
+            }
+            this.includes = result;
+            includesPopulated = true;
+            return result;
+        }
+    }
+
+    /**
+     * An observer that collects the observed {@link SCMHead}s and {@link SCMRevision}s.
+     * <p>
+     * Observations are appended to a pair of arrays and only sorted when {@link #result()} is first called, which is
+     * considerably cheaper than maintaining a sorted map for every observation and does not allocate an entry per
+     * head. The result is a sorted view of the arrays. As with a {@link TreeMap}, heads with the same
+     * {@link SCMHead#compareTo(SCMHead) name} are collapsed into the first observed head with the last observed
+     * revision, and observations made after {@link #result()} has been called are inserted in order.
+     */
+    public static class Collector extends SCMHeadObserver {
+        /**
+         * The observed heads, only the first {@link #size} are in use.
+         */
+        @NonNull
+        private SCMHead[] heads = new SCMHead[16];
+        /**
+         * The revisions of the {@link #heads}.
+         */
+        @NonNull
+        private SCMRevision[] revisions = new SCMRevision[16];
+        /**
+         * The number of {@link #heads} in use.
+         */
+        private int size;
+        /**
+         * The sorted view of the observations, created when {@link #result()} is first called. Once created, the
+         * {@link #heads} are kept sorted and distinct.
+         */
+        @CheckForNull
+        private SortedHeads result;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+            head = SCMHeadInterner.intern(head);
+            if (result != null) {
+                result.put(head, revision);
+            } else {
+                insert(size, head, revision);
+            }
+        }
+
+        /**
+         * Returns the collected results.
+         *
+         * @return the collected results.
+         */
+        @NonNull
+        public Map<SCMHead, SCMRevision> result() {
+            if (result == null) {
+                sort(heads, revisions, new SCMHead[size], new SCMRevision[size], 0, size);
+                // collapse heads with the same name, mimicking TreeMap.put
+                int last = -1;
+                for (int i = 0; i < size; i++) {
+                    if (last >= 0 && heads[last].compareTo(heads[i]) == 0) {
+                        revisions[last] = revisions[i];
+                    } else {
+                        last++;
+                        heads[last] = heads[i];
+                        revisions[last] = revisions[i];
+                    }
+                }
+                Arrays.fill(heads, last + 1, size, null);
+                Arrays.fill(revisions, last + 1, size, null);
+                size = last + 1;
+                result = new SortedHeads(this, null, null);
+            }
+            return result;
+        }
+
+        /**
+         * Sorts a range of the heads and their revisions by head. The sort is stable, so that the last observed
+         * revision of heads with the same name can be identified.
+         *
+         * @param heads     the heads.
+         * @param revisions the revisions of the heads.
+         * @param hs        scratch space at least as long as the range.
+         * @param rs        scratch space at least as long as the range.
+         * @param from      the start of the range (inclusive).
+         * @param to        the end of the range (exclusive).
+         */
+        private static void sort(@NonNull SCMHead[] heads, @NonNull SCMRevision[] revisions, @NonNull SCMHead[] hs,
+                                 @NonNull SCMRevision[] rs, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sort(heads, revisions, hs, rs, from, mid);
+            sort(heads, revisions, hs, rs, mid, to);
+            if (heads[mid - 1].compareTo(heads[mid]) <= 0) {
+                // already in order
+                return;
+            }
+            System.arraycopy(heads, from, hs, from, mid - from);
+            System.arraycopy(revisions, from, rs, from, mid - from);
+            int i = from;
+            int j = mid;
+            int k = from;
+            while (i < mid && j < to) {
+                if (heads[j].compareTo(hs[i]) < 0) {
+                    heads[k] = heads[j];
+                    revisions[k++] = revisions[j++];
+                } else {
+                    // ties take the left hand side to keep the sort stable
+                    heads[k] = hs[i];
+                    revisions[k++] = rs[i++];
+                }
+            }
+            while (i < mid) {
+                heads[k] = hs[i];
+                revisions[k++] = rs[i++];
+            }
+        }
+
+        /**
+         * Finds a head in the sorted heads.
+         *
+         * @param head the head.
+         * @return the index of the head, or {@code -(insertion point) - 1} if there is no head with the same name.
+         */
+        private int indexOf(@NonNull SCMHead head) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int c = heads[mid].compareTo(head);
+                if (c < 0) {
+                    low = mid + 1;
+                } else if (c > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Returns the index of the first sorted head that is not before the supplied head.
+         *
+         * @param head the head.
+         * @return the index.
+         */
+        private int lowerBound(@NonNull SCMHead head) {
+            int index = indexOf(head);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        /**
+         * Inserts an observation.
+         *
+         * @param index    the index to insert at.
+         * @param head     the head.
+         * @param revision the revision.
+         */
+        private void insert(int index, @NonNull SCMHead head, @NonNull SCMRevision revision) {
+            if (size == heads.length) {
+                int capacity = size + (size >> 1) + 1;
+                heads = Arrays.copyOf(heads, capacity);
+                revisions = Arrays.copyOf(revisions, capacity);
+            }
+            System.arraycopy(heads, index, heads, index + 1, size - index);
+            System.arraycopy(revisions, index, revisions, index + 1, size - index);
+            heads[index] = head;
+            revisions[index] = revision;
+            size++;
+        }
+
+        /**
+         * Removes a range of observations.
+         *
+         * @param from the start of the range (inclusive).
+         * @param to   the end of the range (exclusive).
+         */
+        private void remove(int from, int to) {
+            System.arraycopy(heads, to, heads, from, size - to);
+            System.arraycopy(revisions, to, revisions, from, size - to);
+            int newSize = size - (to - from);
+            Arrays.fill(heads, newSize, size, null);
+            Arrays.fill(revisions, newSize, size, null);
+            size = newSize;
+        }
+
+        /**
+         * A {@link SortedMap} view of the sorted observations of a {@link Collector}, optionally restricted to a range
+         * of heads. Like the views of a {@link TreeMap}, ranges are bounded by heads rather than positions, so that
+         * changes made through any view are visible through every other view.
+         */
+        private static final class SortedHeads extends AbstractMap<SCMHead, SCMRevision>
+                implements SortedMap<SCMHead, SCMRevision> {
+            /**
+             * The collector.
+             */
+            @NonNull
+            private final Collector collector;
+            /**
+             * The low end of the range (inclusive) or {@code null} if unbounded.
+             */
+            @CheckForNull
+            private final SCMHead fromKey;
+            /**
+             * The high end of the range (exclusive) or {@code null} if unbounded.
+             */
+            @CheckForNull
+            private final SCMHead toKey;
+
+            /**
+             * Constructor.
+             *
+             * @param collector the collector.
+             * @param fromKey   the low end of the range (inclusive) or {@code null} if unbounded.
+             * @param toKey     the high end of the range (exclusive) or {@code null} if unbounded.
+             */
+            private SortedHeads(@NonNull Collector collector, @CheckForNull SCMHead fromKey,
+                                @CheckForNull SCMHead toKey) {
+                this.collector = collector;
+                this.fromKey = fromKey;
+                this.toKey = toKey;
+            }
+
+            /**
+             * Checks if a head is within the range of this view.
+             *
+             * @param head the head.
+             * @return {@code true} if the head is within the range.
+             */
+            private boolean inRange(@NonNull SCMHead head) {
+                return (fromKey == null || head.compareTo(fromKey) >= 0)
+                        && (toKey == null || head.compareTo(toKey) < 0);
+            }
+
+            /**
+             * Checks that a head can bound a view of this view.
+             *
+             * @param head the head.
+             * @throws IllegalArgumentException if the head is outside the range of this view.
+             */
+            private void checkBound(@NonNull SCMHead head) {
+                if ((fromKey != null && head.compareTo(fromKey) < 0)
+                        || (toKey != null && head.compareTo(toKey) > 0)) {
+                    throw new IllegalArgumentException("key out of range");
+                }
+            }
+
+            /**
+             * Returns the index of the first observation in this view.
+             *
+             * @return the index of the first observation in this view.
+             */
+            private int start() {
+                return fromKey == null ? 0 : collector.lowerBound(fromKey);
+            }
+
+            /**
+             * Returns the index after the last observation in this view.
+             *
+             * @return the index after the last observation in this view.
+             */
+            private int end() {
+                return toKey == null ? collector.size : collector.lowerBound(toKey);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public int size() {
+                return end() - start();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public boolean containsKey(Object key) {
+                return key instanceof SCMHead && inRange((SCMHead) key) && collector.indexOf((SCMHead) key) >= 0;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMRevision get(Object key) {
+                if (!(key instanceof SCMHead) || !inRange((SCMHead) key)) {
+                    return null;
+                }
+                int index = collector.indexOf((SCMHead) key);
+                return index >= 0 ? collector.revisions[index] : null;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMRevision put(SCMHead key, SCMRevision value) {
+                Objects.requireNonNull(key);
+                if (!inRange(key)) {
+                    throw new IllegalArgumentException("key out of range");
+                }
+                int index = collector.indexOf(key);
+                if (index >= 0) {
+                    SCMRevision previous = collector.revisions[index];
+                    collector.revisions[index] = value;
+                    return previous;
+                }
+                collector.insert(-index - 1, key, value);
+                return null;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMRevision remove(Object key) {
+                if (!(key instanceof SCMHead) || !inRange((SCMHead) key)) {
+                    return null;
+                }
+                int index = collector.indexOf((SCMHead) key);
+                if (index < 0) {
+                    return null;
+                }
+                SCMRevision previous = collector.revisions[index];
+                collector.remove(index, index + 1);
+                return previous;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void clear() {
+                collector.remove(start(), end());
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @NonNull
+            @Override
+            public Set<Entry<SCMHead, SCMRevision>> entrySet() {
+                return new AbstractSet<Entry<SCMHead, SCMRevision>>() {
+                    @Override
+                    public Iterator<Entry<SCMHead, SCMRevision>> iterator() {
+                        return new Iterator<Entry<SCMHead, SCMRevision>>() {
+                            private int next = start();
+                            private int end = end();
+                            private int last = -1;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < end;
+                            }
+
+                            @Override
+                            public Entry<SCMHead, SCMRevision> next() {
+                                if (next >= end) {
+                                    throw new NoSuchElementException();
+                                }
+                                last = next++;
+                                return new HeadEntry(collector, collector.heads[last], collector.revisions[last]);
+                            }
+
+                            @Override
+                            public void remove() {
+                                if (last < 0) {
+                                    throw new IllegalStateException();
+                                }
+                                collector.remove(last, last + 1);
+                                next = last;
+                                end--;
+                                last = -1;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return SortedHeads.this.size();
+                    }
+                };
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public Comparator<? super SCMHead> comparator() {
+                // natural ordering, the same as a TreeMap created with the default constructor
+                return null;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @NonNull
+            @Override
+            public SortedMap<SCMHead, SCMRevision> subMap(@NonNull SCMHead fromKey, @NonNull SCMHead toKey) {
+                if (fromKey.compareTo(toKey) > 0) {
+                    throw new IllegalArgumentException("fromKey > toKey");
+                }
+                checkBound(fromKey);
+                checkBound(toKey);
+                return new SortedHeads(collector, fromKey, toKey);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @NonNull
+            @Override
+            public SortedMap<SCMHead, SCMRevision> headMap(@NonNull SCMHead toKey) {
+                checkBound(toKey);
+                return new SortedHeads(collector, fromKey, toKey);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @NonNull
+            @Override
+            public SortedMap<SCMHead, SCMRevision> tailMap(@NonNull SCMHead fromKey) {
+                checkBound(fromKey);
+                return new SortedHeads(collector, fromKey, toKey);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMHead firstKey() {
+                int start = start();
+                if (start >= end()) {
+                    throw new NoSuchElementException();
+                }
+                return collector.heads[start];
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMHead lastKey() {
+                int end = end();
+                if (end <= start()) {
+                    throw new NoSuchElementException();
+                }
+                return collector.heads[end - 1];
+            }
+        }
+
+        /**
+         * An entry of a {@link SortedHeads} view, {@link #setValue(SCMRevision)} writes through to the collector.
+         */
+        private static final class HeadEntry implements Map.Entry<SCMHead, SCMRevision> {
+            /**
+             * The collector.
+             */
+            @NonNull
+            private final Collector collector;
+            /**
+             * The head.
+             */
+            @NonNull
+            private final SCMHead head;
+            /**
+             * The revision.
+             */
+            @NonNull
+            private SCMRevision revision;
+
+            /**
+             * Constructor.
+             *
+             * @param collector the collector.
+             * @param head      the head.
+             * @param revision  the revision.
+             */
+            private HeadEntry(@NonNull Collector collector, @NonNull SCMHead head, @NonNull SCMRevision revision) {
+                this.collector = collector;
+                this.head = head;
+                this.revision = revision;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMHead getKey() {
+                return head;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMRevision getValue() {
+                return revision;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public SCMRevision setValue(@NonNull SCMRevision value) {
+                int index = collector.indexOf(head);
+                if (index >= 0) {
+                    collector.revisions[index] = value;
+                }
+                SCMRevision previous = revision;
+                revision = value;
+                return previous;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                return head.equals(e.getKey()) && revision.equals(e.getValue());
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public int hashCode() {
+                return head.hashCode() ^ revision.hashCode();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public String toString() {
+                return head + "=" + revision;
+            }
+        }
+    }
+
+    /**
+     * An observer that collects the {@link SCMRevision} of a specific {@link SCMHead} and then stops observing.
+     */
+    public static class Selector extends SCMHeadObserver {
+        /**
+         * The {@link SCMHead} we are waiting for.
+         */
+        @NonNull
+        private final SCMHead head;
+        /**
+         * The corresponding {@link SCMRevision}.
+         */
+        @CheckForNull
+        private SCMRevision revision;
+
+        /**
+         * Constructor.
+         *
+         * @param head the {@link SCMHead} to get the {@link SCMRevision} of.
+         */
+        public Selector(@NonNull SCMHead head) {
+            Objects.requireNonNull(head); // fail fast if null
+            this.head = head;
+        }
+
+        /**
+         * Returns the result.
+         *
+         * @return the result.
+         */
+        @CheckForNull
+        public SCMRevision result() {
+            return revision;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+            if (this.head.equals(head)) {
+                this.revision = revision;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isObserving() {
+            return revision == null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<SCMHead> getIncludes() {
+            return Collections.singleton(head);
+        }
+    }
+
+    /**
+     * An observer that collects the {@link SCMRevision} of a named {@link SCMHead} and then stops observing.
+     */
+    public static class Named extends SCMHeadObserver {
+        /**
+         * The {@link SCMHead#getName()} we are waiting for.
+         */
+        @NonNull
+        private final String head;
+        /**
+         * The corresponding {@link SCMRevision}.
+         */
+        @CheckForNull
+        private SCMRevision revision;
+
+        /**
+         * Constructor.
+         *
+         * @param head the {@link SCMHead#getName()} to get the {@link SCMRevision} of.
+         */
+        public Named(@NonNull String head) {
+            Objects.requireNonNull(head); // fail fast if null
+            this.head = head;
+        }
+
+        /**
+         * Returns the result.
+         *
+         * @return the result.
+         */
+        @CheckForNull
+        public SCMRevision result() {
+            return revision;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+            if (this.head.equals(head.getName())) {
+                this.revision = revision;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isObserving() {
+            return revision == null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<String> getIncludedNames() {
+            return Collections.singleton(head);
+        }
+
+    }
+
+    /**
+     * An observer that picks the first revision it can find.
+     */
+    public static class Any extends SCMHeadObserver {
+        /**
+         * Any {@link SCMRevision}.
+         */
+        @CheckForNull
+        private SCMRevision revision;
+
+        /**
+         * Constructor.
+         */
+        public Any() {
+        }
+
+        /**
+         * Returns the result.
+         *
+         * @return the result.
+         */
+        public SCMRevision getRevision() {
+            return revision;
+        }
+
+        /**
+         * Returns the result.
+         *
+         * @return the result.
+         */
+        @CheckForNull
+        public SCMRevision result() {
+            return revision;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+            this.revision = revision;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isObserving() {
+            return revision == null;
+        }
 
-    /**
-     * Creates an observer that selects the first revision it finds. Also useful for quick checks of non-empty.
-     *
-     * @return an observer that selects the first revision of a any head.
-     * @since 2.0
-     */
-    @NonNull
-    public static Any any() {
-        return new Any();
     }
 
     /**
-     * Creates an observer that selects the first revision it finds. Also useful for quick checks of non-empty.
+     * An observer that retains the best {@link SCMHead}s and {@link SCMRevision}s as ranked by a {@link Comparator}
+     * or by a rank taken when each head is observed. Each head is retained at most once: observing a retained head
+     * again replaces its revision and rank.
      *
-     * @return an observer that selects the first revision of a any head.
-     * @since 2.2.0
-     */
-    @NonNull
-    public static None none() {
-        return None.INSTANCE;
-    }
-
-    /**
-     * An observer that wraps multiple observers and keeps observing as long as one of the wrapped observers wants to.
+     * @since TODO
      */
-    public static class AllFinished extends SCMHeadObserver {
+    public static class Top extends SCMHeadObserver {
+        /**
+         * The number of heads to retain.
+         */
+        private final int limit;
         /**
-         * Our {@link #getIncludes()}
+         * Orders the ranking keys.
          */
-        @GuardedBy("this")
-        private Set<SCMHead> includes = null;
+        @NonNull
+        private final Comparator<Object> comparator;
         /**
-         * Flag to track initialization of {@link #includes}
+         * Takes the ranking key of an observation.
          */
-        @GuardedBy("this")
-        private boolean includesPopulated;
+        @NonNull
+        private final BiFunction<SCMHead, SCMRevision, Object> key;
         /**
-         * The wrapped observers.
+         * The retained entries, worst first, ties broken by order of observation.
          */
         @NonNull
-        private final Iterable<SCMHeadObserver> observers;
+        private final TreeSet<Entry> best;
+        /**
+         * The retained entries by head.
+         */
+        @NonNull
+        private final Map<SCMHead, Entry> retained = new HashMap<>();
+        /**
+         * The number of observations, used to break ties.
+         */
+        private long sequence;
 
         /**
          * Constructor.
          *
-         * @param observers the observers to wrap.
+         * @param limit      the number of heads to retain.
+         * @param comparator ranks the revisions, greatest first.
          */
-        public AllFinished(SCMHeadObserver... observers) {
-            this(Arrays.asList(observers));
+        @SuppressWarnings("unchecked")
+        public Top(int limit, @NonNull Comparator<? super SCMRevision> comparator) {
+            this(limit, (Comparator<Object>) Objects.requireNonNull(comparator), (head, revision) -> revision);
         }
 
         /**
          * Constructor.
          *
-         * @param observers the observers to wrap.
+         * @param limit      the number of heads to retain.
+         * @param comparator orders the ranking keys, greatest first.
+         * @param key        takes the ranking key of an observation.
          */
-        public AllFinished(@NonNull Iterable<SCMHeadObserver> observers) {
-            Objects.requireNonNull(observers); // fail fast if null
-            this.observers = observers;
+        private Top(int limit, @NonNull Comparator<Object> comparator,
+                    @NonNull BiFunction<SCMHead, SCMRevision, Object> key) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("The limit must be positive");
+            }
+            this.limit = limit;
+            this.comparator = comparator;
+            this.key = key;
+            this.best = new TreeSet<>(Comparator.<Entry, Object>comparing(e -> e.key, comparator)
+                    .thenComparingLong(e -> e.sequence));
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
-                throws IOException, InterruptedException {
-            for (SCMHeadObserver observer : observers) {
-                if (observer.isObserving()) {
-                    observer.observe(head, revision);
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+            Entry entry = new Entry(head, revision, key.apply(head, revision), sequence++);
+            Entry previous = retained.get(head);
+            if (previous != null) {
+                best.remove(previous);
+            } else if (best.size() >= limit) {
+                if (comparator.compare(entry.key, best.first().key) <= 0) {
+                    return;
                 }
+                retained.remove(best.pollFirst().head);
             }
+            best.add(entry);
+            retained.put(head, entry);
         }
 
         /**
-         * {@inheritDoc}
+         * Returns the retained results.
+         *
+         * @return the retained results, best first.
          */
-        @Override
-        public boolean isObserving() {
-            for (SCMHeadObserver observer : observers) {
-                if (observer.isObserving()) {
-                    return true;
-                }
+        @NonNull
+        public Map<SCMHead, SCMRevision> result() {
+            Map<SCMHead, SCMRevision> result = new LinkedHashMap<>(best.size() * 2);
+            for (Entry entry : best.descendingSet()) {
+                result.put(entry.head, entry.revision);
             }
-            return false;
+            return result;
         }
 
         /**
-         * {@inheritDoc}
+         * A retained observation.
          */
-        @Override
-        public synchronized Set<SCMHead> getIncludes() {
-            if (includesPopulated) {
-                return includes;
-            }
-            Set<SCMHead> result = null;
-            for (SCMHeadObserver observer : observers) {
-                Set<SCMHead> includes = observer.getIncludes();
-                if (includes == null) {
-                    // at least one of the observers is interested in everything, thus we are also
-                    this.includes = null;
-                    includesPopulated = true;
-                    return null;
-                }
-                if (result == null) {
-                    result = new HashSet<>(includes);
-                } else {
-                    result.addAll(includes);
-                }
+        private static final class Entry {
+            /**
+             * The head.
+             */
+            @NonNull
+            private final SCMHead head;
+            /**
+             * The revision.
+             */
+            @NonNull
+            private final SCMRevision revision;
+            /**
+             * The ranking key, taken when the head was observed.
+             */
+            private final Object key;
+            /**
+             * The order of observation.
+             */
+            private final long sequence;
+
+            /**
+             * Constructor.
+             *
+             * @param head     the head.
+             * @param revision the revision.
+             * @param key      the ranking key.
+             * @param sequence the order of observation.
+             */
+            private Entry(@NonNull SCMHead head, @NonNull SCMRevision revision, Object key, long sequence) {
+                this.head = head;
+                this.revision = revision;
+                this.key = key;
+                this.sequence = sequence;
             }
-            includes = result;
-            includesPopulated = true;
-            return result;
         }
     }
 
     /**
-     * An observer that wraps multiple observers and keeps observing until one of the wrapped observers stops observing.
+     * An observer that collects the {@link SCMHead}s and {@link SCMRevision}s that match a {@link Predicate} and then
+     * stops observing once it has collected enough.
+     *
+     * @since TODO
      */
-    public static class OneFinished extends SCMHeadObserver {
+    public static class Matching extends SCMHeadObserver {
         /**
-         * Our {@link #getIncludes()}
+         * The predicate heads must match.
          */
-        @GuardedBy("this")
-        private Set<SCMHead> includes = null;
+        @NonNull
+        private final Predicate<? super SCMHead> predicate;
         /**
-         * Flag to track initialization of {@link #includes}
+         * The maximum number of heads to collect.
          */
-        @GuardedBy("this")
-        private boolean includesPopulated;
+        private final int limit;
         /**
-         * The wrapped observers.
+         * The collected results.
          */
         @NonNull
-        private final Iterable<SCMHeadObserver> observers;
-
-        /**
-         * Constructor.
-         *
-         * @param observers the observers to wrap.
-         */
-        public OneFinished(SCMHeadObserver... observers) {
-            this(Arrays.asList(observers));
-        }
+        private final Map<SCMHead, SCMRevision> result = new TreeMap<>();
 
         /**
          * Constructor.
          *
-         * @param observers the observers to wrap.
+         * @param predicate the predicate heads must match.
+         * @param limit     the maximum number of heads to collect.
          */
-        public OneFinished(@NonNull Iterable<SCMHeadObserver> observers) {
-            Objects.requireNonNull(observers); // fail fast if null
-            this.observers = observers;
+        public Matching(@NonNull Predicate<? super SCMHead> predicate, int limit) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("The limit must be positive");
+            }
+            Objects.requireNonNull(predicate); // fail fast if null
+            this.predicate = predicate;
+            this.limit = limit;
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
-                throws IOException, InterruptedException {
-            for (SCMHeadObserver observer : observers) {
-                if (observer.isObserving()) {
-                    observer.observe(head, revision);
-                }
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+            if (result.size() < limit && predicate.test(head)) {
+                result.put(SCMHeadInterner.intern(head), revision);
             }
         }
 
@@ -320,65 +1613,46 @@ public abstract class SCMHeadObserver {
          */
         @Override
         public boolean isObserving() {
-            for (SCMHeadObserver observer : observers) {
-                if (!observer.isObserving()) {
-                    return false;
-                }
-            }
-            return true;
+            return result.size() < limit;
         }
 
         /**
-         * {@inheritDoc}
+         * Returns the collected results.
+         *
+         * @return the collected results.
          */
-        @Override
-        public synchronized Set<SCMHead> getIncludes() {
-            if (includesPopulated) {
-                return includes;
-            }
-            Set<SCMHead> result = null;
-            for (SCMHeadObserver observer : observers) {
-                Set<SCMHead> includes = observer.getIncludes();
-                if (includes == null) {
-                    // at least one of the observers is interested in everything, thus we are also
-                    this.includes = null;
-                    includesPopulated = true;
-                    return null;
-                }
-                if (result == null) {
-                    result = new HashSet<>(includes);
-                } else {
-                    result.addAll(includes);
-                }
-            }
-            includes = result;
-            includesPopulated = true;
+        @NonNull
+        public Map<SCMHead, SCMRevision> result() {
             return result;
         }
     }
 
     /**
-     * An observer that collects the observed {@link SCMHead}s and {@link SCMRevision}s.
+     * A thread safe observer that collects the observed {@link SCMHead}s and {@link SCMRevision}s. As with
+     * {@link Collector}, heads with the same {@link SCMHead#compareTo(SCMHead) name} are collapsed into the first
+     * observed head, with whichever revision was observed last.
+     *
+     * @since 3.5.0
      */
-    public static class Collector extends SCMHeadObserver {
+    public static class ConcurrentCollector extends SCMHeadObserver {
         /**
          * The collected results.
          */
         @NonNull
-        private final Map<SCMHead, SCMRevision> result = new TreeMap<>();
+        private final ConcurrentNavigableMap<SCMHead, SCMRevision> result = new ConcurrentSkipListMap<>();
 
         /**
          * {@inheritDoc}
          */
         @Override
         public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
-            result.put(head, revision);
+            result.put(SCMHeadInterner.intern(head), revision);
         }
 
         /**
          * Returns the collected results.
          *
-         * @return the collected results.
+         * @return the collected results, sorted by head.
          */
         @NonNull
         public Map<SCMHead, SCMRevision> result() {
@@ -387,9 +1661,12 @@ public abstract class SCMHeadObserver {
     }
 
     /**
-     * An observer that collects the {@link SCMRevision} of a specific {@link SCMHead} and then stops observing.
+     * A thread safe observer that collects the {@link SCMRevision} of a specific {@link SCMHead} and then stops
+     * observing. If the head is observed more than once, the first revision wins.
+     *
+     * @since 3.5.0
      */
-    public static class Selector extends SCMHeadObserver {
+    public static class ConcurrentSelector extends SCMHeadObserver {
         /**
          * The {@link SCMHead} we are waiting for.
          */
@@ -398,15 +1675,14 @@ public abstract class SCMHeadObserver {
         /**
          * The corresponding {@link SCMRevision}.
          */
-        @CheckForNull
-        private SCMRevision revision;
+        private final AtomicReference<SCMRevision> revision = new AtomicReference<>();
 
         /**
          * Constructor.
          *
          * @param head the {@link SCMHead} to get the {@link SCMRevision} of.
          */
-        public Selector(@NonNull SCMHead head) {
+        public ConcurrentSelector(@NonNull SCMHead head) {
             Objects.requireNonNull(head); // fail fast if null
             this.head = head;
         }
@@ -418,7 +1694,7 @@ public abstract class SCMHeadObserver {
          */
         @CheckForNull
         public SCMRevision result() {
-            return revision;
+            return revision.get();
         }
 
         /**
@@ -427,7 +1703,7 @@ public abstract class SCMHeadObserver {
         @Override
         public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
             if (this.head.equals(head)) {
-                this.revision = revision;
+                this.revision.compareAndSet(null, revision);
             }
         }
 
@@ -436,7 +1712,7 @@ public abstract class SCMHeadObserver {
          */
         @Override
         public boolean isObserving() {
-            return revision == null;
+            return revision.get() == null;
         }
 
         /**
@@ -449,9 +1725,12 @@ public abstract class SCMHeadObserver {
     }
 
     /**
-     * An observer that collects the {@link SCMRevision} of a named {@link SCMHead} and then stops observing.
+     * A thread safe observer that collects the {@link SCMRevision} of a named {@link SCMHead} and then stops
+     * observing. If more than one head with the name is observed, the first revision wins.
+     *
+     * @since 3.5.0
      */
-    public static class Named extends SCMHeadObserver {
+    public static class ConcurrentNamed extends SCMHeadObserver {
         /**
          * The {@link SCMHead#getName()} we are waiting for.
          */
@@ -460,15 +1739,14 @@ public abstract class SCMHeadObserver {
         /**
          * The corresponding {@link SCMRevision}.
          */
-        @CheckForNull
-        private SCMRevision revision;
+        private final AtomicReference<SCMRevision> revision = new AtomicReference<>();
 
         /**
          * Constructor.
          *
          * @param head the {@link SCMHead#getName()} to get the {@link SCMRevision} of.
          */
-        public Named(@NonNull String head) {
+        public ConcurrentNamed(@NonNull String head) {
             Objects.requireNonNull(head); // fail fast if null
             this.head = head;
         }
@@ -480,7 +1758,7 @@ public abstract class SCMHeadObserver {
          */
         @CheckForNull
         public SCMRevision result() {
-            return revision;
+            return revision.get();
         }
 
         /**
@@ -489,7 +1767,7 @@ public abstract class SCMHeadObserver {
         @Override
         public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
             if (this.head.equals(head.getName())) {
-                this.revision = revision;
+                this.revision.compareAndSet(null, revision);
             }
         }
 
@@ -498,35 +1776,28 @@ public abstract class SCMHeadObserver {
          */
         @Override
         public boolean isObserving() {
-            return revision == null;
+            return revision.get() == null;
         }
 
-    }
-
-    /**
-     * An observer that picks the first revision it can find.
-     */
-    public static class Any extends SCMHeadObserver {
-        /**
-         * Any {@link SCMRevision}.
-         */
-        @CheckForNull
-        private SCMRevision revision;
-
         /**
-         * Constructor.
+         * {@inheritDoc}
          */
-        public Any() {
+        @Override
+        public Set<String> getIncludedNames() {
+            return Collections.singleton(head);
         }
+    }
 
+    /**
+     * A thread safe observer that picks the first revision it can find.
+     *
+     * @since 3.5.0
+     */
+    public static class ConcurrentAny extends SCMHeadObserver {
         /**
-         * Returns the result.
-         *
-         * @return the result.
+         * The first {@link SCMRevision} observed.
          */
-        public SCMRevision getRevision() {
-            return revision;
-        }
+        private final AtomicReference<SCMRevision> revision = new AtomicReference<>();
 
         /**
          * Returns the result.
@@ -535,7 +1806,7 @@ public abstract class SCMHeadObserver {
          */
         @CheckForNull
         public SCMRevision result() {
-            return revision;
+            return revision.get();
         }
 
         /**
@@ -543,7 +1814,7 @@ public abstract class SCMHeadObserver {
          */
         @Override
         public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
-            this.revision = revision;
+            this.revision.compareAndSet(null, revision);
         }
 
         /**
@@ -551,9 +1822,8 @@ public abstract class SCMHeadObserver {
          */
         @Override
         public boolean isObserving() {
-            return revision == null;
+            return revision.get() == null;
         }
-
     }
 
     /**
@@ -644,6 +1914,15 @@ public abstract class SCMHeadObserver {
         public Set<SCMHead> getIncludes() {
             return delegate.getIncludes();
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<String> getIncludedNames() {
+            // subclasses that narrow the includes narrow the names too, both are computed once
+            return getIncludes() != null ? super.getIncludedNames() : delegate.getIncludedNames();
+        }
     }
 
     /**
@@ -709,4 +1988,67 @@ public abstract class SCMHeadObserver {
 
     }
 
+    /**
+     * A thread safe {@link SCMHeadObserver} that filters the {@link SCMHead} instances that will be observed by the
+     * wrapped {@link SCMHeadObserver}. Each head is passed on at most once, by whichever thread observes it first, so
+     * the wrapped observer must itself be thread safe.
+     *
+     * @param <O> the type of wrapped {@link SCMHeadObserver}
+     * @since 3.5.0
+     */
+    public static class ConcurrentFilter<O extends SCMHeadObserver> extends Wrapped<O> {
+        /**
+         * The {@link SCMHead} instances that we are including.
+         */
+        private final Set<SCMHead> heads;
+        /**
+         * The {@link SCMHead} instances we have yet to observe.
+         */
+        private final Set<SCMHead> remaining;
+
+        /**
+         * Constructor.
+         *
+         * @param delegate The thread safe {@link SCMHeadObserver} to wrap.
+         * @param heads    The {@link SCMHead} instances that my be observed by the wrapped {@link SCMHeadObserver}.
+         */
+        public ConcurrentFilter(O delegate, SCMHead... heads) {
+            super(delegate);
+            Set<SCMHead> filter = new HashSet<>(Arrays.asList(heads));
+            Set<SCMHead> includes = super.getIncludes();
+            if (includes != null) {
+                filter.retainAll(includes);
+            }
+            this.heads = Collections.unmodifiableSet(filter);
+            this.remaining = ConcurrentHashMap.newKeySet(filter.size());
+            this.remaining.addAll(filter);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
+                throws IOException, InterruptedException {
+            if (remaining.remove(head)) {
+                super.observe(head, revision);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isObserving() {
+            return !remaining.isEmpty() && super.isObserving();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Set<SCMHead> getIncludes() {
+            return heads;
+        }
+    }
 }
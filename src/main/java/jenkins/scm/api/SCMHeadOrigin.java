@@ -207,6 +207,16 @@ public abstract class SCMHeadOrigin implements Serializable {
             return name.hashCode();
         }
 
+        /**
+         * Use the canonical instance after deserialization if interning is enabled.
+         *
+         * @return the canonical instance.
+         * @throws ObjectStreamException never.
+         */
+        private Object readResolve() throws ObjectStreamException {
+            return SCMHeadInterner.intern(this);
+        }
+
         /**
          * {@inheritDoc}
          */
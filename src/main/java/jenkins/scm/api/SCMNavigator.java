@@ -36,16 +36,14 @@ import hudson.model.Item;
 import hudson.model.Items;
 import hudson.model.TaskListener;
 import hudson.util.AlternativeUiTextProvider;
-import hudson.util.LogTaskListener;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import jenkins.model.TransientActionFactory;
 import jenkins.scm.api.trait.SCMTrait;
+import jenkins.scm.impl.DefaultListeners;
 import org.kohsuke.stapler.DataBoundSetter;
 
 /**
@@ -356,16 +354,7 @@ public abstract class SCMNavigator extends AbstractDescribableImpl<SCMNavigator>
      */
     @NonNull
     protected final TaskListener defaultListener(@CheckForNull TaskListener listener) {
-        if (listener == null) {
-            Level level;
-            try {
-                level = Level.parse(System.getProperty(getClass().getName() + ".defaultListenerLevel", "FINE"));
-            } catch (IllegalArgumentException e) {
-                level = Level.FINE;
-            }
-            return new LogTaskListener(Logger.getLogger(getClass().getName()), level);
-        }
-        return listener;
+        return DefaultListeners.of(listener, getClass());
     }
 
     /**
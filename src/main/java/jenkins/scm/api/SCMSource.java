@@ -39,8 +39,9 @@ import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.scm.SCM;
 import hudson.util.AlternativeUiTextProvider;
-import hudson.util.LogTaskListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -48,10 +49,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import jenkins.model.TransientActionFactory;
 import jenkins.scm.api.trait.SCMSourceTrait;
+import jenkins.scm.impl.DefaultListeners;
 import net.jcip.annotations.GuardedBy;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.export.ExportedBean;
@@ -82,46 +83,6 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
      */
     public static final AlternativeUiTextProvider.Message<SCMSource> PRONOUN
             = new AlternativeUiTextProvider.Message<>();
-    /**
-     * This thread local allows us to refactor the {@link SCMSource} API so that there are now implementations that
-     * explicitly pass the {@link SCMSourceCriteria} while legacy implementations can still continue to work
-     * without having to be rewritten.
-     *
-     * @since 2.0
-     */
-    private static final ThreadLocal<SCMSourceCriteria> compatibilityHack = new ThreadLocal<>();
-    /**
-     * A special marker value used by {@link #getCriteria()} and stored in {@link #compatibilityHack} to signal
-     * that {@link #getCriteria()} should return {@code null}.
-     *
-     * @since 2.0
-     */
-    private static final SCMSourceCriteria nullSCMSourceCriteria = new SCMSourceCriteria() {
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean isHead(@NonNull Probe probe, @NonNull TaskListener listener) throws IOException {
-            return true;
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public int hashCode() {
-            return getClass().hashCode();
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean equals(Object obj) {
-            return super.equals(obj);
-        }
-    };
-
     /**
      * The ID of this source.
      */
@@ -227,6 +188,29 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
     @CheckForNull
     private transient SCMSourceOwner owner;
 
+    /**
+     * The (lazily created) cache of {@link #fetchActions(SCMSourceEvent, TaskListener)},
+     * {@link #fetchActions(SCMHead, SCMHeadEvent, TaskListener)},
+     * {@link #fetchActions(SCMRevision, SCMHeadEvent, TaskListener)} and
+     * {@link #fetchTrustedRevision(SCMRevision, TaskListener)} results.
+     */
+    @CheckForNull
+    private transient volatile SCMSourceCache cache;
+
+    /**
+     * The {@link LegacyCriteria} of the legacy {@link #retrieve(SCMHeadObserver, TaskListener)} calls currently in
+     * progress against this source (in order of starting) or {@code null} if there are none. Copy on write, updated
+     * through {@link #LEGACY_CRITERIA}.
+     */
+    @CheckForNull
+    private transient volatile LegacyCriteria[] legacyCriteria;
+
+    /**
+     * Updates {@link #legacyCriteria} without taking a lock.
+     */
+    private static final AtomicReferenceFieldUpdater<SCMSource, LegacyCriteria[]> LEGACY_CRITERIA =
+            AtomicReferenceFieldUpdater.newUpdater(SCMSource.class, LegacyCriteria[].class, "legacyCriteria");
+
     /**
      * Sets the owner.
      *
@@ -248,14 +232,22 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
 
     /**
      * Returns the branch criteria.
+     * <p>
+     * While a legacy {@link #retrieve(SCMHeadObserver, TaskListener)} implementation is being called this returns the
+     * criteria supplied by the caller to the thread that made the call. Every other thread, including any thread the
+     * legacy implementation hands work off to, gets the criteria of the owner. Legacy implementations that hand work
+     * off to other threads should use {@link #getCriteria(SCMHeadObserver)} instead.
      *
      * @return the branch criteria.
      */
     @CheckForNull
     protected final SCMSourceCriteria getCriteria() {
-        SCMSourceCriteria hack = compatibilityHack.get();
-        if (hack != null) {
-            return hack == nullSCMSourceCriteria ? null : hack;
+        LegacyCriteria[] legacy = legacyCriteria;
+        if (legacy != null) {
+            LegacyCriteria call = LegacyCriteria.select(legacy, Thread.currentThread());
+            if (call != null) {
+                return call.criteria;
+            }
         }
         final SCMSourceOwner owner = getOwner();
         if (owner == null) {
@@ -264,6 +256,27 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
         return owner.getSCMSourceCriteria(this);
     }
 
+    /**
+     * Returns the branch criteria that apply to the supplied observer. Legacy implementations of
+     * {@link #retrieve(SCMHeadObserver, TaskListener)} should prefer this method to {@link #getCriteria()} as the
+     * criteria travel with the observer, and therefore work from whichever thread the observer is used on.
+     *
+     * @param observer the observer passed to {@link #retrieve(SCMHeadObserver, TaskListener)}.
+     * @return the branch criteria.
+     * @since 3.5.0
+     */
+    @CheckForNull
+    protected final SCMSourceCriteria getCriteria(@NonNull SCMHeadObserver observer) {
+        SCMHeadObserver o = observer;
+        while (o instanceof SCMHeadObserver.Wrapped) {
+            if (o instanceof LegacyCriteria) {
+                return ((LegacyCriteria) o).criteria;
+            }
+            o = ((SCMHeadObserver.Wrapped<?>) o).unwrap();
+        }
+        return getCriteria();
+    }
+
     /**
      * Fetches the latest heads and corresponding revisions. Implementers are free to cache intermediary results
      * but the call must always check the validity of any intermediary caches.
@@ -366,6 +379,11 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
                            @CheckForNull SCMHeadEvent<?> event,
                            @CheckForNull TaskListener listener)
             throws IOException, InterruptedException {
+        int indexSize = getHeadIndexSize();
+        if (indexSize > 0) {
+            SCMSourceCache cache = cache();
+            observer = new IndexingObserver(observer, cache, cache.getHeadIndex(indexSize));
+        }
         if (MethodUtils.isOverridden(SCMSource.class, getClass(), "retrieve",
                 SCMSourceCriteria.class, SCMHeadObserver.class, SCMHeadEvent.class, TaskListener.class)) {
             // w00t this is a new implementation
@@ -381,28 +399,45 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
         } else if (MethodUtils.isOverridden(SCMSource.class, getClass(), "retrieve",
                 SCMHeadObserver.class, TaskListener.class)){
             // oh dear, really old legacy implementation
-            SCMSourceCriteria hopefullyNull = compatibilityHack.get();
-            compatibilityHack.set(criteria == null ? nullSCMSourceCriteria : criteria);
-            try {
-                if (event == null) {
-                    retrieve(observer, defaultListener(listener));
-                } else if (event.isMatch(this)) {
-                    retrieve(event.filter(this, observer), defaultListener(listener));
-                }
-            } finally {
-                if (hopefullyNull != null) {
-                    // performance is going to be painful if you are nesting them
-                    compatibilityHack.set(hopefullyNull);
-                } else {
-                    compatibilityHack.remove(); // remove entry from ThreadLocalMap, set(null) would retain entry
-                }
+            if (event != null && !event.isMatch(this)) {
+                return;
             }
+            retrieveLegacy(criteria, event == null ? observer : event.filter(this, observer),
+                    defaultListener(listener));
         } else {
             throw new AbstractMethodError("Implement retrieve(SCMSourceCriteria,SCMHeadObserver,TaskListener)");
         }
     }
 
 
+    /**
+     * Calls the legacy {@link #retrieve(SCMHeadObserver, TaskListener)} with the criteria carried by the observer
+     * passed down, so that {@link #getCriteria(SCMHeadObserver)} answers from any thread. For the benefit of
+     * implementations that use {@link #getCriteria()} the call is also recorded against the calling thread for the
+     * duration of the call. Concurrent calls do not wait for each other.
+     *
+     * @param criteria the criteria to use.
+     * @param observer the observer.
+     * @param listener the task listener.
+     * @throws IOException if an error occurs while performing the operation.
+     * @throws InterruptedException if any thread has interrupted the current thread.
+     */
+    private void retrieveLegacy(@CheckForNull SCMSourceCriteria criteria, @NonNull SCMHeadObserver observer,
+                                @NonNull TaskListener listener) throws IOException, InterruptedException {
+        LegacyCriteria legacy = new LegacyCriteria(observer, criteria);
+        LegacyCriteria[] active;
+        do {
+            active = legacyCriteria;
+        } while (!LEGACY_CRITERIA.compareAndSet(this, active, LegacyCriteria.add(active, legacy)));
+        try {
+            retrieve(legacy, listener);
+        } finally {
+            do {
+                active = legacyCriteria;
+            } while (!LEGACY_CRITERIA.compareAndSet(this, active, LegacyCriteria.remove(active, legacy)));
+        }
+    }
+
     /**
      * SPI: Fetches the latest heads and corresponding revisions. Implementers are free to cache intermediary results
      * but the call must always check the validity of any intermediary caches.
@@ -418,7 +453,7 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
             throws IOException, InterruptedException {
         if (MethodUtils.isOverridden(SCMSource.class, getClass(), "retrieve",
                 SCMSourceCriteria.class, SCMHeadObserver.class, TaskListener.class)) {
-            retrieve(getCriteria(), observer, listener);
+            retrieve(getCriteria(observer), observer, listener);
         } else {
             throw new AbstractMethodError("Implement retrieve(SCMSourceCriteria,SCMHeadObserver,TaskListener)");
         }
@@ -496,6 +531,11 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
 
     /**
      * Looks up the immediate parent revision(s) of the specified revision within the specified head.
+     * <p>
+     * The default implementation returns an empty set unless the source has opted in to the
+     * {@link #getHeadIndexSize() head index}, in which case it returns the parents recorded with
+     * {@link #indexParentRevisions(SCMRevision, Set)}. Implementations that override this method may consult
+     * {@link #indexedParentRevisions(SCMRevision)} before making any remote calls.
      *
      * @param head     the head to look up the parent revision(s) within.
      * @param revision the revision to lookup the immediate parent(s) of.
@@ -512,11 +552,16 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
     public Set<SCMRevision> parentRevisions(@NonNull SCMHead head, @NonNull SCMRevision revision,
                                             @CheckForNull TaskListener listener)
             throws IOException, InterruptedException {
-        return Collections.emptySet();
+        Set<SCMRevision> result = indexedParentRevisions(revision);
+        return result == null ? Collections.emptySet() : result;
     }
 
     /**
      * Looks up the immediate parent heads of the specified head within the specified source.
+     * <p>
+     * The default implementation returns an empty map unless the source has opted in to the
+     * {@link #getHeadIndexSize() head index}, in which case it returns what the index can answer. Implementations
+     * that override this method may consult {@link #indexedParentHeads(SCMHead)} before making any remote calls.
      *
      * @param head     the head to look up the parent head(s) within.
      * @param listener the task listener.
@@ -532,7 +577,94 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
     @NonNull
     public Map<SCMHead, SCMRevision> parentHeads(@NonNull SCMHead head, @CheckForNull TaskListener listener)
             throws IOException, InterruptedException {
-        return Collections.emptyMap();
+        Map<SCMHead, SCMRevision> result = indexedParentHeads(head);
+        return result == null ? Collections.emptyMap() : result;
+    }
+
+    /**
+     * Returns the maximum number of heads that this source will remember from the results of {@link #fetch} calls in
+     * order to answer {@link #parentHeads(SCMHead, TaskListener)} and
+     * {@link #parentRevisions(SCMHead, SCMRevision, TaskListener)} locally. Indexed heads are forgotten when a
+     * {@link SCMHeadEvent} concerning them is dispatched.
+     * <p>
+     * The index is disabled by default. Sources opt in by overriding this method to return a positive size; while
+     * the index is enabled the observer passed to
+     * {@link #retrieve(SCMSourceCriteria, SCMHeadObserver, SCMHeadEvent, TaskListener)} is a
+     * {@link SCMHeadObserver.Wrapped} that records every observed head, so implementations that opt in must not rely
+     * on the concrete type of the observer they are given.
+     *
+     * @return the maximum number of heads to index, non-positive values disable the index.
+     * @since 3.5.0
+     */
+    protected int getHeadIndexSize() {
+        return 0;
+    }
+
+    /**
+     * Answers {@link #parentHeads(SCMHead, TaskListener)} from the head index. The index knows the target of a
+     * {@link jenkins.scm.api.mixin.ChangeRequestSCMHead} once the change request or its target has been fetched.
+     *
+     * @param head the head to look up the parent head(s) of.
+     * @return the parent heads or {@code null} if the index cannot answer.
+     * @since 3.5.0
+     */
+    @CheckForNull
+    protected final Map<SCMHead, SCMRevision> indexedParentHeads(@NonNull SCMHead head) {
+        SCMHeadIndex index = headIndex();
+        return index == null ? null : index.getParentHeads(head);
+    }
+
+    /**
+     * Answers {@link #parentRevisions(SCMHead, SCMRevision, TaskListener)} from the head index.
+     *
+     * @param revision the revision to look up the parent revision(s) of.
+     * @return the parent revisions recorded by {@link #indexParentRevisions(SCMRevision, Set)} or {@code null} if the
+     * index cannot answer.
+     * @since 3.5.0
+     */
+    @CheckForNull
+    protected final Set<SCMRevision> indexedParentRevisions(@NonNull SCMRevision revision) {
+        SCMHeadIndex index = headIndex();
+        return index == null ? null : index.getParentRevisions(revision);
+    }
+
+    /**
+     * Records the immediate parent revisions of a revision in the head index, typically while observing the
+     * revision during {@link #retrieve(SCMSourceCriteria, SCMHeadObserver, SCMHeadEvent, TaskListener)}. Does
+     * nothing when the index is disabled or the revision is not deterministic.
+     *
+     * @param revision the revision.
+     * @param parents  the immediate parent revisions.
+     * @since 3.5.0
+     */
+    protected final void indexParentRevisions(@NonNull SCMRevision revision, @NonNull Set<SCMRevision> parents) {
+        int indexSize = getHeadIndexSize();
+        if (indexSize > 0) {
+            cache().getHeadIndex(indexSize).putParentRevisions(revision, parents);
+        }
+    }
+
+    /**
+     * Forgets everything in the head index.
+     *
+     * @since 3.5.0
+     */
+    public final void invalidateHeadIndex() {
+        SCMSourceCache cache = this.cache;
+        if (cache != null) {
+            cache.clearHeadIndex();
+        }
+    }
+
+    /**
+     * Returns the head index if it is enabled and in use.
+     *
+     * @return the head index or {@code null}.
+     */
+    @CheckForNull
+    private SCMHeadIndex headIndex() {
+        SCMSourceCache cache = this.cache;
+        return cache == null || getHeadIndexSize() <= 0 ? null : cache.getHeadIndex();
     }
 
     /**
@@ -779,7 +911,21 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
                                            @CheckForNull SCMHeadEvent event,
                                            @CheckForNull TaskListener listener)
             throws IOException, InterruptedException {
-        return Util.fixNull(retrieveActions(revision, event, defaultListener(listener)));
+        long ttl = getActionsCacheTtl();
+        if (ttl <= 0) {
+            return Util.fixNull(retrieveActions(revision, event, defaultListener(listener)));
+        }
+        SCMSourceCache cache = cache();
+        if (event == null) {
+            List<Action> cached = cache.getActions(revision);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long generation = cache.generation();
+        List<Action> result = Util.fixNull(retrieveActions(revision, event, defaultListener(listener)));
+        cache.putActions(revision, result, ttl, generation);
+        return result;
     }
 
     /**
@@ -812,7 +958,21 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
                                            @CheckForNull SCMHeadEvent event,
                                            @CheckForNull TaskListener listener)
             throws IOException, InterruptedException {
-        return Util.fixNull(retrieveActions(head, event, defaultListener(listener)));
+        long ttl = getActionsCacheTtl();
+        if (ttl <= 0) {
+            return Util.fixNull(retrieveActions(head, event, defaultListener(listener)));
+        }
+        SCMSourceCache cache = cache();
+        if (event == null) {
+            List<Action> cached = cache.getActions(head);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long generation = cache.generation();
+        List<Action> result = Util.fixNull(retrieveActions(head, event, defaultListener(listener)));
+        cache.putActions(head, result, ttl, generation);
+        return result;
     }
 
     /**
@@ -844,7 +1004,70 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
     public final List<Action> fetchActions(@CheckForNull SCMSourceEvent event,
                                            @CheckForNull TaskListener listener)
             throws IOException, InterruptedException {
-        return Util.fixNull(retrieveActions(event, defaultListener(listener)));
+        long ttl = getActionsCacheTtl();
+        if (ttl <= 0) {
+            return Util.fixNull(retrieveActions(event, defaultListener(listener)));
+        }
+        SCMSourceCache cache = cache();
+        if (event == null) {
+            List<Action> cached = cache.getActions();
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long generation = cache.generation();
+        List<Action> result = Util.fixNull(retrieveActions(event, defaultListener(listener)));
+        cache.putActions(result, ttl, generation);
+        return result;
+    }
+
+    /**
+     * Returns how long (in milliseconds) the results of the {@code retrieveActions} methods may be reused by the
+     * corresponding {@code fetchActions} methods. The cache is opt-in: the default is taken from the
+     * {@code jenkins.scm.api.SCMSource.actionsCacheTtl} system property which defaults to {@code 0}.
+     * <p>
+     * Cached results are only used when {@code fetchActions} is called without an event, a call with an event always
+     * refreshes the cached result. Cached results are also discarded when a {@link SCMHeadEvent} or
+     * {@link SCMSourceEvent} concerning the head or source is dispatched. The results for non-deterministic
+     * {@link SCMRevision} instances are never cached. Implementations that override this method to opt in must
+     * return {@link Action} instances that can safely be shared between callers.
+     *
+     * @return the time to live in milliseconds, zero or negative values disable the cache.
+     * @since 3.5.0
+     */
+    protected long getActionsCacheTtl() {
+        return SCMSourceCache.DEFAULT_ACTIONS_TTL;
+    }
+
+    /**
+     * Discards any results cached on behalf of {@link #getActionsCacheTtl()}.
+     *
+     * @since 3.5.0
+     */
+    public final void invalidateActionsCache() {
+        SCMSourceCache cache = this.cache;
+        if (cache != null) {
+            cache.clearActions();
+        }
+    }
+
+    /**
+     * Returns the cache of results, creating it if necessary.
+     *
+     * @return the cache of results.
+     */
+    @NonNull
+    private SCMSourceCache cache() {
+        SCMSourceCache cache = this.cache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = this.cache;
+                if (cache == null) {
+                    this.cache = cache = SCMSourceCache.create(this);
+                }
+            }
+        }
+        return cache;
     }
 
     /**
@@ -962,6 +1185,66 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
         return revision;
     }
 
+    /**
+     * Variant of {@link #getTrustedRevision(SCMRevision, TaskListener)} that reuses previous results where this source
+     * has opted in through {@link #getTrustedRevisionCacheTtl()}. Callers that resolve the trusted revision repeatedly,
+     * such as every rebuild or replay of the same change request revision, should prefer this method.
+     *
+     * @param revision a revision (produced by one of the {@code retrieve} overloads)
+     *                 which may or may not come from a trustworthy source
+     * @param listener a way to explain possible substitutions
+     * @return the (possibly cached) result of {@link #getTrustedRevision(SCMRevision, TaskListener)}
+     * @throws IOException in case the implementation must call {@link #fetch(SCMHead, TaskListener)} or similar
+     * @throws InterruptedException in case the implementation must call {@link #fetch(SCMHead, TaskListener)} or similar
+     * @since TODO
+     */
+    @NonNull
+    public final SCMRevision fetchTrustedRevision(@NonNull SCMRevision revision, @CheckForNull TaskListener listener)
+            throws IOException, InterruptedException {
+        long ttl = getTrustedRevisionCacheTtl();
+        if (ttl <= 0) {
+            return getTrustedRevision(revision, defaultListener(listener));
+        }
+        SCMSourceCache cache = cache();
+        SCMRevision trusted = cache.getTrustedRevision(revision);
+        if (trusted == null) {
+            long generation = cache.generation();
+            trusted = getTrustedRevision(revision, defaultListener(listener));
+            cache.putTrustedRevision(revision, trusted, ttl, generation);
+        }
+        return trusted;
+    }
+
+    /**
+     * Returns how long (in milliseconds) the results of {@link #getTrustedRevision(SCMRevision, TaskListener)} may be
+     * reused by {@link #fetchTrustedRevision(SCMRevision, TaskListener)}. The cache is opt-in: the default is taken
+     * from the {@code jenkins.scm.api.SCMSource.trustedRevisionCacheTtl} system property which defaults to {@code 0}.
+     * <p>
+     * Results are keyed by {@link SCMRevision#equals(Object)}, so for a
+     * {@link jenkins.scm.api.mixin.ChangeRequestSCMRevision} the target revision only forms part of the key when the
+     * change request is merged with its target. Results are discarded when a {@link SCMHeadEvent} concerning the head
+     * (or the target of a change request head) is dispatched. Only override to opt in if the trust decision does not
+     * depend on anything other than the revision and the state of the heads.
+     *
+     * @return the time to live in milliseconds, zero or negative values disable the cache.
+     * @since TODO
+     */
+    protected long getTrustedRevisionCacheTtl() {
+        return SCMSourceCache.DEFAULT_TRUSTED_REVISIONS_TTL;
+    }
+
+    /**
+     * Discards any results cached on behalf of {@link #getTrustedRevisionCacheTtl()}.
+     *
+     * @since TODO
+     */
+    public final void invalidateTrustedRevisionCache() {
+        SCMSourceCache cache = this.cache;
+        if (cache != null) {
+            cache.clearTrustedRevisions();
+        }
+    }
+
     /**
      * Turns a possibly {@code null} {@link TaskListener} reference into a guaranteed non-null reference.
      *
@@ -970,16 +1253,7 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
      */
     @NonNull
     protected final TaskListener defaultListener(@CheckForNull TaskListener listener) {
-        if (listener == null) {
-            Level level;
-            try {
-                level = Level.parse(System.getProperty(getClass().getName() + ".defaultListenerLevel", "FINE"));
-            } catch (IllegalArgumentException e) {
-                level = Level.FINE;
-            }
-            return new LogTaskListener(Logger.getLogger(getClass().getName()), level);
-        }
-        return listener;
+        return DefaultListeners.of(listener, getClass());
     }
 
     /**
@@ -1216,6 +1490,132 @@ public abstract class SCMSource extends AbstractDescribableImpl<SCMSource>
      */
     public void afterSave() {}
 
+    /**
+     * Records the heads observed by a fetch in the {@link SCMHeadIndex}, until the cache is invalidated.
+     */
+    private static final class IndexingObserver extends SCMHeadObserver.Wrapped<SCMHeadObserver> {
+        /**
+         * The cache.
+         */
+        @NonNull
+        private final SCMSourceCache cache;
+        /**
+         * The index.
+         */
+        @NonNull
+        private final SCMHeadIndex index;
+        /**
+         * The {@link SCMSourceCache#generation()} when the fetch started.
+         */
+        private final long generation;
+
+        /**
+         * Constructor.
+         *
+         * @param delegate the observer to wrap.
+         * @param cache    the cache.
+         * @param index    the index.
+         */
+        private IndexingObserver(@NonNull SCMHeadObserver delegate, @NonNull SCMSourceCache cache,
+                                 @NonNull SCMHeadIndex index) {
+            super(delegate);
+            this.cache = cache;
+            this.index = index;
+            this.generation = cache.generation();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
+                throws IOException, InterruptedException {
+            cache.index(index, head, revision, generation);
+            super.observe(head, revision);
+        }
+    }
+
+    /**
+     * Carries the criteria of a call to a legacy {@link #retrieve(SCMHeadObserver, TaskListener)} implementation
+     * along with the observer passed to it.
+     */
+    private static final class LegacyCriteria extends SCMHeadObserver.Wrapped<SCMHeadObserver> {
+        /**
+         * The criteria or {@code null} if the caller did not supply criteria.
+         */
+        @CheckForNull
+        private final SCMSourceCriteria criteria;
+        /**
+         * The thread that started the call.
+         */
+        @NonNull
+        private final Thread thread;
+
+        /**
+         * Constructor.
+         *
+         * @param delegate the observer to pass to the legacy implementation.
+         * @param criteria the criteria.
+         */
+        private LegacyCriteria(@NonNull SCMHeadObserver delegate, @CheckForNull SCMSourceCriteria criteria) {
+            super(delegate);
+            this.criteria = criteria;
+            this.thread = Thread.currentThread();
+        }
+
+        /**
+         * Selects the call that applies to a thread.
+         *
+         * @param active the calls in progress.
+         * @param thread the thread.
+         * @return the most recent call started by the thread (the innermost when calls are nested) or {@code null} if
+         * the thread is not making a call.
+         */
+        @CheckForNull
+        private static LegacyCriteria select(@NonNull LegacyCriteria[] active, @NonNull Thread thread) {
+            for (int i = active.length - 1; i >= 0; i--) {
+                if (active[i].thread == thread) {
+                    return active[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Appends a call to the calls in progress.
+         *
+         * @param active the calls in progress or {@code null}.
+         * @param legacy the call to add.
+         * @return the new calls in progress.
+         */
+        @NonNull
+        private static LegacyCriteria[] add(@CheckForNull LegacyCriteria[] active, @NonNull LegacyCriteria legacy) {
+            if (active == null) {
+                return new LegacyCriteria[]{legacy};
+            }
+            LegacyCriteria[] result = Arrays.copyOf(active, active.length + 1);
+            result[active.length] = legacy;
+            return result;
+        }
+
+        /**
+         * Removes a call from the calls in progress.
+         *
+         * @param active the calls in progress.
+         * @param legacy the call to remove.
+         * @return the new calls in progress or {@code null} if there are none.
+         */
+        @CheckForNull
+        private static LegacyCriteria[] remove(@CheckForNull LegacyCriteria[] active, @NonNull LegacyCriteria legacy) {
+            if (active == null) {
+                return null;
+            }
+            List<LegacyCriteria> result = new ArrayList<>(Arrays.asList(active));
+            result.remove(legacy);
+            return result.isEmpty() ? null : result.toArray(new LegacyCriteria[0]);
+        }
+    }
+
     /**
      * Means of locating a head given an item.
      *
@@ -0,0 +1,476 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Action;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.scm.api.mixin.ChangeRequestSCMHead;
+import jenkins.scm.impl.ExpiringCache;
+import jenkins.util.SystemProperties;
+
+/**
+ * Holds the results that a single {@link SCMSource} has opted in to caching and takes care of invalidating them when
+ * a matching {@link SCMHeadEvent} or {@link SCMSourceEvent} is dispatched.
+ * <p>
+ * Every invalidation advances the {@linkplain #generation() generation} before removing anything. Callers capture the
+ * generation before computing a result and pass it when storing the result, so that a result computed before an
+ * invalidation is never stored after it.
+ *
+ * @see SCMSource#getActionsCacheTtl()
+ * @see SCMSource#getTrustedRevisionCacheTtl()
+ * @see SCMSource#getHeadIndexSize()
+ * @since 3.5.0
+ */
+class SCMSourceCache {
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SCMSourceCache.class.getName());
+
+    /**
+     * The default time to live in milliseconds of cached actions, non-positive values disable caching.
+     */
+    static final long DEFAULT_ACTIONS_TTL =
+            SystemProperties.getLong(SCMSource.class.getName() + ".actionsCacheTtl", 0L);
+
+    /**
+     * The maximum number of cached actions per {@link SCMSource}.
+     */
+    static final int MAX_ACTIONS = Math.max(1,
+            SystemProperties.getInteger(SCMSource.class.getName() + ".actionsCacheSize", 256));
+
+    /**
+     * The default time to live in milliseconds of cached trusted revisions, non-positive values disable caching.
+     */
+    static final long DEFAULT_TRUSTED_REVISIONS_TTL =
+            SystemProperties.getLong(SCMSource.class.getName() + ".trustedRevisionCacheTtl", 0L);
+
+    /**
+     * The maximum number of cached trusted revisions per {@link SCMSource}.
+     */
+    static final int MAX_TRUSTED_REVISIONS = Math.max(1,
+            SystemProperties.getInteger(SCMSource.class.getName() + ".trustedRevisionCacheSize", 256));
+
+    /**
+     * The key used for the results of {@link SCMSource#retrieveActions(SCMSourceEvent, hudson.model.TaskListener)}.
+     */
+    private static final Object SOURCE_KEY = new Object();
+
+    /**
+     * The live caches. Keyed weakly by the cache so that caches are released with their {@link SCMSource}.
+     */
+    private static final Set<SCMSourceCache> caches =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * The source whose results are cached.
+     */
+    @NonNull
+    private final SCMSource source;
+
+    /**
+     * The cached actions keyed by {@link SCMRevision}, {@link SCMHead} or {@link #SOURCE_KEY}.
+     */
+    @NonNull
+    private final ExpiringCache<Object, List<Action>> actions;
+
+    /**
+     * The cached trusted revisions keyed by the untrusted revision.
+     */
+    @NonNull
+    private final ExpiringCache<SCMRevision, SCMRevision> trustedRevisions;
+
+    /**
+     * The index of fetched heads or {@code null} if the source has not used one yet.
+     */
+    @CheckForNull
+    private volatile SCMHeadIndex headIndex;
+
+    /**
+     * Advanced before any cached results are invalidated.
+     */
+    @NonNull
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param source the source whose results are cached.
+     */
+    private SCMSourceCache(@NonNull SCMSource source) {
+        this.source = source;
+        this.actions = new ExpiringCache<>(MAX_ACTIONS, DEFAULT_ACTIONS_TTL, TimeUnit.MILLISECONDS);
+        this.trustedRevisions =
+                new ExpiringCache<>(MAX_TRUSTED_REVISIONS, DEFAULT_TRUSTED_REVISIONS_TTL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates and registers a new cache.
+     *
+     * @param source the source whose results are cached.
+     * @return the new cache.
+     */
+    @NonNull
+    static SCMSourceCache create(@NonNull SCMSource source) {
+        SCMSourceCache cache = new SCMSourceCache(source);
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Returns the cached actions for a {@link SCMRevision}.
+     *
+     * @param revision the revision.
+     * @return a copy of the cached actions or {@code null} if there is no cached result.
+     */
+    @CheckForNull
+    List<Action> getActions(@NonNull SCMRevision revision) {
+        return copy(actions.get(revision));
+    }
+
+    /**
+     * Returns the cached actions for a {@link SCMHead}.
+     *
+     * @param head the head.
+     * @return a copy of the cached actions or {@code null} if there is no cached result.
+     */
+    @CheckForNull
+    List<Action> getActions(@NonNull SCMHead head) {
+        return copy(actions.get(head));
+    }
+
+    /**
+     * Returns the cached actions for the {@link SCMSource}.
+     *
+     * @return a copy of the cached actions or {@code null} if there is no cached result.
+     */
+    @CheckForNull
+    List<Action> getActions() {
+        return copy(actions.get(SOURCE_KEY));
+    }
+
+    /**
+     * Returns the current generation, to be captured before computing a result that will be cached.
+     *
+     * @return the current generation.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the actions for a {@link SCMRevision}. Actions of non-deterministic revisions are never cached.
+     *
+     * @param revision   the revision.
+     * @param actions    the actions.
+     * @param ttl        the time to live in milliseconds.
+     * @param generation the {@link #generation()} captured before the actions were retrieved.
+     */
+    void putActions(@NonNull SCMRevision revision, @NonNull List<Action> actions, long ttl, long generation) {
+        if (revision.isDeterministic()) {
+            put(this.actions, revision, new ArrayList<>(actions), ttl, generation);
+        }
+    }
+
+    /**
+     * Caches the actions for a {@link SCMHead}.
+     *
+     * @param head       the head.
+     * @param actions    the actions.
+     * @param ttl        the time to live in milliseconds.
+     * @param generation the {@link #generation()} captured before the actions were retrieved.
+     */
+    void putActions(@NonNull SCMHead head, @NonNull List<Action> actions, long ttl, long generation) {
+        put(this.actions, head, new ArrayList<>(actions), ttl, generation);
+    }
+
+    /**
+     * Caches the actions for the {@link SCMSource}.
+     *
+     * @param actions    the actions.
+     * @param ttl        the time to live in milliseconds.
+     * @param generation the {@link #generation()} captured before the actions were retrieved.
+     */
+    void putActions(@NonNull List<Action> actions, long ttl, long generation) {
+        put(this.actions, SOURCE_KEY, new ArrayList<>(actions), ttl, generation);
+    }
+
+    /**
+     * Removes all cached actions.
+     */
+    void clearActions() {
+        generation.incrementAndGet();
+        actions.clear();
+    }
+
+    /**
+     * Returns the cached trusted revision for a {@link SCMRevision}. As the key is compared using
+     * {@link SCMRevision#equals(Object)}, for a {@link jenkins.scm.api.mixin.ChangeRequestSCMRevision} the target
+     * revision only forms part of the key when the change request is merged with its target.
+     *
+     * @param revision the possibly untrusted revision.
+     * @return the cached trusted revision or {@code null} if there is no cached result.
+     */
+    @CheckForNull
+    SCMRevision getTrustedRevision(@NonNull SCMRevision revision) {
+        return trustedRevisions.get(revision);
+    }
+
+    /**
+     * Caches the trusted revision for a {@link SCMRevision}. Non-deterministic revisions are never cached.
+     *
+     * @param revision   the possibly untrusted revision.
+     * @param trusted    the trusted revision.
+     * @param ttl        the time to live in milliseconds.
+     * @param generation the {@link #generation()} captured before the trusted revision was determined.
+     */
+    void putTrustedRevision(@NonNull SCMRevision revision, @NonNull SCMRevision trusted, long ttl, long generation) {
+        if (revision.isDeterministic() && trusted.isDeterministic()) {
+            put(trustedRevisions, revision, trusted, ttl, generation);
+        }
+    }
+
+    /**
+     * Removes all cached trusted revisions.
+     */
+    void clearTrustedRevisions() {
+        generation.incrementAndGet();
+        trustedRevisions.clear();
+    }
+
+    /**
+     * Stores a result unless the cache has been invalidated since the result's generation.
+     *
+     * @param cache      the cache to store the result in.
+     * @param key        the key.
+     * @param value      the result.
+     * @param ttl        the time to live in milliseconds.
+     * @param generation the {@link #generation()} captured before the result was computed.
+     * @param <K>        the type of key.
+     * @param <V>        the type of result.
+     */
+    private <K, V> void put(@NonNull ExpiringCache<K, V> cache, @NonNull K key, @NonNull V value, long ttl,
+                            long generation) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        cache.put(key, value, ttl, TimeUnit.MILLISECONDS);
+        if (this.generation.get() != generation) {
+            // invalidated while we were storing, the invalidation may have missed our result
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Records the revision of a head in the index unless the cache has been invalidated since the fetch started.
+     *
+     * @param index      the index.
+     * @param head       the head.
+     * @param revision   the revision.
+     * @param generation the {@link #generation()} captured when the fetch started.
+     */
+    void index(@NonNull SCMHeadIndex index, @NonNull SCMHead head, @NonNull SCMRevision revision, long generation) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        index.observe(head, revision);
+        if (this.generation.get() != generation) {
+            // invalidated while we were storing, the invalidation may have missed our result
+            index.remove(Collections.singleton(head));
+        }
+    }
+
+    /**
+     * Returns the index of fetched heads, creating or resizing it as necessary.
+     *
+     * @param maxSize the maximum number of heads to index.
+     * @return the index.
+     */
+    @NonNull
+    SCMHeadIndex getHeadIndex(int maxSize) {
+        SCMHeadIndex index = headIndex;
+        if (index == null || index.getMaxSize() != maxSize) {
+            synchronized (this) {
+                index = headIndex;
+                if (index == null || index.getMaxSize() != maxSize) {
+                    headIndex = index = new SCMHeadIndex(maxSize);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of fetched heads if the source has used one.
+     *
+     * @return the index or {@code null}.
+     */
+    @CheckForNull
+    SCMHeadIndex getHeadIndex() {
+        return headIndex;
+    }
+
+    /**
+     * Forgets everything in the index of fetched heads.
+     */
+    void clearHeadIndex() {
+        generation.incrementAndGet();
+        SCMHeadIndex index = headIndex;
+        if (index != null) {
+            index.clear();
+        }
+    }
+
+    /**
+     * Removes the cached results for the heads that the event concerns.
+     *
+     * @param event the event.
+     */
+    private void invalidate(@NonNull SCMHeadEvent<?> event) {
+        Map<SCMHead, SCMRevision> heads;
+        try {
+            // implementations can usually rule out a source without computing the heads
+            if (!event.isMatch(source)) {
+                return;
+            }
+            heads = event.headsFor(source);
+        } catch (RuntimeException e) {
+            // be safe and forget everything
+            LOGGER.log(Level.FINE, "Could not determine heads of " + event + " for " + source, e);
+            generation.incrementAndGet();
+            actions.clear();
+            trustedRevisions.clear();
+            SCMHeadIndex index = headIndex;
+            if (index != null) {
+                index.clear();
+            }
+            return;
+        }
+        if (heads.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        Set<SCMHead> keys = heads.keySet();
+        actions.removeIf(key -> key instanceof SCMHead && keys.contains(key)
+                || key instanceof SCMRevision && keys.contains(((SCMRevision) key).getHead()));
+        // the trust of a change request can depend on its target so changes to the target invalidate it too
+        trustedRevisions.removeIf(revision -> {
+            SCMHead head = revision.getHead();
+            return keys.contains(head)
+                    || head instanceof ChangeRequestSCMHead && keys.contains(((ChangeRequestSCMHead) head).getTarget());
+        });
+        SCMHeadIndex index = headIndex;
+        if (index != null) {
+            index.remove(keys);
+        }
+    }
+
+    /**
+     * Removes the cached results for the source if the event concerns it.
+     *
+     * @param event the event.
+     */
+    private void invalidate(@NonNull SCMSourceEvent<?> event) {
+        boolean match;
+        try {
+            match = event.isMatch(source);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Could not match " + event + " against " + source, e);
+            match = true;
+        }
+        if (!match) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (event.getType() == SCMEvent.Type.REMOVED) {
+            actions.clear();
+            trustedRevisions.clear();
+            SCMHeadIndex index = headIndex;
+            if (index != null) {
+                index.clear();
+            }
+        } else {
+            actions.remove(SOURCE_KEY);
+        }
+    }
+
+    /**
+     * Invalidates the cached results of all sources concerned by the event.
+     *
+     * @param event the event being dispatched.
+     */
+    static void invalidateAll(@NonNull SCMHeadEvent<?> event) {
+        for (SCMSourceCache cache : snapshot()) {
+            cache.invalidate(event);
+        }
+    }
+
+    /**
+     * Invalidates the cached results of all sources concerned by the event.
+     *
+     * @param event the event being dispatched.
+     */
+    static void invalidateAll(@NonNull SCMSourceEvent<?> event) {
+        for (SCMSourceCache cache : snapshot()) {
+            cache.invalidate(event);
+        }
+    }
+
+    /**
+     * Takes a copy of the live caches so that invalidation does not hold the registry lock.
+     *
+     * @return the live caches.
+     */
+    @NonNull
+    private static List<SCMSourceCache> snapshot() {
+        synchronized (caches) {
+            return new ArrayList<>(caches);
+        }
+    }
+
+    /**
+     * Copies a cached list so that callers cannot modify the cache.
+     *
+     * @param actions the cached list.
+     * @return the copy or {@code null}.
+     */
+    @CheckForNull
+    private static List<Action> copy(@CheckForNull List<Action> actions) {
+        return actions == null ? null : new ArrayList<>(actions);
+    }
+}
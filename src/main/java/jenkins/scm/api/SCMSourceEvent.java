@@ -162,6 +162,11 @@ public abstract class SCMSourceEvent<P> extends SCMEvent<P> {
             super(event);
         }
 
+        @Override
+        protected void beforeDispatch(SCMSourceEvent<?> event) {
+            SCMSourceCache.invalidateAll(event);
+        }
+
         @Override
         protected void log(SCMEventListener l, Throwable e) {
             LogRecord lr = new LogRecord(Level.WARNING,
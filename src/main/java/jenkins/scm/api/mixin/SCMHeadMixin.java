@@ -88,5 +88,7 @@ public interface SCMHeadMixin extends Comparable<SCMHead>, Serializable {
     @Restricted(NoExternalUse.class)
     interface Equality {
         boolean equals(@NonNull SCMHeadMixin o1, @NonNull SCMHeadMixin o2);
+
+        int hashCode(@NonNull SCMHeadMixin o);
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMSource;
+
+/**
+ * The result of {@link SCMHeadPrefilter#compile(java.util.List)} when there is more than one filter to apply.
+ *
+ * @since TODO
+ */
+final class CompiledSCMHeadPrefilter extends SCMHeadPrefilter {
+
+    /**
+     * The (merged) name based filters, evaluated first as they only need the name.
+     */
+    @NonNull
+    private final SCMHeadNamePrefilter[] names;
+
+    /**
+     * The remaining filters, evaluated in their original order.
+     */
+    @NonNull
+    private final SCMHeadPrefilter[] others;
+
+    /**
+     * Constructor.
+     *
+     * @param names  the name based filters.
+     * @param others the remaining filters.
+     */
+    CompiledSCMHeadPrefilter(@NonNull SCMHeadNamePrefilter[] names, @NonNull SCMHeadPrefilter[] others) {
+        this.names = names;
+        this.others = others;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isExcluded(@NonNull SCMSource source, @NonNull SCMHead head) {
+        if (names.length > 0) {
+            String name = head.getName();
+            for (SCMHeadNamePrefilter filter : names) {
+                if (filter.isExcluded(name)) {
+                    return true;
+                }
+            }
+        }
+        for (SCMHeadPrefilter filter : others) {
+            if (filter.isExcluded(source, head)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each filter is applied to the whole batch in turn so that any batch implementations are used, with the batch
+     * shrinking as heads are excluded.
+     */
+    @NonNull
+    @Override
+    public <H extends SCMHead> List<H> filter(@NonNull SCMSource source, @NonNull Collection<? extends H> heads) {
+        List<H> result = null;
+        for (SCMHeadPrefilter filter : names) {
+            result = filter.filter(source, result == null ? heads : result);
+        }
+        for (SCMHeadPrefilter filter : others) {
+            result = filter.filter(source, result == null ? heads : result);
+        }
+        return result == null ? super.filter(source, heads) : result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CompiledSCMHeadPrefilter{names=" + Arrays.toString(names) + ", others=" + Arrays.toString(others)
+                + '}';
+    }
+}
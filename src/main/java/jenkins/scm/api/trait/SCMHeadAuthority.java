@@ -147,6 +147,20 @@ public abstract class SCMHeadAuthority<S extends SCMSourceRequest, H extends SCM
         return checkTrusted(request, (H) revision.getHead());
     }
 
+    /**
+     * SPI: indicates whether {@link #checkTrusted(SCMSourceRequest, SCMHeadMixin)} depends only on the type of
+     * {@link SCMHead} and its {@link SCMHead#getOrigin()}, for example an authority that trusts change requests from
+     * forks owned by collaborators. When {@code true} the decision is computed once per origin and reused by
+     * {@link SCMSourceRequest#isTrusted(SCMHead)} for the other heads from that origin, which avoids repeating
+     * remote permission checks for each change request. Default implementation returns {@code false}.
+     *
+     * @return {@code true} if heads of the same type from the same origin are always equally trusted.
+     * @since 3.5.0
+     */
+    protected boolean isTrustDeterminedByOrigin() {
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
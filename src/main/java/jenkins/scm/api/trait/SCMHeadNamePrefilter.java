@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMSource;
+
+/**
+ * A {@link SCMHeadPrefilter} that decides exclusion based solely on the {@link SCMHead#getName()}. Because the
+ * decision depends only on the name, {@link SCMHeadPrefilter#compile(java.util.List)} can evaluate all such filters
+ * against a single name lookup and {@link #merge(SCMHeadNamePrefilter)} compatible filters into one.
+ *
+ * @since TODO
+ */
+public abstract class SCMHeadNamePrefilter extends SCMHeadPrefilter {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean isExcluded(@NonNull SCMSource source, @NonNull SCMHead head) {
+        return isExcluded(head.getName());
+    }
+
+    /**
+     * Checks if the supplied {@link SCMHead#getName()} is excluded.
+     *
+     * @param name the name of the {@link SCMHead}.
+     * @return {@code true} if and only if heads with the supplied name are excluded.
+     */
+    public abstract boolean isExcluded(@NonNull String name);
+
+    /**
+     * Attempts to merge this filter with another filter such that the result excludes a name if and only if either
+     * of the two filters would exclude the name. The default implementation only merges equal filters.
+     *
+     * @param other the other filter.
+     * @return the merged filter or {@code null} if the filters cannot be merged.
+     */
+    @CheckForNull
+    public SCMHeadNamePrefilter merge(@NonNull SCMHeadNamePrefilter other) {
+        return equals(other) ? this : null;
+    }
+
+}
@@ -24,7 +24,11 @@
 
 package jenkins.scm.api.trait;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMSource;
 
@@ -49,4 +53,72 @@ public abstract class SCMHeadPrefilter {
      */
     public abstract boolean isExcluded(@NonNull SCMSource source, @NonNull SCMHead head);
 
+    /**
+     * Filters a batch of {@link SCMHead} instances, for example a page of branches returned by a single remote API
+     * call, before any revisions are created for them. The default implementation calls
+     * {@link #isExcluded(SCMSource, SCMHead)} for each head; implementations that can decide more cheaply for a
+     * whole batch may override.
+     *
+     * @param source the {@link SCMSource}.
+     * @param heads  the {@link SCMHead} instances.
+     * @param <H>    the type of {@link SCMHead}.
+     * @return the {@link SCMHead} instances that are not excluded, in iteration order.
+     * @since 3.5.0
+     */
+    @NonNull
+    public <H extends SCMHead> List<H> filter(@NonNull SCMSource source, @NonNull Collection<? extends H> heads) {
+        List<H> result = new ArrayList<>(heads.size());
+        for (H head : heads) {
+            if (!isExcluded(source, head)) {
+                result.add(head);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Combines the supplied filters into a single filter that excludes a {@link SCMHead} if any of the supplied
+     * filters would exclude it. {@link SCMHeadNamePrefilter} instances are {@link SCMHeadNamePrefilter#merge merged}
+     * where possible and are evaluated against a single {@link SCMHead#getName()} ahead of the remaining filters,
+     * which are evaluated individually in their original order.
+     *
+     * @param filters the filters.
+     * @return the combined filter or {@code null} if there are no filters.
+     * @since TODO
+     */
+    @CheckForNull
+    public static SCMHeadPrefilter compile(@NonNull List<? extends SCMHeadPrefilter> filters) {
+        List<SCMHeadNamePrefilter> names = new ArrayList<>();
+        List<SCMHeadPrefilter> others = new ArrayList<>();
+        for (SCMHeadPrefilter filter : filters) {
+            if (filter instanceof SCMHeadNamePrefilter) {
+                SCMHeadNamePrefilter f = (SCMHeadNamePrefilter) filter;
+                boolean merged = false;
+                for (int i = 0; i < names.size() && !merged; i++) {
+                    SCMHeadNamePrefilter m = names.get(i).merge(f);
+                    if (m != null) {
+                        names.set(i, m);
+                        merged = true;
+                    }
+                }
+                if (!merged) {
+                    names.add(f);
+                }
+            } else {
+                others.add(filter);
+            }
+        }
+        switch (names.size() + others.size()) {
+            case 0:
+                return null;
+            case 1:
+                return names.isEmpty() ? others.get(0) : names.get(0);
+            default:
+                return new CompiledSCMHeadPrefilter(
+                        names.toArray(new SCMHeadNamePrefilter[0]),
+                        others.toArray(new SCMHeadPrefilter[0])
+                );
+        }
+    }
+
 }
@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import hudson.model.Items;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadOrigin;
+import jenkins.scm.api.SCMSource;
+import jenkins.scm.impl.ExpiringCache;
+import jenkins.util.SystemProperties;
+
+/**
+ * A cache of {@link SCMHeadAuthority} trust decisions shared across {@link SCMSourceRequest} instances, keyed by
+ * {@link SCMSource} instance, {@linkplain #scopeOf(SCMSource, SCMHeadAuthority) configuration} of
+ * {@link SCMHeadAuthority}, type of {@link SCMHead} and {@link SCMHeadOrigin}. Only the decisions of authorities that
+ * {@linkplain SCMHeadAuthority#isTrustDeterminedByOrigin() depend only on the origin} are cached.
+ * <p>
+ * The key uses the source instance rather than {@link SCMSource#getId()} as identifiers are only unique within an
+ * owner, and a reconfigured source is a new instance. As the key includes the configuration of the authority,
+ * reconfiguring the authority does not reuse the decisions of the previous configuration.
+ * <p>
+ * Disabled by default as a change in permissions will not be seen until the cached decision expires.
+ *
+ * @since 3.5.0
+ */
+final class SCMHeadTrustCache {
+
+    /**
+     * The maximum number of cached decisions, non-positive values disable the cache.
+     */
+    private static final int SIZE =
+            SystemProperties.getInteger(SCMSourceRequest.class.getName() + ".trustCacheSize", 0);
+
+    /**
+     * The time to live in milliseconds of cached decisions.
+     */
+    private static final long TTL = SystemProperties.getLong(SCMSourceRequest.class.getName() + ".trustCacheTtl",
+            TimeUnit.MINUTES.toMillis(5));
+
+    /**
+     * The shared cache or {@code null} if disabled.
+     */
+    @CheckForNull
+    private static final SCMHeadTrustCache INSTANCE = SIZE > 0 ? new SCMHeadTrustCache(SIZE, TTL) : null;
+
+    /**
+     * The cached decisions.
+     */
+    @NonNull
+    private final ExpiringCache<Key, Boolean> decisions;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of cached decisions.
+     * @param ttl     the time to live in milliseconds of cached decisions.
+     */
+    /*package*/ SCMHeadTrustCache(int maxSize, long ttl) {
+        this.decisions = new ExpiringCache<>(maxSize, ttl, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared cache.
+     *
+     * @return the shared cache or {@code null} if disabled.
+     */
+    @CheckForNull
+    static SCMHeadTrustCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached decision.
+     *
+     * @param scope the {@linkplain #scopeOf(SCMSource, SCMHeadAuthority) scope} of the decision.
+     * @param head  the head.
+     * @return the cached decision or {@code null} if there is none.
+     */
+    @CheckForNull
+    Boolean get(@NonNull Scope scope, @NonNull SCMHead head) {
+        return decisions.get(new Key(scope, head));
+    }
+
+    /**
+     * Caches a decision.
+     *
+     * @param scope   the {@linkplain #scopeOf(SCMSource, SCMHeadAuthority) scope} of the decision.
+     * @param head    the head.
+     * @param trusted the decision.
+     */
+    void put(@NonNull Scope scope, @NonNull SCMHead head, boolean trusted) {
+        decisions.put(new Key(scope, head), trusted);
+    }
+
+    /**
+     * Returns the scope of the decisions of an authority, i.e. the source together with the type of the authority and
+     * a digest of its XML form, so that authorities created anew for each request share their decisions while
+     * reconfigured authorities do not. Computing the scope serializes the authority, so callers should compute it
+     * once per authority instance.
+     *
+     * @param source    the source.
+     * @param authority the authority.
+     * @return the scope.
+     */
+    @NonNull
+    static Scope scopeOf(@NonNull SCMSource source, @NonNull SCMHeadAuthority<?, ?, ?> authority) {
+        return new Scope(source, authority.getClass().getName() + "::"
+                + Util.getDigestOf(Items.XSTREAM.toXML(authority)
+                .replaceAll(" plugin=(('[^']+@[^']+')|(\"[^\"]+@[^\"]+\"))", "")));
+    }
+
+    /**
+     * Returns the number of cached decisions.
+     *
+     * @return the number of cached decisions.
+     */
+    int size() {
+        return decisions.size();
+    }
+
+    /**
+     * The scope of the decisions of a configured {@link SCMHeadAuthority} within a {@link SCMSource}.
+     */
+    static final class Scope {
+        /**
+         * The source, compared by identity.
+         */
+        @NonNull
+        private final SCMSource source;
+        /**
+         * The type of the authority and a digest of its configuration.
+         */
+        @NonNull
+        private final String configuration;
+
+        /**
+         * Constructor.
+         *
+         * @param source        the source.
+         * @param configuration the type of the authority and a digest of its configuration.
+         */
+        private Scope(@NonNull SCMSource source, @NonNull String configuration) {
+            this.source = source;
+            this.configuration = configuration;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Scope)) {
+                return false;
+            }
+            Scope scope = (Scope) o;
+            return source == scope.source && configuration.equals(scope.configuration);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(source) + configuration.hashCode();
+        }
+    }
+
+    /**
+     * The key of a trust decision.
+     */
+    static final class Key {
+        /**
+         * The {@link SCMHeadAuthority} when scoped to a single request or the {@link Scope} when shared.
+         */
+        @NonNull
+        private final Object scope;
+        /**
+         * The type of {@link SCMHead}.
+         */
+        @NonNull
+        private final Class<?> headClass;
+        /**
+         * The {@link SCMHead#getOrigin()}.
+         */
+        @NonNull
+        private final SCMHeadOrigin origin;
+
+        /**
+         * Constructor.
+         *
+         * @param scope the {@link SCMHeadAuthority} when scoped to a single request or the {@link Scope} when
+         *              shared.
+         * @param head  the head.
+         */
+        Key(@NonNull Object scope, @NonNull SCMHead head) {
+            this.scope = scope;
+            this.headClass = head.getClass();
+            this.origin = head.getOrigin();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return scope.equals(key.scope)
+                    && headClass == key.headClass
+                    && origin.equals(key.origin);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, headClass, origin);
+        }
+    }
+}
@@ -81,6 +81,11 @@ public abstract class SCMNavigatorContext<C extends SCMNavigatorContext<C, R>, R
      */
     @NonNull
     private final List<SCMSourceDecorator<?,?>> decorators = new ArrayList<>();
+    /**
+     * The listeners to notify with the final statistics of the request.
+     */
+    @NonNull
+    private final List<SCMNavigatorRequest.StatisticsListener> statisticsListeners = new ArrayList<>();
 
     /**
      * Constructor.
@@ -97,6 +102,17 @@ public abstract class SCMNavigatorContext<C extends SCMNavigatorContext<C, R>, R
         return Collections.unmodifiableList(decorators);
     }
 
+    /**
+     * Returns the (possibly empty) list of listeners to notify with the final statistics of the request.
+     *
+     * @return the (possibly empty) list of listeners to notify with the final statistics of the request.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final List<SCMNavigatorRequest.StatisticsListener> statisticsListeners() {
+        return Collections.unmodifiableList(statisticsListeners);
+    }
+
     /**
      * Returns the (possibly empty) list of {@link SCMNavigatorRequest} dependent filters.
      *
@@ -217,6 +233,22 @@ public abstract class SCMNavigatorContext<C extends SCMNavigatorContext<C, R>, R
         return (C) this;
     }
 
+    /**
+     * Adds an additional {@link SCMNavigatorRequest.StatisticsListener}.
+     *
+     * @param listener the {@link SCMNavigatorRequest.StatisticsListener}.
+     * @return {@code this} for method chaining.
+     * @since 3.5.0
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    public final C withStatisticsListener(@CheckForNull SCMNavigatorRequest.StatisticsListener listener) {
+        if (listener != null) {
+            statisticsListeners.add(listener);
+        }
+        return (C) this;
+    }
+
     /**
      * Adds the supplied {@link SCMSourceDecorator}.
      *
@@ -29,10 +29,15 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMNavigator;
 import jenkins.scm.api.SCMSource;
@@ -47,6 +52,11 @@ import jenkins.scm.impl.NoOpProjectObserver;
  */
 public abstract class SCMNavigatorRequest implements Closeable {
 
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SCMNavigatorRequest.class.getName());
+
     /**
      * The {@link SCMNavigator} to use when applying the {@link #prefilters}.
      */
@@ -91,6 +101,12 @@ public abstract class SCMNavigatorRequest implements Closeable {
     @NonNull
     private final List<SCMSourceDecorator<?,?>> decorators;
 
+    /**
+     * The listeners to notify with the final statistics when the request is closed.
+     */
+    @NonNull
+    private final List<StatisticsListener> statisticsListeners;
+
     /**
      * Any {@link Closeable} objects that should be closed with the request.
      */
@@ -98,6 +114,26 @@ public abstract class SCMNavigatorRequest implements Closeable {
     @NonNull
     private final List<Closeable> managedClosables = new ArrayList<>();
 
+    /**
+     * The number of project names seen.
+     */
+    private final AtomicLong projects = new AtomicLong();
+
+    /**
+     * The number of project names excluded.
+     */
+    private final AtomicLong excluded = new AtomicLong();
+
+    /**
+     * The total time spent in {@link SourceLambda#create(String)} in nanoseconds.
+     */
+    private final AtomicLong sourceNanos = new AtomicLong();
+
+    /**
+     * The total time spent in {@link AttributeLambda#create(String)} in nanoseconds.
+     */
+    private final AtomicLong attributeNanos = new AtomicLong();
+
     /**
      * Constructor.
      *
@@ -114,6 +150,7 @@ public abstract class SCMNavigatorRequest implements Closeable {
         this.observerIncludes = this.observer.getIncludes();
         this.traits = new ArrayList<>(context.traits());
         this.decorators = new ArrayList<>(context.decorators());
+        this.statisticsListeners = new ArrayList<>(context.statisticsListeners());
     }
 
     /**
@@ -151,6 +188,32 @@ public abstract class SCMNavigatorRequest implements Closeable {
         }
     }
 
+    /**
+     * Removes the project names that are excluded from the request without needing the context of the request, i.e.
+     * those not {@linkplain SCMSourceObserver#getIncludes() included} by the observer or excluded by a
+     * {@link SCMSourcePrefilter}. Navigators that list many projects from a single remote call can use this to prune
+     * them in one pass. The remaining names are still subject to {@link #isExcluded(String)}.
+     *
+     * @param projectNames the project names.
+     * @return the project names that are not excluded, in iteration order.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final List<String> prefilter(@NonNull Collection<String> projectNames) {
+        List<String> result = new ArrayList<>(projectNames.size());
+        for (String projectName : projectNames) {
+            if (observerIncludes == null || observerIncludes.contains(projectName)) {
+                result.add(projectName);
+            }
+        }
+        for (SCMSourcePrefilter prefilter : prefilters) {
+            result = prefilter.filter(navigator, result);
+        }
+        projects.addAndGet(projectNames.size() - result.size());
+        excluded.addAndGet(projectNames.size() - result.size());
+        return result;
+    }
+
     /**
      * Tests if the project name is excluded from the request.
      *
@@ -228,8 +291,10 @@ public abstract class SCMNavigatorRequest implements Closeable {
         if (Thread.interrupted()) {
             throw new InterruptedException();
         }
+        projects.incrementAndGet();
         if (isExcluded(projectName)) {
             // not included
+            excluded.incrementAndGet();
             record(projectName, false, witnesses);
             return !observer.isObserving();
         }
@@ -239,20 +304,41 @@ public abstract class SCMNavigatorRequest implements Closeable {
             // we know this is safe to break contract with
             return !observer.isObserving();
         }
-        for (SourceLambda s : sourceFactories) {
-            po.addSource(s.create(projectName));
+        long start = System.nanoTime();
+        try {
+            for (SourceLambda s : sourceFactories) {
+                po.addSource(s.create(projectName));
+            }
+        } finally {
+            sourceNanos.addAndGet(System.nanoTime() - start);
         }
         if (attributeFactories != null) {
-            for (AttributeLambda attributeFactory : attributeFactories) {
-                for (Map.Entry<String, Object> entry : attributeFactory.create(projectName).entrySet()) {
-                    po.addAttribute(entry.getKey(), entry.getValue());
+            start = System.nanoTime();
+            try {
+                for (AttributeLambda attributeFactory : attributeFactories) {
+                    for (Map.Entry<String, Object> entry : attributeFactory.create(projectName).entrySet()) {
+                        po.addAttribute(entry.getKey(), entry.getValue());
+                    }
                 }
+            } finally {
+                attributeNanos.addAndGet(System.nanoTime() - start);
             }
         }
         po.complete();
         return !observer.isObserving();
     }
 
+    /**
+     * Returns the statistics of the project names processed by this request so far.
+     *
+     * @return the statistics.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final ProcessStatistics getProcessStatistics() {
+        return new ProcessStatistics(projects.get(), excluded.get(), sourceNanos.get(), attributeNanos.get());
+    }
+
     /**
      * Adds managing a {@link Closeable} into the scope of the {@link SCMNavigatorRequest}
      *
@@ -269,6 +355,18 @@ public abstract class SCMNavigatorRequest implements Closeable {
      */
     @Override
     public void close() throws IOException {
+        if (LOGGER.isLoggable(Level.FINE) || !statisticsListeners.isEmpty()) {
+            ProcessStatistics statistics = getProcessStatistics();
+            LOGGER.log(Level.FINE, "Process statistics for {0}: {1}",
+                    new Object[]{navigator.getId(), statistics});
+            for (StatisticsListener l : statisticsListeners) {
+                try {
+                    l.onClose(this, statistics);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Could not report statistics for " + navigator.getId() + " to " + l, e);
+                }
+            }
+        }
         IOException ioe = null;
         for (Closeable c : managedClosables) {
             try {
@@ -334,4 +432,122 @@ public abstract class SCMNavigatorRequest implements Closeable {
         void record(@NonNull String projectName, boolean isMatch);
 
     }
+
+    /**
+     * Receives the final statistics of a {@link SCMNavigatorRequest} when it is {@linkplain #close() closed}, for
+     * example to publish them as metrics. Listeners are registered with
+     * {@link SCMNavigatorContext#withStatisticsListener(StatisticsListener)}, typically by a
+     * {@link SCMNavigatorTrait}.
+     *
+     * @since 3.5.0
+     */
+    public interface StatisticsListener {
+        /**
+         * Called when the request is closed. Any {@link RuntimeException} is logged and does not prevent the
+         * request from closing.
+         *
+         * @param request    the request.
+         * @param statistics the statistics of the project names processed by the request.
+         */
+        void onClose(@NonNull SCMNavigatorRequest request, @NonNull ProcessStatistics statistics);
+    }
+
+    /**
+     * A snapshot of the project names processed by a {@link SCMNavigatorRequest}. Every project name seen is either
+     * excluded or observed, unless processing it failed.
+     *
+     * @since 3.5.0
+     */
+    public static final class ProcessStatistics {
+        /**
+         * The number of project names seen.
+         */
+        private final long projects;
+        /**
+         * The number of project names excluded.
+         */
+        private final long excluded;
+        /**
+         * The total time spent creating sources in nanoseconds.
+         */
+        private final long sourceNanos;
+        /**
+         * The total time spent creating attributes in nanoseconds.
+         */
+        private final long attributeNanos;
+
+        /**
+         * Constructor.
+         *
+         * @param projects       the number of project names seen.
+         * @param excluded       the number of project names excluded.
+         * @param sourceNanos    the total time spent creating sources in nanoseconds.
+         * @param attributeNanos the total time spent creating attributes in nanoseconds.
+         */
+        private ProcessStatistics(long projects, long excluded, long sourceNanos, long attributeNanos) {
+            this.projects = projects;
+            this.excluded = excluded;
+            this.sourceNanos = sourceNanos;
+            this.attributeNanos = attributeNanos;
+        }
+
+        /**
+         * Returns the number of project names seen, either by
+         * {@link SCMNavigatorRequest#process(String, List, List, Witness...)} or by
+         * {@link SCMNavigatorRequest#prefilter(Collection)}.
+         *
+         * @return the number of project names seen.
+         */
+        public long getProjects() {
+            return projects;
+        }
+
+        /**
+         * Returns the number of project names excluded by the observer's includes, the pre-filters or the filters.
+         *
+         * @return the number of project names excluded.
+         */
+        public long getExcluded() {
+            return excluded;
+        }
+
+        /**
+         * Returns the number of project names sent to the observer.
+         *
+         * @return the number of project names observed.
+         */
+        public long getObserved() {
+            return projects - excluded;
+        }
+
+        /**
+         * Returns the total time spent in {@link SourceLambda#create(String)}.
+         *
+         * @param units the units to return the time in.
+         * @return the total time spent creating sources.
+         */
+        public long getSourceTime(@NonNull TimeUnit units) {
+            return units.convert(sourceNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the total time spent in {@link AttributeLambda#create(String)}.
+         *
+         * @param units the units to return the time in.
+         * @return the total time spent creating attributes.
+         */
+        public long getAttributeTime(@NonNull TimeUnit units) {
+            return units.convert(attributeNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "ProcessStatistics{projects=" + projects + ", excluded=" + excluded
+                    + ", sourceTime=" + TimeUnit.NANOSECONDS.toMillis(sourceNanos) + "ms"
+                    + ", attributeTime=" + TimeUnit.NANOSECONDS.toMillis(attributeNanos) + "ms}";
+        }
+    }
 }
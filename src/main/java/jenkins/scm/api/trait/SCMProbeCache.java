@@ -0,0 +1,288 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import jenkins.scm.api.SCMFile;
+import jenkins.scm.api.SCMProbe;
+import jenkins.scm.api.SCMProbeStat;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMSource;
+import jenkins.scm.api.SCMSourceCriteria;
+import jenkins.scm.impl.ExpiringCache;
+import jenkins.util.SystemProperties;
+
+/**
+ * A cache of {@link SCMProbe#stat(String)} results keyed by {@link SCMSource#getId()}, {@link SCMRevision} and path.
+ * The result of a stat for a {@link SCMRevision#isDeterministic()} revision never changes, so the cache is shared by
+ * all the {@link SCMSourceCriteria} of a request and across requests, which saves re-probing unchanged heads on every
+ * indexing run.
+ * <p>
+ * Only probes whose intermediate is itself a deterministic {@link SCMRevision} are cached, which is the case when
+ * {@link SCMSourceRequest#process(SCMHead, SCMRevision, SCMSourceRequest.ProbeLambda, SCMSourceRequest.Witness...)}
+ * or {@link SCMSourceRequest#process(SCMHead, SCMSourceRequest.RevisionLambda, SCMSourceRequest.ProbeLambda,
+ * SCMSourceRequest.Witness...)} is used, or when an {@link SCMSourceRequest.IntermediateLambda} returns a revision.
+ * When the intermediate is some other object (such as an API response or a commit hash) the revision is only resolved
+ * by the {@link SCMSourceRequest.LazyRevisionLambda} after the criteria have been checked, so there is no revision to
+ * key the probe on and it is used as is.
+ * <p>
+ * Disabled by default as consulting the cache requires wrapping the probe created by the
+ * {@link SCMSourceRequest.ProbeLambda}, which is not compatible with criteria that depend on the concrete probe type.
+ *
+ * @since 3.5.0
+ */
+final class SCMProbeCache {
+
+    /**
+     * The maximum number of cached results, non-positive values disable the cache.
+     */
+    private static final int SIZE =
+            SystemProperties.getInteger(SCMSourceRequest.class.getName() + ".probeCacheSize", 0);
+
+    /**
+     * The time to live in milliseconds of cached results.
+     */
+    private static final long TTL = SystemProperties.getLong(SCMSourceRequest.class.getName() + ".probeCacheTtl",
+            TimeUnit.HOURS.toMillis(24));
+
+    /**
+     * The shared cache or {@code null} if disabled.
+     */
+    @CheckForNull
+    private static final SCMProbeCache INSTANCE = SIZE > 0 ? new SCMProbeCache(SIZE, TTL) : null;
+
+    /**
+     * The cached results.
+     */
+    @NonNull
+    private final ExpiringCache<Key, SCMProbeStat> results;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of cached results.
+     * @param ttl     the time to live in milliseconds of cached results.
+     */
+    /*package*/ SCMProbeCache(int maxSize, long ttl) {
+        this.results = new ExpiringCache<>(maxSize, ttl, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared cache.
+     *
+     * @return the shared cache or {@code null} if disabled.
+     */
+    @CheckForNull
+    static SCMProbeCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wraps the probe so that {@link SCMSourceCriteria.Probe#stat(String)} consults the cache when the intermediate is a
+     * deterministic {@link SCMRevision}, otherwise returns the probe unchanged.
+     *
+     * @param source   the source.
+     * @param revision the intermediate that the probe was created from, only cached if it is a deterministic
+     *                 {@link SCMRevision}.
+     * @param probe    the probe.
+     * @return the probe to use.
+     */
+    @NonNull
+    SCMSourceCriteria.Probe wrap(@NonNull SCMSource source, @CheckForNull Object revision,
+                                 @NonNull SCMSourceCriteria.Probe probe) {
+        if (!(revision instanceof SCMRevision) || !((SCMRevision) revision).isDeterministic()) {
+            return probe;
+        }
+        return new CachingProbe(this, source.getId(), (SCMRevision) revision, probe);
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the number of cached results.
+     */
+    int size() {
+        return results.size();
+    }
+
+    /**
+     * The cache key.
+     */
+    private static final class Key {
+        /**
+         * The {@link SCMSource#getId()}.
+         */
+        @NonNull
+        private final String sourceId;
+        /**
+         * The revision.
+         */
+        @NonNull
+        private final SCMRevision revision;
+        /**
+         * The path.
+         */
+        @NonNull
+        private final String path;
+
+        /**
+         * Constructor.
+         *
+         * @param sourceId the {@link SCMSource#getId()}.
+         * @param revision the revision.
+         * @param path     the path.
+         */
+        private Key(@NonNull String sourceId, @NonNull SCMRevision revision, @NonNull String path) {
+            this.sourceId = sourceId;
+            this.revision = revision;
+            this.path = path;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return sourceId.equals(key.sourceId) && revision.equals(key.revision) && path.equals(key.path);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceId, revision, path);
+        }
+    }
+
+    /**
+     * A {@link SCMProbe} that consults the cache before delegating.
+     */
+    private static final class CachingProbe extends SCMProbe {
+        /**
+         * Standardize serialization.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The cache.
+         */
+        @NonNull
+        private final transient SCMProbeCache cache;
+        /**
+         * The {@link SCMSource#getId()}.
+         */
+        @NonNull
+        private final String sourceId;
+        /**
+         * The revision.
+         */
+        @NonNull
+        private final SCMRevision revision;
+        /**
+         * The delegate.
+         */
+        @NonNull
+        private final SCMSourceCriteria.Probe delegate;
+
+        /**
+         * Constructor.
+         *
+         * @param cache    the cache.
+         * @param sourceId the {@link SCMSource#getId()}.
+         * @param revision the revision.
+         * @param delegate the delegate.
+         */
+        private CachingProbe(@NonNull SCMProbeCache cache, @NonNull String sourceId, @NonNull SCMRevision revision,
+                             @NonNull SCMSourceCriteria.Probe delegate) {
+            this.cache = cache;
+            this.sourceId = sourceId;
+            this.revision = revision;
+            this.delegate = delegate;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String name() {
+            return delegate.name();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long lastModified() {
+            return delegate.lastModified();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @NonNull
+        @Override
+        public SCMProbeStat stat(@NonNull String path) throws IOException {
+            Key key = new Key(sourceId, revision, path);
+            SCMProbeStat result = cache.results.get(key);
+            if (result == null) {
+                result = delegate.stat(path);
+                cache.results.put(key, result);
+            }
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @CheckForNull
+        @Override
+        public SCMFile getRoot() {
+            return delegate.getRoot();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() throws IOException {
+            if (delegate instanceof Closeable) {
+                ((Closeable) delegate).close();
+            }
+        }
+    }
+}
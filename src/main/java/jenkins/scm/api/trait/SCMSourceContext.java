@@ -81,6 +81,11 @@ public abstract class SCMSourceContext<C extends SCMSourceContext<C, R>, R exten
      */
     @NonNull
     private final List<SCMHeadAuthority<?, ?, ?>> authorities = new ArrayList<>();
+    /**
+     * The statistics listeners.
+     */
+    @NonNull
+    private final List<SCMSourceRequest.StatisticsListener> statisticsListeners = new ArrayList<>();
     /**
      * The observer.
      */
@@ -138,6 +143,17 @@ public abstract class SCMSourceContext<C extends SCMSourceContext<C, R>, R exten
         return Collections.unmodifiableList(prefilters);
     }
 
+    /**
+     * Returns the (possibly empty) list of listeners to notify with the final statistics of the request.
+     *
+     * @return the (possibly empty) list of listeners to notify with the final statistics of the request.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final List<SCMSourceRequest.StatisticsListener> statisticsListeners() {
+        return Collections.unmodifiableList(statisticsListeners);
+    }
+
     /**
      * Returns the {@link SCMHeadObserver}.
      *
@@ -208,6 +224,22 @@ public abstract class SCMSourceContext<C extends SCMSourceContext<C, R>, R exten
         return (C) this;
     }
 
+    /**
+     * Adds an additional {@link SCMSourceRequest.StatisticsListener}.
+     *
+     * @param listener the {@link SCMSourceRequest.StatisticsListener}.
+     * @return {@code this} for method chaining.
+     * @since 3.5.0
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    public final C withStatisticsListener(@CheckForNull SCMSourceRequest.StatisticsListener listener) {
+        if (listener != null) {
+            this.statisticsListeners.add(listener);
+        }
+        return (C) this;
+    }
+
     /**
      * Adds an additional {@link SCMSourceTrait}.
      *
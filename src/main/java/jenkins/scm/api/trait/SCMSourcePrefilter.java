@@ -25,6 +25,9 @@
 package jenkins.scm.api.trait;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMNavigator;
 
@@ -50,4 +53,25 @@ public abstract class SCMSourcePrefilter {
      */
     public abstract boolean isExcluded(@NonNull SCMNavigator source, @NonNull String projectName);
 
+    /**
+     * Filters a batch of project names, for example a page of repositories returned by a single remote API call. The
+     * default implementation calls {@link #isExcluded(SCMNavigator, String)} for each name; implementations that can
+     * decide more cheaply for a whole batch may override.
+     *
+     * @param source       the {@link SCMNavigator}.
+     * @param projectNames the project names.
+     * @return the project names that are not excluded, in iteration order.
+     * @since 3.5.0
+     */
+    @NonNull
+    public List<String> filter(@NonNull SCMNavigator source, @NonNull Collection<String> projectNames) {
+        List<String> result = new ArrayList<>(projectNames.size());
+        for (String projectName : projectNames) {
+            if (!isExcluded(source, projectName)) {
+                result.add(projectName);
+            }
+        }
+        return result;
+    }
+
 }
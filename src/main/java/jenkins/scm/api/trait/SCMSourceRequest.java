@@ -28,13 +28,21 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import hudson.model.TaskListener;
-import hudson.util.LogTaskListener;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.scm.api.SCMHead;
@@ -46,6 +54,8 @@ import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceCriteria;
 import jenkins.scm.api.mixin.ChangeRequestSCMHead2;
 import jenkins.scm.api.mixin.SCMHeadMixin;
+import jenkins.scm.impl.DefaultListeners;
+import jenkins.util.SystemProperties;
 
 /**
  * Represents the context of an individual request for a call to
@@ -56,7 +66,23 @@ import jenkins.scm.api.mixin.SCMHeadMixin;
 public abstract class SCMSourceRequest implements Closeable {
 
     /**
-     * The {@link SCMSource} to use when applying the {@link #prefilters}.
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SCMSourceRequest.class.getName());
+
+    /**
+     * Whether to evaluate the {@link #criteria} in order of observed selectivity rather than list order.
+     */
+    private static final boolean REORDER_CRITERIA =
+            SystemProperties.getBoolean(SCMSourceRequest.class.getName() + ".reorderCriteria", false);
+
+    /**
+     * How many heads are evaluated against the {@link #criteria} between re-orderings.
+     */
+    private static final int REORDER_INTERVAL = 32;
+
+    /**
+     * The {@link SCMSource} to use when applying the {@link #prefilter}.
      */
     @NonNull
     private final SCMSource source;
@@ -71,10 +97,10 @@ public abstract class SCMSourceRequest implements Closeable {
     /**
      * The filters that do not require context of the {@link SCMSourceRequest} and only require the {@link SCMSource}
      * and {@link SCMHead} to decide exclusion - typically filtering based on the name or some other attribute of
-     * a {@link SCMHeadMixin}.
+     * a {@link SCMHeadMixin}, {@linkplain SCMHeadPrefilter#compile(List) compiled} into a single filter.
      */
-    @NonNull
-    private final List<SCMHeadPrefilter> prefilters;
+    @CheckForNull
+    private final SCMHeadPrefilter prefilter;
 
     /**
      * The authorities that can determine the trustability of a {@link SCMHead}.
@@ -88,6 +114,43 @@ public abstract class SCMSourceRequest implements Closeable {
     @NonNull
     private final List<SCMSourceCriteria> criteria;
 
+    /**
+     * The evaluation counters of each of the {@link #criteria}, by index.
+     */
+    @NonNull
+    private final CriteriaCounters[] criteriaCounters;
+
+    /**
+     * The indices of the {@link #criteria} in evaluation order.
+     */
+    @NonNull
+    private volatile int[] criteriaOrder;
+
+    /**
+     * The number of heads evaluated against the {@link #criteria}, used to pace re-ordering.
+     */
+    private final AtomicInteger criteriaEvaluations = new AtomicInteger();
+
+    /**
+     * The counters of the heads processed by this request.
+     */
+    @NonNull
+    private final ProcessCounters processCounters = new ProcessCounters();
+
+    /**
+     * The trust decisions of the {@link #authorities} that
+     * {@linkplain SCMHeadAuthority#isTrustDeterminedByOrigin() depend only on the origin} of the {@link SCMHead}.
+     */
+    @NonNull
+    private final Map<SCMHeadTrustCache.Key, Boolean> trustDecisions = new ConcurrentHashMap<>();
+
+    /**
+     * The {@linkplain SCMHeadTrustCache#scopeOf(SCMSource, SCMHeadAuthority) scope} in the shared
+     * {@link SCMHeadTrustCache} of each of the {@link #authorities}, computed on first use.
+     */
+    @NonNull
+    private final Map<SCMHeadAuthority<?, ?, ?>, SCMHeadTrustCache.Scope> trustScopes = new ConcurrentHashMap<>();
+
     /**
      * The {@link TaskListener} active for the scope of the request.
      */
@@ -100,12 +163,30 @@ public abstract class SCMSourceRequest implements Closeable {
     @NonNull
     private final SCMHeadObserver observer;
 
+    /**
+     * The lock that serializes calls to the {@link #observer} and {@link Witness} instances.
+     */
+    @NonNull
+    private final Object observerLock = new Object();
+
     /**
      * The {@link SCMHeadObserver#getIncludes()} of {@link #observer}.
      */
     @CheckForNull
     private final Set<SCMHead> observerIncludes;
 
+    /**
+     * The {@link SCMHeadObserver#getIncludedNames()} of {@link #observer}.
+     */
+    @CheckForNull
+    private final Set<String> observerIncludedNames;
+
+    /**
+     * The listeners to notify with the final statistics when the request is closed.
+     */
+    @NonNull
+    private final List<StatisticsListener> statisticsListeners;
+
     /**
      * Any {@link Closeable} objects that should be closed with the request.
      */
@@ -124,13 +205,21 @@ public abstract class SCMSourceRequest implements Closeable {
                                @CheckForNull TaskListener listener) {
         this.source = source;
         this.filters = List.copyOf(context.filters());
-        this.prefilters = List.copyOf(context.prefilters());
+        this.prefilter = SCMHeadPrefilter.compile(context.prefilters());
         this.authorities = List.copyOf(context.authorities());
         this.criteria = context.criteria().isEmpty()
                 ? Collections.emptyList()
                 : List.copyOf(context.criteria());
+        this.criteriaCounters = new CriteriaCounters[criteria.size()];
+        this.criteriaOrder = new int[criteria.size()];
+        for (int i = 0; i < criteriaCounters.length; i++) {
+            criteriaCounters[i] = new CriteriaCounters();
+            criteriaOrder[i] = i;
+        }
+        this.statisticsListeners = List.copyOf(context.statisticsListeners());
         this.observer = context.observer();
         this.observerIncludes = observer.getIncludes();
+        this.observerIncludedNames = observer.getIncludedNames();
         this.listener = defaultListener(listener);
     }
 
@@ -158,16 +247,34 @@ public abstract class SCMSourceRequest implements Closeable {
      */
     @NonNull
     private TaskListener defaultListener(@CheckForNull TaskListener listener) {
-        if (listener == null) {
-            Level level;
-            try {
-                level = Level.parse(System.getProperty(getClass().getName() + ".defaultListenerLevel", "FINE"));
-            } catch (IllegalArgumentException e) {
-                level = Level.FINE;
+        return DefaultListeners.of(listener, getClass());
+    }
+
+    /**
+     * Removes the {@link SCMHead} instances that are excluded from the request without needing the context of the
+     * request, i.e. those not {@linkplain SCMHeadObserver#getIncludes() included} by the observer or excluded by a
+     * {@link SCMHeadPrefilter}. Sources that list many heads from a single remote call can use this to prune them in
+     * one pass before creating revisions. The remaining heads are still subject to {@link #isExcluded(SCMHead)}.
+     *
+     * @param heads the {@link SCMHead} instances.
+     * @param <H>   the type of {@link SCMHead}.
+     * @return the {@link SCMHead} instances that are not excluded, in iteration order.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final <H extends SCMHead> List<H> prefilter(@NonNull Collection<? extends H> heads) {
+        List<H> result = new ArrayList<>(heads.size());
+        for (H head : heads) {
+            if ((observerIncludes == null || observerIncludes.contains(head))
+                    && (observerIncludedNames == null || observerIncludedNames.contains(head.getName()))) {
+                result.add(head);
             }
-            return new LogTaskListener(Logger.getLogger(getClass().getName()), level);
         }
-        return listener;
+        if (prefilter != null) {
+            result = prefilter.filter(source, result);
+        }
+        processCounters.excluded(heads.size() - result.size());
+        return result;
     }
 
     /**
@@ -182,12 +289,11 @@ public abstract class SCMSourceRequest implements Closeable {
         if (observerIncludes != null && !observerIncludes.contains(head)) {
             return true;
         }
-        if (!prefilters.isEmpty()) {
-            for (SCMHeadPrefilter prefilter : prefilters) {
-                if (prefilter.isExcluded(source, head)) {
-                    return true;
-                }
-            }
+        if (observerIncludedNames != null && !observerIncludedNames.contains(head.getName())) {
+            return true;
+        }
+        if (prefilter != null && prefilter.isExcluded(source, head)) {
+            return true;
         }
         if (filters.isEmpty()) {
             return false;
@@ -210,13 +316,48 @@ public abstract class SCMSourceRequest implements Closeable {
      */
     public final boolean isTrusted(@NonNull SCMHead head) throws IOException, InterruptedException {
         for (SCMHeadAuthority authority : authorities) {
-            if (authority.isTrusted(this, head)) {
+            if (isTrusted(authority, head)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Tests if the {@link SCMHead} is trusted by the {@link SCMHeadAuthority}, reusing the decision for previous
+     * heads from the same origin if the authority's decision
+     * {@linkplain SCMHeadAuthority#isTrustDeterminedByOrigin() depends only on the origin}.
+     *
+     * @param authority the {@link SCMHeadAuthority}.
+     * @param head      the {@link SCMHead}.
+     * @return {@code true} if the {@link SCMHead} is trusted.
+     * @throws IOException          if there is an I/O error.
+     * @throws InterruptedException if the operation was interrupted.
+     */
+    private boolean isTrusted(@NonNull SCMHeadAuthority<?, ?, ?> authority, @NonNull SCMHead head)
+            throws IOException, InterruptedException {
+        if (!authority.isTrustDeterminedByOrigin()) {
+            return authority.isTrusted(this, head);
+        }
+        SCMHeadTrustCache.Key key = new SCMHeadTrustCache.Key(authority, head);
+        Boolean trusted = trustDecisions.get(key);
+        if (trusted == null) {
+            SCMHeadTrustCache cache = SCMHeadTrustCache.get();
+            SCMHeadTrustCache.Scope scope = cache == null
+                    ? null
+                    : trustScopes.computeIfAbsent(authority, a -> SCMHeadTrustCache.scopeOf(source, a));
+            trusted = scope == null ? null : cache.get(scope, head);
+            if (trusted == null) {
+                trusted = authority.isTrusted(this, head);
+                if (scope != null) {
+                    cache.put(scope, head, trusted);
+                }
+            }
+            trustDecisions.put(key, trusted);
+        }
+        return trusted;
+    }
+
     /**
      * Returns the {@link SCMSourceCriteria} being used for this request.
      *
@@ -332,30 +473,265 @@ public abstract class SCMSourceRequest implements Closeable {
         }
         if (isExcluded(head)) {
             // not included
+            processCounters.excluded(1);
             return !observer.isObserving();
         }
-        I intermediate = intermediateFactory == null ? null : intermediateFactory.create();
+        processCounters.heads.incrementAndGet();
+        long start = System.nanoTime();
+        I intermediate;
+        try {
+            intermediate = intermediateFactory == null ? null : intermediateFactory.create();
+        } finally {
+            processCounters.intermediateNanos.addAndGet(System.nanoTime() - start);
+        }
         if (!criteria.isEmpty()) {
-            SCMSourceCriteria.Probe probe = probeFactory.create(head, intermediate);
-            try {
-                for (SCMSourceCriteria c : criteria) {
-                    if (!c.isHead(probe, listener)) {
-                        record(head, null, false, witnesses);
-                        // not a match against criteria
-                        return !observer.isObserving();
+            start = System.nanoTime();
+            if (!isHead(probeFactory.create(head, intermediate), intermediate, start)) {
+                // not a match against criteria
+                return reject(head, witnesses);
+            }
+        }
+        // observe
+        start = System.nanoTime();
+        R revision;
+        try {
+            revision = revisionFactory.create(head, intermediate);
+        } finally {
+            processCounters.revisionNanos.addAndGet(System.nanoTime() - start);
+        }
+        return observe(head, revision, false, witnesses);
+    }
+
+    /**
+     * Processes a head in the context of the current request where the intermediary operation, the
+     * {@link SCMProbe} and the {@link SCMRevision} are obtained asynchronously. This allows a {@link SCMSource} to
+     * have the remote calls for many heads in flight at the same time, for example by multiplexing them over a
+     * single connection, while retaining the same filtering, criteria checking and observation semantics as
+     * {@link #process(SCMHead, IntermediateLambda, ProbeLambda, LazyRevisionLambda, Witness[])}:
+     * <ul>
+     * <li>{@link #isExcluded(SCMHead)} is evaluated before this method returns, so no remote call is started for
+     * an excluded head.</li>
+     * <li>The {@link #getCriteria()} are evaluated on the thread that completes the future returned by the
+     * {@link AsyncProbeLambda}, as the {@link SCMSourceCriteria} API is synchronous.</li>
+     * <li>Observations and {@link Witness} notifications are serialized, so neither the {@link SCMHeadObserver}
+     * nor the {@link Witness} instances need to be thread safe. Heads that complete after the
+     * {@link SCMHeadObserver} has stopped {@link SCMHeadObserver#isObserving()} are not observed.</li>
+     * </ul>
+     * The caller must wait for all the returned futures to complete before closing the request.
+     *
+     * @param head                the {@link SCMHead} to process.
+     * @param intermediateFactory (optional) factory method that provides the seed information for both the
+     *                            {@link AsyncProbeLambda} and the {@link AsyncRevisionLambda}.
+     * @param probeFactory        factory method that creates the {@link SCMProbe}.
+     * @param revisionFactory     factory method that creates the {@link SCMRevision}.
+     * @param witnesses           any {@link Witness} instances to be informed of the observation result.
+     * @param <H>                 the type of {@link SCMHead}.
+     * @param <I>                 the type of the intermediary operation result.
+     * @param <R>                 the type of {@link SCMRevision}.
+     * @return a future that completes with {@code true} if the {@link SCMHeadObserver} for this request has completed
+     * observing, {@code false} to continue processing, or completes exceptionally with a
+     * {@link java.util.concurrent.CompletionException} wrapping any failure.
+     * @throws IOException          if there was an I/O error while checking if the head is excluded.
+     * @throws InterruptedException if the processing was interrupted.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final <H extends SCMHead, I, R extends SCMRevision> CompletableFuture<Boolean> processAsync(
+            @NonNull H head, @CheckForNull AsyncIntermediateLambda<I> intermediateFactory,
+            @NonNull AsyncProbeLambda<H, I> probeFactory, @NonNull AsyncRevisionLambda<H, R, I> revisionFactory,
+            @NonNull Witness... witnesses) throws IOException, InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (isExcluded(head)) {
+            // not included
+            processCounters.excluded(1);
+            return CompletableFuture.completedFuture(!observer.isObserving());
+        }
+        processCounters.heads.incrementAndGet();
+        final long intermediateStart = System.nanoTime();
+        CompletableFuture<I> intermediate = intermediateFactory == null
+                ? CompletableFuture.completedFuture(null)
+                : intermediateFactory.create().whenComplete((i, failure) ->
+                        processCounters.intermediateNanos.addAndGet(System.nanoTime() - intermediateStart));
+        return intermediate.thenCompose(i -> {
+            CompletableFuture<Boolean> matched;
+            if (criteria.isEmpty()) {
+                matched = CompletableFuture.completedFuture(true);
+            } else {
+                final long probeStart = System.nanoTime();
+                matched = probeFactory.create(head, i).thenApply(probe -> {
+                    try {
+                        return isHead(probe, i, probeStart);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CompletionException(e);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
                     }
+                });
+            }
+            return matched.thenCompose(matches -> {
+                if (!matches) {
+                    // not a match against criteria
+                    return CompletableFuture.completedFuture(reject(head, witnesses));
                 }
-            } finally {
-                if (probe instanceof Closeable) {
-                    ((Closeable) probe).close();
+                final long revisionStart = System.nanoTime();
+                return revisionFactory.create(head, i)
+                        .whenComplete((revision, failure) ->
+                                processCounters.revisionNanos.addAndGet(System.nanoTime() - revisionStart))
+                        .thenApply(revision -> {
+                            try {
+                                return observe(head, revision, true, witnesses);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new CompletionException(e);
+                            } catch (IOException e) {
+                                throw new CompletionException(e);
+                            }
+                        });
+            });
+        });
+    }
+
+    /**
+     * Evaluates the {@link #criteria} against a probe and then closes the probe.
+     *
+     * @param probe        the probe.
+     * @param intermediate the intermediate or {@link SCMRevision} that the probe was created for.
+     * @param start        the {@link System#nanoTime()} when probe creation started.
+     * @return {@code true} if all the criteria are met.
+     * @throws IOException          if there was an I/O error.
+     * @throws InterruptedException if the processing was interrupted.
+     */
+    private boolean isHead(@NonNull SCMSourceCriteria.Probe probe, @CheckForNull Object intermediate, long start)
+            throws IOException, InterruptedException {
+        SCMProbeCache probeCache = SCMProbeCache.get();
+        if (probeCache != null) {
+            probe = probeCache.wrap(source, intermediate, probe);
+        }
+        try {
+            for (int index : criteriaOrder) {
+                CriteriaCounters counters = criteriaCounters[index];
+                long evaluationStart = System.nanoTime();
+                boolean isHead = false;
+                try {
+                    isHead = criteria.get(index).isHead(probe, listener);
+                } finally {
+                    counters.record(System.nanoTime() - evaluationStart, isHead);
+                }
+                if (!isHead) {
+                    return false;
                 }
             }
+            return true;
+        } finally {
+            if (probe instanceof Closeable) {
+                ((Closeable) probe).close();
+            }
+            processCounters.probeNanos.addAndGet(System.nanoTime() - start);
+            if (REORDER_CRITERIA && criteriaCounters.length > 1
+                    && criteriaEvaluations.incrementAndGet() % REORDER_INTERVAL == 0) {
+                reorderCriteria();
+            }
         }
-        // observe
-        R revision = revisionFactory.create(head, intermediate);
-        record(head, revision, true, witnesses);
-        observer.observe(head, revision);
-        return !observer.isObserving();
+    }
+
+    /**
+     * Records a head that did not meet the {@link #criteria}.
+     *
+     * @param head      the {@link SCMHead}.
+     * @param witnesses the {@link Witness} instances to notify.
+     * @return {@code true} if the {@link SCMHeadObserver} for this request has completed observing.
+     */
+    private boolean reject(@NonNull SCMHead head, @NonNull Witness... witnesses) {
+        processCounters.rejected.incrementAndGet();
+        synchronized (observerLock) {
+            record(head, null, false, witnesses);
+            return !observer.isObserving();
+        }
+    }
+
+    /**
+     * Sends a head that met the {@link #criteria} to the {@link #observer}.
+     *
+     * @param head             the {@link SCMHead}.
+     * @param revision         the {@link SCMRevision}.
+     * @param unlessCompleted  {@code true} to skip the observation if the {@link SCMHeadObserver} has already
+     *                         completed observing.
+     * @param witnesses        the {@link Witness} instances to notify.
+     * @return {@code true} if the {@link SCMHeadObserver} for this request has completed observing.
+     * @throws IOException          if there was an I/O error.
+     * @throws InterruptedException if the processing was interrupted.
+     */
+    private boolean observe(@NonNull SCMHead head, @NonNull SCMRevision revision, boolean unlessCompleted,
+                            @NonNull Witness... witnesses) throws IOException, InterruptedException {
+        synchronized (observerLock) {
+            if (unlessCompleted && !observer.isObserving()) {
+                // completed while the revision was being resolved
+                return true;
+            }
+            processCounters.observed.incrementAndGet();
+            record(head, revision, true, witnesses);
+            observer.observe(head, revision);
+            return !observer.isObserving();
+        }
+    }
+
+    /**
+     * Re-orders the {@link #criteria} so that those expected to reject a head most cheaply, i.e. with the lowest
+     * average time per rejection, are evaluated first. As the criteria are combined with a logical AND the order
+     * does not change which heads are accepted.
+     */
+    /*package*/ void reorderCriteria() {
+        final double[] score = new double[criteriaCounters.length];
+        Integer[] order = new Integer[criteriaCounters.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            long rejections = criteriaCounters[i].rejections.get();
+            // (time per evaluation) / (rejections per evaluation)
+            score[i] = rejections == 0
+                    ? Double.POSITIVE_INFINITY
+                    : (double) criteriaCounters[i].nanos.get() / rejections;
+        }
+        // stable, so criteria that have never rejected keep their relative list order
+        Arrays.sort(order, (a, b) -> Double.compare(score[a], score[b]));
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        criteriaOrder = result;
+    }
+
+    /**
+     * Returns the statistics of the evaluation of each of the {@link #getCriteria()} by this request so far.
+     *
+     * @return the statistics, in the same order as {@link #getCriteria()}.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final List<CriteriaStatistics> getCriteriaStatistics() {
+        List<CriteriaStatistics> result = new ArrayList<>(criteria.size());
+        for (int i = 0; i < criteriaCounters.length; i++) {
+            CriteriaCounters counters = criteriaCounters[i];
+            result.add(new CriteriaStatistics(criteria.get(i), counters.evaluations.get(),
+                    counters.rejections.get(), counters.nanos.get()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the statistics of the heads processed by this request so far.
+     *
+     * @return the statistics.
+     * @since 3.5.0
+     */
+    @NonNull
+    public final ProcessStatistics getProcessStatistics() {
+        return new ProcessStatistics(processCounters.heads.get(), processCounters.excluded.get(),
+                processCounters.rejected.get(), processCounters.observed.get(),
+                processCounters.intermediateNanos.get(), processCounters.probeNanos.get(),
+                processCounters.revisionNanos.get());
     }
 
     /**
@@ -394,6 +770,23 @@ public abstract class SCMSourceRequest implements Closeable {
      */
     @Override
     public void close() throws IOException {
+        if (LOGGER.isLoggable(Level.FINE) || !statisticsListeners.isEmpty()) {
+            ProcessStatistics processStatistics = getProcessStatistics();
+            List<CriteriaStatistics> criteriaStatistics = getCriteriaStatistics();
+            LOGGER.log(Level.FINE, "Process statistics for {0}: {1}",
+                    new Object[]{source.getId(), processStatistics});
+            if (!criteria.isEmpty()) {
+                LOGGER.log(Level.FINE, "Criteria statistics for {0}: {1}",
+                        new Object[]{source.getId(), criteriaStatistics});
+            }
+            for (StatisticsListener l : statisticsListeners) {
+                try {
+                    l.onClose(this, processStatistics, criteriaStatistics);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Could not report statistics for " + source.getId() + " to " + l, e);
+                }
+            }
+        }
         IOException ioe = null;
         for (Closeable c : managedClosables) {
             try {
@@ -521,6 +914,65 @@ public abstract class SCMSourceRequest implements Closeable {
         R create(@NonNull H head, @Nullable I intermediate) throws IOException, InterruptedException;
     }
 
+    /**
+     * An asynchronous {@link IntermediateLambda}.
+     *
+     * @param <I> the type of intermediate value.
+     * @see #processAsync(SCMHead, AsyncIntermediateLambda, AsyncProbeLambda, AsyncRevisionLambda, Witness[])
+     * @since 3.5.0
+     */
+    public interface AsyncIntermediateLambda<I> {
+        /**
+         * Starts creating the intermediate value.
+         *
+         * @return a future that completes with the intermediate value (which may be {@code null}).
+         */
+        @NonNull
+        CompletableFuture<I> create();
+    }
+
+    /**
+     * An asynchronous {@link ProbeLambda}.
+     *
+     * @param <H> the type of {@link SCMHead}
+     * @param <I> the type of side-value used to create the probe.
+     * @see #processAsync(SCMHead, AsyncIntermediateLambda, AsyncProbeLambda, AsyncRevisionLambda, Witness[])
+     * @since 3.5.0
+     */
+    public interface AsyncProbeLambda<H extends SCMHead, I> {
+        /**
+         * Starts creating a {@link SCMSourceCriteria.Probe} (ideally a {@link SCMProbe}) for the specified
+         * {@link SCMHead}.
+         *
+         * @param head         the {@link SCMHead}.
+         * @param intermediate the intermediate produced by the {@link AsyncIntermediateLambda} (may be {@code null}).
+         * @return a future that completes with the {@link SCMSourceCriteria.Probe}.
+         */
+        @NonNull
+        CompletableFuture<? extends SCMSourceCriteria.Probe> create(@NonNull H head, @Nullable I intermediate);
+    }
+
+    /**
+     * An asynchronous {@link LazyRevisionLambda}.
+     *
+     * @param <H> the type of {@link SCMHead}
+     * @param <R> the type of {@link SCMRevision}.
+     * @param <I> the type of intermediate value produced by the {@link AsyncIntermediateLambda}.
+     * @see #processAsync(SCMHead, AsyncIntermediateLambda, AsyncProbeLambda, AsyncRevisionLambda, Witness[])
+     * @since 3.5.0
+     */
+    public interface AsyncRevisionLambda<H extends SCMHead, R extends SCMRevision, I> {
+        /**
+         * Starts creating a {@link SCMRevision} for the specified {@link SCMHead}.
+         *
+         * @param head         the {@link SCMHead}.
+         * @param intermediate the intermediate produced by the {@link AsyncIntermediateLambda} (may be {@code null}).
+         * @return a future that completes with the {@link SCMRevision}.
+         */
+        @NonNull
+        CompletableFuture<R> create(@NonNull H head, @Nullable I intermediate);
+    }
+
     /**
      * Callback lambda to track the results of
      * {@link #process(SCMHead, IntermediateLambda, ProbeLambda, LazyRevisionLambda, Witness[])}
@@ -538,4 +990,327 @@ public abstract class SCMSourceRequest implements Closeable {
          */
         void record(@NonNull H head, @CheckForNull R revision, boolean isMatch);
     }
+
+    /**
+     * Receives the final statistics of a {@link SCMSourceRequest} when it is {@linkplain #close() closed}, for
+     * example to publish them as metrics. Listeners are registered with
+     * {@link SCMSourceContext#withStatisticsListener(StatisticsListener)}, typically by a {@link SCMSourceTrait}.
+     *
+     * @since 3.5.0
+     */
+    public interface StatisticsListener {
+        /**
+         * Called when the request is closed. Any {@link RuntimeException} is logged and does not prevent the
+         * request from closing.
+         *
+         * @param request    the request.
+         * @param statistics the statistics of the heads processed by the request.
+         * @param criteria   the statistics of each of the {@link SCMSourceRequest#getCriteria()}, in the same order.
+         */
+        void onClose(@NonNull SCMSourceRequest request, @NonNull ProcessStatistics statistics,
+                     @NonNull List<CriteriaStatistics> criteria);
+    }
+
+    /**
+     * The running counters of the heads processed by a {@link SCMSourceRequest}.
+     */
+    private static final class ProcessCounters {
+        /**
+         * The number of heads seen.
+         */
+        private final AtomicLong heads = new AtomicLong();
+        /**
+         * The number of heads excluded by the observer, pre-filters or filters.
+         */
+        private final AtomicLong excluded = new AtomicLong();
+        /**
+         * The number of heads rejected by the criteria.
+         */
+        private final AtomicLong rejected = new AtomicLong();
+        /**
+         * The number of heads sent to the observer.
+         */
+        private final AtomicLong observed = new AtomicLong();
+        /**
+         * The total time spent in {@link IntermediateLambda#create()} in nanoseconds.
+         */
+        private final AtomicLong intermediateNanos = new AtomicLong();
+        /**
+         * The total time spent creating, evaluating the criteria against and closing probes in nanoseconds.
+         */
+        private final AtomicLong probeNanos = new AtomicLong();
+        /**
+         * The total time spent in {@link LazyRevisionLambda#create(SCMHead, Object)} in nanoseconds.
+         */
+        private final AtomicLong revisionNanos = new AtomicLong();
+
+        /**
+         * Records excluded heads.
+         *
+         * @param count the number of heads excluded.
+         */
+        void excluded(int count) {
+            heads.addAndGet(count);
+            excluded.addAndGet(count);
+        }
+    }
+
+    /**
+     * A snapshot of the heads processed by a {@link SCMSourceRequest}. Every head seen is either excluded, rejected
+     * by the criteria or observed, unless processing it failed.
+     *
+     * @since 3.5.0
+     */
+    public static final class ProcessStatistics {
+        /**
+         * The number of heads seen.
+         */
+        private final long heads;
+        /**
+         * The number of heads excluded.
+         */
+        private final long excluded;
+        /**
+         * The number of heads rejected by the criteria.
+         */
+        private final long rejected;
+        /**
+         * The number of heads observed.
+         */
+        private final long observed;
+        /**
+         * The total time spent creating intermediates in nanoseconds.
+         */
+        private final long intermediateNanos;
+        /**
+         * The total time spent probing in nanoseconds.
+         */
+        private final long probeNanos;
+        /**
+         * The total time spent creating revisions in nanoseconds.
+         */
+        private final long revisionNanos;
+
+        /**
+         * Constructor.
+         *
+         * @param heads             the number of heads seen.
+         * @param excluded          the number of heads excluded.
+         * @param rejected          the number of heads rejected by the criteria.
+         * @param observed          the number of heads observed.
+         * @param intermediateNanos the total time spent creating intermediates in nanoseconds.
+         * @param probeNanos        the total time spent probing in nanoseconds.
+         * @param revisionNanos     the total time spent creating revisions in nanoseconds.
+         */
+        private ProcessStatistics(long heads, long excluded, long rejected, long observed, long intermediateNanos,
+                                  long probeNanos, long revisionNanos) {
+            this.heads = heads;
+            this.excluded = excluded;
+            this.rejected = rejected;
+            this.observed = observed;
+            this.intermediateNanos = intermediateNanos;
+            this.probeNanos = probeNanos;
+            this.revisionNanos = revisionNanos;
+        }
+
+        /**
+         * Returns the number of heads seen, either by
+         * {@link SCMSourceRequest#process(SCMHead, IntermediateLambda, ProbeLambda, LazyRevisionLambda, Witness...)}
+         * or by {@link SCMSourceRequest#prefilter(Collection)}.
+         *
+         * @return the number of heads seen.
+         */
+        public long getHeads() {
+            return heads;
+        }
+
+        /**
+         * Returns the number of heads excluded by the observer's includes, the pre-filters or the filters.
+         *
+         * @return the number of heads excluded.
+         */
+        public long getExcluded() {
+            return excluded;
+        }
+
+        /**
+         * Returns the number of heads rejected by the criteria.
+         *
+         * @return the number of heads rejected by the criteria.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Returns the number of heads sent to the observer.
+         *
+         * @return the number of heads observed.
+         */
+        public long getObserved() {
+            return observed;
+        }
+
+        /**
+         * Returns the total time spent in {@link IntermediateLambda#create()}.
+         *
+         * @param units the units to return the time in.
+         * @return the total time spent creating intermediates.
+         */
+        public long getIntermediateTime(@NonNull TimeUnit units) {
+            return units.convert(intermediateNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the total time spent creating probes, evaluating the criteria against them and closing them.
+         *
+         * @param units the units to return the time in.
+         * @return the total time spent probing.
+         */
+        public long getProbeTime(@NonNull TimeUnit units) {
+            return units.convert(probeNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the total time spent in {@link LazyRevisionLambda#create(SCMHead, Object)}.
+         *
+         * @param units the units to return the time in.
+         * @return the total time spent creating revisions.
+         */
+        public long getRevisionTime(@NonNull TimeUnit units) {
+            return units.convert(revisionNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "ProcessStatistics{heads=" + heads + ", excluded=" + excluded + ", rejected=" + rejected
+                    + ", observed=" + observed
+                    + ", intermediateTime=" + TimeUnit.NANOSECONDS.toMillis(intermediateNanos) + "ms"
+                    + ", probeTime=" + TimeUnit.NANOSECONDS.toMillis(probeNanos) + "ms"
+                    + ", revisionTime=" + TimeUnit.NANOSECONDS.toMillis(revisionNanos) + "ms}";
+        }
+    }
+
+    /**
+     * The running evaluation counters of a {@link SCMSourceCriteria}.
+     */
+    private static final class CriteriaCounters {
+        /**
+         * The number of evaluations.
+         */
+        private final AtomicLong evaluations = new AtomicLong();
+        /**
+         * The number of evaluations that rejected the head.
+         */
+        private final AtomicLong rejections = new AtomicLong();
+        /**
+         * The total time spent evaluating in nanoseconds.
+         */
+        private final AtomicLong nanos = new AtomicLong();
+
+        /**
+         * Records an evaluation.
+         *
+         * @param nanos    the time taken in nanoseconds.
+         * @param accepted {@code true} if the head was accepted.
+         */
+        void record(long nanos, boolean accepted) {
+            this.evaluations.incrementAndGet();
+            this.nanos.addAndGet(nanos);
+            if (!accepted) {
+                this.rejections.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A snapshot of how a {@link SCMSourceCriteria} has been evaluated by a {@link SCMSourceRequest}.
+     *
+     * @since 3.5.0
+     */
+    public static final class CriteriaStatistics {
+        /**
+         * The criteria.
+         */
+        @NonNull
+        private final SCMSourceCriteria criteria;
+        /**
+         * The number of evaluations.
+         */
+        private final long evaluations;
+        /**
+         * The number of evaluations that rejected the head.
+         */
+        private final long rejections;
+        /**
+         * The total time spent evaluating in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Constructor.
+         *
+         * @param criteria    the criteria.
+         * @param evaluations the number of evaluations.
+         * @param rejections  the number of evaluations that rejected the head.
+         * @param nanos       the total time spent evaluating in nanoseconds.
+         */
+        private CriteriaStatistics(@NonNull SCMSourceCriteria criteria, long evaluations, long rejections,
+                                   long nanos) {
+            this.criteria = criteria;
+            this.evaluations = evaluations;
+            this.rejections = rejections;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the criteria.
+         *
+         * @return the criteria.
+         */
+        @NonNull
+        public SCMSourceCriteria getCriteria() {
+            return criteria;
+        }
+
+        /**
+         * Returns the number of heads the criteria was evaluated against.
+         *
+         * @return the number of evaluations.
+         */
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        /**
+         * Returns the number of heads the criteria rejected.
+         *
+         * @return the number of rejections.
+         */
+        public long getRejections() {
+            return rejections;
+        }
+
+        /**
+         * Returns the total time spent evaluating the criteria, which is dominated by probing.
+         *
+         * @param units the units to return the time in.
+         * @return the total time spent evaluating the criteria.
+         */
+        public long getTime(@NonNull TimeUnit units) {
+            return units.convert(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "CriteriaStatistics{" + criteria + ", evaluations=" + evaluations + ", rejections=" + rejections
+                    + ", time=" + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms}";
+        }
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.TaskListener;
+import hudson.util.LogTaskListener;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Supplies the {@link TaskListener} used when a caller does not provide one. The listener logs to the
+ * {@link Logger} named after the class at the level given by the {@code <class name>.defaultListenerLevel} system
+ * property (default {@link Level#FINE}). The {@link Logger} and the level are resolved once per class, call
+ * {@link #refresh()} to pick up changes to the system properties. Each request gets its own listener so that callers
+ * neither interleave partial lines nor close the listener of another caller.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class DefaultListeners {
+
+    /**
+     * Incremented by {@link #refresh()} to discard the levels resolved so far.
+     */
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * The most recently resolved logger and level for each class.
+     */
+    private static final ClassValue<Holder> listeners = new ClassValue<Holder>() {
+        @Override
+        protected Holder computeValue(Class<?> type) {
+            return new Holder(type);
+        }
+    };
+
+    /**
+     * Utility class.
+     */
+    private DefaultListeners() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Turns a possibly {@code null} {@link TaskListener} reference into a guaranteed non-null reference.
+     *
+     * @param listener a possibly {@code null} {@link TaskListener} reference.
+     * @param type     the class on whose behalf the default listener would log.
+     * @return the supplied listener or the default listener for the supplied class.
+     */
+    @NonNull
+    public static TaskListener of(@CheckForNull TaskListener listener, @NonNull Class<?> type) {
+        return listener == null ? of(type) : listener;
+    }
+
+    /**
+     * Returns a new default listener for the supplied class.
+     *
+     * @param type the class on whose behalf the listener will log.
+     * @return the default listener.
+     */
+    @NonNull
+    public static TaskListener of(@NonNull Class<?> type) {
+        Resolved resolved = listeners.get(type).get(generation.get());
+        return new LogTaskListener(resolved.logger, resolved.level);
+    }
+
+    /**
+     * Discards all the resolved levels so that the next request for a listener will re-read the
+     * {@code defaultListenerLevel} system properties.
+     */
+    public static void refresh() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Resolves the log level for the supplied class.
+     *
+     * @param type the class.
+     * @return the log level.
+     */
+    @NonNull
+    /*package*/ static Level level(@NonNull Class<?> type) {
+        try {
+            return Level.parse(System.getProperty(type.getName() + ".defaultListenerLevel", "FINE"));
+        } catch (IllegalArgumentException e) {
+            return Level.FINE;
+        }
+    }
+
+    /**
+     * Holds the resolved logger and level of a class.
+     */
+    private static final class Holder {
+        /**
+         * The class.
+         */
+        @NonNull
+        private final Class<?> type;
+        /**
+         * The current resolution.
+         */
+        @CheckForNull
+        private volatile Resolved resolved;
+
+        /**
+         * Constructor.
+         *
+         * @param type the class.
+         */
+        private Holder(@NonNull Class<?> type) {
+            this.type = type;
+        }
+
+        /**
+         * Returns the resolution for the supplied generation, resolving again if necessary.
+         *
+         * @param generation the current generation.
+         * @return the resolution.
+         */
+        @NonNull
+        private Resolved get(int generation) {
+            Resolved resolved = this.resolved;
+            if (resolved == null || resolved.generation != generation) {
+                // racing threads may each resolve, which is harmless as the results are equivalent
+                resolved = new Resolved(generation, Logger.getLogger(type.getName()), level(type));
+                this.resolved = resolved;
+            }
+            return resolved;
+        }
+    }
+
+    /**
+     * A logger and level along with the generation they were resolved in.
+     */
+    private static final class Resolved {
+        /**
+         * The generation.
+         */
+        private final int generation;
+        /**
+         * The logger.
+         */
+        @NonNull
+        private final Logger logger;
+        /**
+         * The level.
+         */
+        @NonNull
+        private final Level level;
+
+        /**
+         * Constructor.
+         *
+         * @param generation the generation.
+         * @param logger     the logger.
+         * @param level      the level.
+         */
+        private Resolved(int generation, @NonNull Logger logger, @NonNull Level level) {
+            this.generation = generation;
+            this.logger = logger;
+            this.level = level;
+        }
+    }
+}
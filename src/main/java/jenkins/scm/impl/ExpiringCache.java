@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import net.jcip.annotations.GuardedBy;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * A size bounded cache where each entry expires after its own time to live. When the cache is full the least recently
+ * used entry is evicted. All operations are thread safe.
+ *
+ * @param <K> the type of key.
+ * @param <V> the type of value.
+ * @since 3.5.0
+ */
+@Restricted(NoExternalUse.class)
+public class ExpiringCache<K, V> {
+
+    /**
+     * The maximum number of entries to retain.
+     */
+    private final int maxSize;
+
+    /**
+     * The default time to live of entries in nanoseconds.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The source of time in nanoseconds.
+     */
+    @NonNull
+    private final LongSupplier clock;
+
+    /**
+     * The entries in access order.
+     */
+    @GuardedBy("this")
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of entries to retain.
+     * @param ttl     the default time to live of entries.
+     * @param units   the units of the time to live.
+     */
+    public ExpiringCache(int maxSize, long ttl, @NonNull TimeUnit units) {
+        this(maxSize, ttl, units, System::nanoTime);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of entries to retain.
+     * @param ttl     the default time to live of entries.
+     * @param units   the units of the time to live.
+     * @param clock   the source of time in nanoseconds.
+     */
+    /*package*/ ExpiringCache(int maxSize, long ttl, @NonNull TimeUnit units, @NonNull LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = units.toNanos(ttl);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the maximum number of entries that will be retained.
+     *
+     * @return the maximum number of entries that will be retained.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the cached value for the supplied key.
+     *
+     * @param key the key.
+     * @return the cached value or {@code null} if there is no entry or the entry has expired.
+     */
+    @CheckForNull
+    public synchronized V get(@NonNull K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(clock.getAsLong())) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Caches a value using the default time to live.
+     *
+     * @param key   the key.
+     * @param value the value.
+     */
+    public void put(@NonNull K key, @NonNull V value) {
+        put(key, value, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Caches a value using a specific time to live.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @param ttl   the time to live of this entry, non-positive values remove any existing entry.
+     * @param units the units of the time to live.
+     */
+    public synchronized void put(@NonNull K key, @NonNull V value, long ttl, @NonNull TimeUnit units) {
+        if (ttl <= 0) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.getAsLong() + units.toNanos(ttl)));
+    }
+
+    /**
+     * Removes the entry for the supplied key.
+     *
+     * @param key the key.
+     */
+    public synchronized void remove(@NonNull K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all the entries with keys matching the supplied predicate.
+     *
+     * @param predicate the predicate.
+     */
+    public synchronized void removeIf(@NonNull Predicate<? super K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of entries, removing any entries that have expired.
+     *
+     * @return the number of live entries.
+     */
+    public synchronized int size() {
+        long now = clock.getAsLong();
+        for (Iterator<Entry<V>> i = entries.values().iterator(); i.hasNext(); ) {
+            if (i.next().isExpired(now)) {
+                i.remove();
+            }
+        }
+        return entries.size();
+    }
+
+    /**
+     * A cached value.
+     *
+     * @param <V> the type of value.
+     */
+    private static final class Entry<V> {
+        /**
+         * The value.
+         */
+        private final V value;
+        /**
+         * The {@link System#nanoTime()} after which the value is expired.
+         */
+        private final long expires;
+
+        /**
+         * Constructor.
+         *
+         * @param value   the value.
+         * @param expires the {@link System#nanoTime()} after which the value is expired.
+         */
+        private Entry(V value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+
+        /**
+         * Checks if the entry has expired.
+         *
+         * @param now the current {@link System#nanoTime()}.
+         * @return {@code true} if the entry has expired.
+         */
+        private boolean isExpired(long now) {
+            return now - expires >= 0;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl.trait;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+import jenkins.scm.api.trait.SCMHeadNamePrefilter;
+
+/**
+ * A {@link SCMHeadNamePrefilter} whose decision is made by whole name matches of {@link CompiledRegex} expressions,
+ * so that any number of them can be {@linkplain #merge(SCMHeadNamePrefilter) merged} into a single
+ * {@link CompiledRegex.Combined} automaton that decides all of them in one pass over the name.
+ *
+ * @since TODO
+ */
+abstract class AutomatonNamePrefilter extends SCMHeadNamePrefilter {
+
+    /**
+     * Returns the expressions that decide this filter, a name is excluded if and only if any expression matches
+     * differently from {@link Term#isRequired()}.
+     *
+     * @return the terms or {@code null} if any of the expressions needs {@link java.util.regex.Pattern}.
+     */
+    @CheckForNull
+    abstract List<Term> terms();
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Filters whose expressions can all be matched without backtracking are merged into a single automaton.
+     */
+    @CheckForNull
+    @Override
+    public SCMHeadNamePrefilter merge(@NonNull SCMHeadNamePrefilter other) {
+        if (other instanceof AutomatonNamePrefilter) {
+            List<Term> terms = terms();
+            List<Term> otherTerms = ((AutomatonNamePrefilter) other).terms();
+            if (terms != null && otherTerms != null) {
+                List<Term> merged = new ArrayList<>(terms.size() + otherTerms.size());
+                merged.addAll(terms);
+                merged.addAll(otherTerms);
+                return Merged.of(merged);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An expression that decides a filter.
+     */
+    static final class Term {
+        /**
+         * The expression.
+         */
+        @NonNull
+        private final CompiledRegex regex;
+        /**
+         * Whether a name must match the expression to be included.
+         */
+        private final boolean required;
+
+        /**
+         * Constructor.
+         *
+         * @param regex    the expression.
+         * @param required {@code true} if a name must match the expression to be included, {@code false} if a name
+         *                 must not match the expression to be included.
+         */
+        Term(@NonNull CompiledRegex regex, boolean required) {
+            this.regex = regex;
+            this.required = required;
+        }
+
+        /**
+         * Returns the expression.
+         *
+         * @return the expression.
+         */
+        @NonNull
+        CompiledRegex getRegex() {
+            return regex;
+        }
+
+        /**
+         * Returns {@code true} if a name must match the expression to be included, {@code false} if a name must not
+         * match the expression to be included.
+         *
+         * @return whether a name must match the expression to be included.
+         */
+        boolean isRequired() {
+            return required;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return (required ? "" : "!") + regex.pattern().pattern();
+        }
+    }
+
+    /**
+     * The result of merging filters, decided by a single {@link CompiledRegex.Combined} automaton.
+     */
+    private static final class Merged extends AutomatonNamePrefilter {
+        /**
+         * The terms of all the merged filters.
+         */
+        @NonNull
+        private final List<Term> terms;
+        /**
+         * The automaton over the expressions of {@link #terms}.
+         */
+        @NonNull
+        private final CompiledRegex.Combined automaton;
+        /**
+         * The {@link Term#isRequired()} of each of the {@link #terms}.
+         */
+        @NonNull
+        private final boolean[] required;
+
+        /**
+         * Constructor.
+         *
+         * @param terms     the terms.
+         * @param automaton the automaton.
+         */
+        private Merged(@NonNull List<Term> terms, @NonNull CompiledRegex.Combined automaton) {
+            this.terms = terms;
+            this.automaton = automaton;
+            this.required = new boolean[terms.size()];
+            for (int i = 0; i < required.length; i++) {
+                required[i] = terms.get(i).isRequired();
+            }
+        }
+
+        /**
+         * Builds the merged filter.
+         *
+         * @param terms the terms of all the filters to merge.
+         * @return the merged filter or {@code null} if the automaton would be too large.
+         */
+        @CheckForNull
+        static Merged of(@NonNull List<Term> terms) {
+            List<CompiledRegex> expressions = new ArrayList<>(terms.size());
+            for (Term term : terms) {
+                expressions.add(term.getRegex());
+            }
+            CompiledRegex.Combined automaton = CompiledRegex.combine(expressions);
+            return automaton == null ? null : new Merged(List.copyOf(terms), automaton);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @NonNull
+        @Override
+        List<Term> terms() {
+            return terms;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isExcluded(@NonNull String name) {
+            return !automaton.matches(name, required);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "AutomatonNamePrefilter{" + terms + '}';
+        }
+    }
+}
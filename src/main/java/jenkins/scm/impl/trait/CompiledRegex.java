@@ -0,0 +1,1514 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl.trait;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import jenkins.util.SystemProperties;
+
+/**
+ * A regular expression compiled for whole name matching by the regular expression filter traits.
+ * <p>
+ * Expressions that stay within the subset of the {@link Pattern} syntax that does not need backtracking (literals,
+ * {@code .}, character classes without nesting or intersection, the {@code \d \w \s} classes and their negations,
+ * groups, alternation, greedy or reluctant quantifiers and the {@code ^ $} anchors) are matched by simulating a
+ * Thompson automaton, so the cost is bounded by the product of the expression and name lengths whatever the name.
+ * Any other expression (back-references, look-around, possessive quantifiers, inline flags, etc.) is matched by the
+ * {@link Pattern} as before, but a match that takes longer than {@link #PATTERN_TIMEOUT} is abandoned and the input
+ * treated as not matching.
+ *
+ * @since TODO
+ */
+final class CompiledRegex {
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(CompiledRegex.class.getName());
+
+    /**
+     * Set to {@code false} to always match using {@link Pattern}.
+     */
+    static final boolean LINEAR = SystemProperties.getBoolean(CompiledRegex.class.getName() + ".linear", true);
+
+    /**
+     * The maximum time in milliseconds that a match by {@link Pattern} may take before the input is treated as not
+     * matching, non-positive values disable the limit.
+     */
+    static final long PATTERN_TIMEOUT =
+            SystemProperties.getLong(CompiledRegex.class.getName() + ".patternTimeout", 1000L);
+
+    /**
+     * How many characters {@link Pattern} may read between checks of the deadline.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * The maximum number of instructions in a program, bounded repetitions are expanded so this keeps expressions
+     * like {@code a{1000}{1000}} on the {@link Pattern} path.
+     */
+    private static final int MAX_PROGRAM = 10000;
+
+    /**
+     * Matches a single code point, {@code arg} is the code point.
+     */
+    private static final int CHAR = 0;
+    /**
+     * Matches any code point except the line terminators.
+     */
+    private static final int ANY = 1;
+    /**
+     * Matches a code point in a character class, {@code arg} is the index of the class.
+     */
+    private static final int CLASS = 2;
+    /**
+     * Continues at both the next instruction and {@code arg}.
+     */
+    private static final int SPLIT = 3;
+    /**
+     * Continues at {@code arg}.
+     */
+    private static final int JMP = 4;
+    /**
+     * Continues at the next instruction if at the start of the input.
+     */
+    private static final int BEGIN = 5;
+    /**
+     * Continues at the next instruction if at the end of the input (or before a final line terminator).
+     */
+    private static final int END = 6;
+    /**
+     * Matches if at the end of the input.
+     */
+    private static final int MATCH = 7;
+
+    /**
+     * The {@link Pattern}, used when there is no {@link #op program}.
+     */
+    @NonNull
+    private final Pattern pattern;
+    /**
+     * The program operations or {@code null} if the expression needs {@link #pattern}.
+     */
+    @CheckForNull
+    private final int[] op;
+    /**
+     * The program operation arguments.
+     */
+    @CheckForNull
+    private final int[] arg;
+    /**
+     * The character classes referenced by {@link #CLASS} operations, each is sorted inclusive ranges optionally
+     * preceded by {@code -1} when the class is negated.
+     */
+    @CheckForNull
+    private final int[][] classes;
+    /**
+     * The match buffers of the last completed match, reused by the next match unless another thread holds them.
+     */
+    private final AtomicReference<Buffers> spare = new AtomicReference<>();
+
+    /**
+     * The first instruction of the only expression in a program that is not {@link Combined}.
+     */
+    private static final int[] SINGLE = {0};
+
+    /**
+     * Constructor.
+     *
+     * @param pattern the {@link Pattern}.
+     * @param program the program or {@code null}.
+     */
+    private CompiledRegex(@NonNull Pattern pattern, @CheckForNull Program program) {
+        this.pattern = pattern;
+        if (program == null) {
+            this.op = null;
+            this.arg = null;
+            this.classes = null;
+        } else {
+            this.op = Arrays.copyOf(program.op, program.size);
+            this.arg = Arrays.copyOf(program.arg, program.size);
+            this.classes = program.classes.toArray(new int[0][]);
+        }
+    }
+
+    /**
+     * Compiles the supplied regular expression.
+     *
+     * @param regex the regular expression.
+     * @return the compiled regular expression.
+     * @throws PatternSyntaxException if the expression is invalid.
+     */
+    @NonNull
+    static CompiledRegex compile(@NonNull String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return new CompiledRegex(pattern, LINEAR ? Program.compile(regex) : null);
+    }
+
+    /**
+     * Tests if the supplied expression can be matched without backtracking.
+     *
+     * @param regex the (syntactically valid) regular expression.
+     * @return {@code true} if the expression is in the supported subset.
+     */
+    static boolean isLinear(@NonNull String regex) {
+        return Program.compile(regex) != null;
+    }
+
+    /**
+     * Returns the {@link Pattern}.
+     *
+     * @return the {@link Pattern}.
+     */
+    @NonNull
+    Pattern pattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns {@code true} if matching does not use {@link Pattern}.
+     *
+     * @return {@code true} if matching does not use {@link Pattern}.
+     */
+    boolean isLinear() {
+        return op != null;
+    }
+
+    /**
+     * Tests if the entire input matches, equivalent to {@code pattern().matcher(input).matches()}.
+     *
+     * @param input the input.
+     * @return {@code true} if and only if the entire input matches.
+     */
+    boolean matches(@NonNull CharSequence input) {
+        return matches(input, PATTERN_TIMEOUT);
+    }
+
+    /**
+     * Tests if the entire input matches, equivalent to {@code pattern().matcher(input).matches()} unless matching by
+     * {@link Pattern} takes longer than the timeout, in which case the input is treated as not matching.
+     *
+     * @param input   the input.
+     * @param timeout the maximum time in milliseconds that a match by {@link Pattern} may take, non-positive values
+     *                disable the limit.
+     * @return {@code true} if and only if the entire input matches.
+     */
+    boolean matches(@NonNull CharSequence input, long timeout) {
+        if (op == null) {
+            if (timeout <= 0) {
+                return pattern.matcher(input).matches();
+            }
+            try {
+                return pattern.matcher(new DeadlineCharSequence(input,
+                        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout))).matches();
+            } catch (DeadlineExceeded e) {
+                LOGGER.log(Level.WARNING, "Matching {0} against the regular expression {1} took more than {2}ms, "
+                        + "treating it as not matching", new Object[]{input, pattern.pattern(), timeout});
+                return false;
+            }
+        }
+        Buffers buffers = spare.getAndSet(null);
+        if (buffers == null) {
+            buffers = new Buffers(op.length, 1);
+        }
+        try {
+            return run(op, arg, classes, SINGLE, input, buffers, false);
+        } finally {
+            spare.set(buffers);
+        }
+    }
+
+    /**
+     * Combines the supplied expressions into a single automaton that decides all of them in one pass over the input.
+     *
+     * @param expressions the expressions.
+     * @return the combined automaton or {@code null} if any of the expressions needs {@link Pattern} or the combined
+     * program would be too large.
+     */
+    @CheckForNull
+    static Combined combine(@NonNull List<CompiledRegex> expressions) {
+        int size = 0;
+        int classCount = 0;
+        for (CompiledRegex expression : expressions) {
+            if (expression.op == null) {
+                return null;
+            }
+            size += expression.op.length;
+            classCount += expression.classes.length;
+        }
+        if (expressions.isEmpty() || size > MAX_PROGRAM) {
+            return null;
+        }
+        int[] op = new int[size];
+        int[] arg = new int[size];
+        int[][] classes = new int[classCount][];
+        int[] starts = new int[expressions.size()];
+        int offset = 0;
+        int classOffset = 0;
+        for (int i = 0; i < starts.length; i++) {
+            CompiledRegex expression = expressions.get(i);
+            starts[i] = offset;
+            for (int pc = 0; pc < expression.op.length; pc++) {
+                int a = expression.arg[pc];
+                switch (expression.op[pc]) {
+                    case SPLIT:
+                    case JMP:
+                        a += offset;
+                        break;
+                    case CLASS:
+                        a += classOffset;
+                        break;
+                    case MATCH:
+                        // the index of the expression, so a match can be attributed
+                        a = i;
+                        break;
+                    default:
+                        break;
+                }
+                op[offset + pc] = expression.op[pc];
+                arg[offset + pc] = a;
+            }
+            System.arraycopy(expression.classes, 0, classes, classOffset, expression.classes.length);
+            offset += expression.op.length;
+            classOffset += expression.classes.length;
+        }
+        return new Combined(op, arg, classes, starts);
+    }
+
+    /**
+     * Simulates a program over the entire input.
+     *
+     * @param op      the program operations.
+     * @param arg     the program operation arguments.
+     * @param classes the character classes of the program.
+     * @param starts  the first instruction of each expression in the program.
+     * @param input   the input.
+     * @param buffers the match buffers, owned by the calling thread.
+     * @param all     {@code false} to stop at the first match, {@code true} to record every expression that matches
+     *                in {@link Buffers#matched}.
+     * @return {@code true} if and only if the entire input matches at least one expression.
+     */
+    private static boolean run(@NonNull int[] op, @NonNull int[] arg, @NonNull int[][] classes, @NonNull int[] starts,
+                               @NonNull CharSequence input, @NonNull Buffers buffers, boolean all) {
+        int length = input.length();
+        int[] current = buffers.current;
+        int[] next = buffers.next;
+        int[] stack = buffers.stack;
+        int[] marks = buffers.marks;
+        int generation = buffers.nextGeneration(length + 1);
+        int count = 0;
+        for (int start : starts) {
+            count = add(op, arg, input, 0, start, current, count, stack, marks, generation);
+        }
+        int position = 0;
+        while (count > 0) {
+            if (position == length) {
+                boolean result = false;
+                for (int i = 0; i < count; i++) {
+                    int pc = current[i];
+                    if (op[pc] == MATCH) {
+                        if (!all) {
+                            return true;
+                        }
+                        buffers.matched[arg[pc]] = true;
+                        result = true;
+                    }
+                }
+                return result;
+            }
+            int c = Character.codePointAt(input, position);
+            int following = position + Character.charCount(c);
+            generation++;
+            int nextCount = 0;
+            for (int i = 0; i < count; i++) {
+                int pc = current[i];
+                boolean step;
+                switch (op[pc]) {
+                    case CHAR:
+                        step = arg[pc] == c;
+                        break;
+                    case ANY:
+                        step = !isLineTerminator(c);
+                        break;
+                    case CLASS:
+                        step = contains(classes[arg[pc]], c);
+                        break;
+                    default:
+                        step = false;
+                        break;
+                }
+                if (step) {
+                    nextCount = add(op, arg, input, following, pc + 1, next, nextCount, stack, marks, generation);
+                }
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            count = nextCount;
+            position = following;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the thread at {@code pc} to the list, following all the empty transitions.
+     *
+     * @param op         the program operations.
+     * @param arg        the program operation arguments.
+     * @param input      the input.
+     * @param position   the position in the input.
+     * @param pc         the instruction.
+     * @param list       the list.
+     * @param count      the number of threads in the list.
+     * @param stack      scratch space.
+     * @param marks      the generation that each instruction was last visited.
+     * @param generation the current generation.
+     * @return the new number of threads in the list.
+     */
+    private static int add(int[] op, int[] arg, CharSequence input, int position, int pc, int[] list, int count,
+                           int[] stack, int[] marks, int generation) {
+        int depth = 0;
+        stack[depth++] = pc;
+        while (depth > 0) {
+            pc = stack[--depth];
+            if (marks[pc] == generation) {
+                continue;
+            }
+            marks[pc] = generation;
+            switch (op[pc]) {
+                case SPLIT:
+                    stack[depth++] = arg[pc];
+                    stack[depth++] = pc + 1;
+                    break;
+                case JMP:
+                    stack[depth++] = arg[pc];
+                    break;
+                case BEGIN:
+                    if (position == 0) {
+                        stack[depth++] = pc + 1;
+                    }
+                    break;
+                case END:
+                    if (isDollar(input, position)) {
+                        stack[depth++] = pc + 1;
+                    }
+                    break;
+                default:
+                    list[count++] = pc;
+                    break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replicates the non-multiline {@code $} of {@link Pattern}.
+     *
+     * @param input    the input.
+     * @param position the position.
+     * @return {@code true} if {@code $} matches at the position.
+     */
+    private static boolean isDollar(CharSequence input, int position) {
+        int end = input.length();
+        if (position < end - 2) {
+            return false;
+        }
+        if (position == end - 2 && (input.charAt(position) != '\r' || input.charAt(position + 1) != '\n')) {
+            return false;
+        }
+        if (position < end) {
+            char c = input.charAt(position);
+            if (c == '\n') {
+                // no match between \r\n
+                return position == 0 || input.charAt(position - 1) != '\r';
+            }
+            return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+        return true;
+    }
+
+    /**
+     * Tests if the code point is one of the line terminators that {@code .} does not match.
+     *
+     * @param c the code point.
+     * @return {@code true} if the code point is a line terminator.
+     */
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Tests if the code point is in the character class.
+     *
+     * @param ranges the character class.
+     * @param c      the code point.
+     * @return {@code true} if the code point is in the character class.
+     */
+    private static boolean contains(int[] ranges, int c) {
+        boolean negated = ranges.length % 2 == 1;
+        for (int i = negated ? 1 : 0; i < ranges.length; i += 2) {
+            if (c < ranges[i]) {
+                break;
+            }
+            if (c <= ranges[i + 1]) {
+                return !negated;
+            }
+        }
+        return negated;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CompiledRegex{" + pattern.pattern() + (isLinear() ? ", linear}" : "}");
+    }
+
+    /**
+     * The scratch space of a match, sized for the program so a match allocates nothing once the buffers exist.
+     */
+    private static final class Buffers {
+        /**
+         * The threads at the current position.
+         */
+        private final int[] current;
+        /**
+         * The threads at the next position.
+         */
+        private final int[] next;
+        /**
+         * The stack used to follow empty transitions.
+         */
+        private final int[] stack;
+        /**
+         * The generation that each instruction was last visited.
+         */
+        private final int[] marks;
+        /**
+         * Which of the expressions of a {@link Combined} program matched.
+         */
+        private final boolean[] matched;
+        /**
+         * The last generation used in {@link #marks}.
+         */
+        private int generation;
+
+        /**
+         * Constructor.
+         *
+         * @param size        the number of instructions in the program.
+         * @param expressions the number of expressions in the program.
+         */
+        Buffers(int size, int expressions) {
+            this.current = new int[size];
+            this.next = new int[size];
+            this.stack = new int[size * 2 + 1];
+            this.marks = new int[size];
+            this.matched = new boolean[expressions];
+        }
+
+        /**
+         * Reserves the generations for a match, a match uses one generation per position plus one.
+         *
+         * @param generations the number of generations the match uses.
+         * @return the first generation of the match.
+         */
+        int nextGeneration(int generations) {
+            if (generation > Integer.MAX_VALUE - generations - 1) {
+                Arrays.fill(marks, 0);
+                generation = 0;
+            }
+            int first = generation + 1;
+            generation += generations;
+            return first;
+        }
+    }
+
+    /**
+     * Several expressions compiled into a single program, so that deciding all of them needs one pass over the input
+     * and one set of threads.
+     *
+     * @see #combine(List)
+     */
+    static final class Combined {
+        /**
+         * The program operations.
+         */
+        @NonNull
+        private final int[] op;
+        /**
+         * The program operation arguments, the argument of each {@link #MATCH} is the index of its expression.
+         */
+        @NonNull
+        private final int[] arg;
+        /**
+         * The character classes referenced by {@link #CLASS} operations.
+         */
+        @NonNull
+        private final int[][] classes;
+        /**
+         * The first instruction of each expression.
+         */
+        @NonNull
+        private final int[] starts;
+        /**
+         * The match buffers of the last completed match, reused by the next match unless another thread holds them.
+         */
+        private final AtomicReference<Buffers> spare = new AtomicReference<>();
+
+        /**
+         * Constructor.
+         *
+         * @param op      the program operations.
+         * @param arg     the program operation arguments.
+         * @param classes the character classes.
+         * @param starts  the first instruction of each expression.
+         */
+        private Combined(@NonNull int[] op, @NonNull int[] arg, @NonNull int[][] classes, @NonNull int[] starts) {
+            this.op = op;
+            this.arg = arg;
+            this.classes = classes;
+            this.starts = starts;
+        }
+
+        /**
+         * Tests if each expression matches the entire input exactly when expected to.
+         *
+         * @param input    the input.
+         * @param expected whether each expression, in the order they were combined, is expected to match.
+         * @return {@code true} if and only if every expression that is expected to match the entire input does and
+         * no other expression does.
+         */
+        boolean matches(@NonNull CharSequence input, @NonNull boolean[] expected) {
+            Buffers buffers = spare.getAndSet(null);
+            if (buffers == null) {
+                buffers = new Buffers(op.length, starts.length);
+            }
+            try {
+                boolean[] matched = buffers.matched;
+                Arrays.fill(matched, false);
+                run(op, arg, classes, starts, input, buffers, true);
+                return Arrays.equals(matched, expected);
+            } finally {
+                spare.set(buffers);
+            }
+        }
+
+        /**
+         * Returns the number of expressions.
+         *
+         * @return the number of expressions.
+         */
+        int size() {
+            return starts.length;
+        }
+    }
+
+    /**
+     * A view of the input to {@link Pattern} that aborts the match once a deadline has passed, as {@link Pattern}
+     * reads the input through {@link #charAt(int)} throughout the match, including while backtracking.
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+        /**
+         * The input.
+         */
+        @NonNull
+        private final CharSequence input;
+        /**
+         * The {@link System#nanoTime()} after which the match is aborted.
+         */
+        private final long deadline;
+        /**
+         * The number of characters read until the next check of the deadline.
+         */
+        private int countdown = DEADLINE_CHECK_INTERVAL;
+
+        /**
+         * Constructor.
+         *
+         * @param input    the input.
+         * @param deadline the {@link System#nanoTime()} after which the match is aborted.
+         */
+        private DeadlineCharSequence(@NonNull CharSequence input, long deadline) {
+            this.input = input;
+            this.deadline = deadline;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int length() {
+            return input.length();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public char charAt(int index) {
+            if (--countdown <= 0) {
+                countdown = DEADLINE_CHECK_INTERVAL;
+                if (System.nanoTime() - deadline > 0) {
+                    throw new DeadlineExceeded();
+                }
+            }
+            return input.charAt(index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(input.subSequence(start, end), deadline);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @NonNull
+        @Override
+        public String toString() {
+            return input.toString();
+        }
+    }
+
+    /**
+     * Signals that a match by {@link Pattern} has passed its deadline.
+     */
+    private static final class DeadlineExceeded extends RuntimeException {
+        /**
+         * Standardize serialization.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor.
+         */
+        private DeadlineExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Signals that an expression is outside the supported subset.
+     */
+    private static final class Unsupported extends Exception {
+        /**
+         * Standardize serialization.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor.
+         */
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * A program under construction.
+     */
+    private static final class Program {
+        /**
+         * The operations.
+         */
+        private int[] op = new int[16];
+        /**
+         * The operation arguments.
+         */
+        private int[] arg = new int[16];
+        /**
+         * The number of instructions.
+         */
+        private int size;
+        /**
+         * The character classes.
+         */
+        private final List<int[]> classes = new ArrayList<>();
+
+        /**
+         * Compiles the expression.
+         *
+         * @param regex the expression.
+         * @return the program or {@code null} if the expression is outside the supported subset.
+         */
+        @CheckForNull
+        static Program compile(@NonNull String regex) {
+            try {
+                Program program = new Program();
+                new Parser(regex).parse().emit(program);
+                program.emit(MATCH, 0);
+                return program;
+            } catch (Unsupported e) {
+                return null;
+            }
+        }
+
+        /**
+         * Appends an instruction.
+         *
+         * @param op  the operation.
+         * @param arg the argument.
+         * @return the index of the instruction.
+         * @throws Unsupported if the program is too large.
+         */
+        int emit(int op, int arg) throws Unsupported {
+            if (size == MAX_PROGRAM) {
+                throw new Unsupported();
+            }
+            if (size == this.op.length) {
+                this.op = Arrays.copyOf(this.op, size * 2);
+                this.arg = Arrays.copyOf(this.arg, size * 2);
+            }
+            this.op[size] = op;
+            this.arg[size] = arg;
+            return size++;
+        }
+    }
+
+    /**
+     * A node in the parsed expression.
+     */
+    private abstract static class Node {
+        /**
+         * Appends the instructions for this node.
+         *
+         * @param program the program.
+         * @throws Unsupported if the program is too large.
+         */
+        abstract void emit(Program program) throws Unsupported;
+
+        /**
+         * Tests if this node can match without consuming any input.
+         *
+         * @return {@code true} if this node can match the empty string.
+         */
+        abstract boolean isNullable();
+    }
+
+    /**
+     * A single instruction node.
+     */
+    private static final class Instruction extends Node {
+        /**
+         * The operation.
+         */
+        private final int op;
+        /**
+         * The argument.
+         */
+        private final int arg;
+
+        /**
+         * Constructor.
+         *
+         * @param op  the operation.
+         * @param arg the argument.
+         */
+        Instruction(int op, int arg) {
+            this.op = op;
+            this.arg = arg;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        void emit(Program program) throws Unsupported {
+            program.emit(op, arg);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean isNullable() {
+            return isAssertion();
+        }
+
+        /**
+         * Tests if this node is a zero-width assertion.
+         *
+         * @return {@code true} if this node is a zero-width assertion.
+         */
+        boolean isAssertion() {
+            return op == BEGIN || op == END;
+        }
+    }
+
+    /**
+     * A character class node, the class is registered with the program on first emission.
+     */
+    private static final class CharacterClass extends Node {
+        /**
+         * The class.
+         */
+        private final int[] ranges;
+        /**
+         * The program the class is registered with.
+         */
+        private Program registered;
+        /**
+         * The index of the class in {@link #registered}.
+         */
+        private int index;
+
+        /**
+         * Constructor.
+         *
+         * @param ranges the class.
+         */
+        CharacterClass(int[] ranges) {
+            this.ranges = ranges;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        void emit(Program program) throws Unsupported {
+            if (registered != program) {
+                registered = program;
+                index = program.classes.size();
+                program.classes.add(ranges);
+            }
+            program.emit(CLASS, index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean isNullable() {
+            return false;
+        }
+    }
+
+    /**
+     * A sequence node.
+     */
+    private static class Sequence extends Node {
+        /**
+         * The nodes.
+         */
+        private final List<Node> nodes;
+
+        /**
+         * Constructor.
+         *
+         * @param nodes the nodes.
+         */
+        Sequence(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        void emit(Program program) throws Unsupported {
+            for (Node node : nodes) {
+                node.emit(program);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean isNullable() {
+            for (Node node : nodes) {
+                if (!node.isNullable()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A {@code \Q...\E} quoted sequence node.
+     */
+    private static final class Quote extends Sequence {
+        /**
+         * Constructor.
+         *
+         * @param nodes the nodes.
+         */
+        Quote(List<Node> nodes) {
+            super(nodes);
+        }
+    }
+
+    /**
+     * An alternation node.
+     */
+    private static final class Alternation extends Node {
+        /**
+         * The alternatives.
+         */
+        private final List<Node> alternatives;
+
+        /**
+         * Constructor.
+         *
+         * @param alternatives the alternatives.
+         */
+        Alternation(List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        void emit(Program program) throws Unsupported {
+            int[] jumps = new int[alternatives.size() - 1];
+            for (int i = 0; i < jumps.length; i++) {
+                int split = program.emit(SPLIT, 0);
+                alternatives.get(i).emit(program);
+                jumps[i] = program.emit(JMP, 0);
+                program.arg[split] = program.size;
+            }
+            alternatives.get(jumps.length).emit(program);
+            for (int jump : jumps) {
+                program.arg[jump] = program.size;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean isNullable() {
+            for (Node alternative : alternatives) {
+                if (alternative.isNullable()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A repetition node.
+     */
+    private static final class Repetition extends Node {
+        /**
+         * The repeated node.
+         */
+        private final Node node;
+        /**
+         * The minimum number of repetitions.
+         */
+        private final int min;
+        /**
+         * The maximum number of repetitions or {@code -1} if unbounded.
+         */
+        private final int max;
+
+        /**
+         * Constructor.
+         *
+         * @param node the repeated node.
+         * @param min  the minimum number of repetitions.
+         * @param max  the maximum number of repetitions or {@code -1} if unbounded.
+         */
+        Repetition(Node node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        void emit(Program program) throws Unsupported {
+            for (int i = 0; i < min; i++) {
+                node.emit(program);
+            }
+            if (max == -1) {
+                int loop = program.emit(SPLIT, 0);
+                node.emit(program);
+                program.emit(JMP, loop);
+                program.arg[loop] = program.size;
+            } else if (max > min) {
+                int[] splits = new int[max - min];
+                for (int i = 0; i < splits.length; i++) {
+                    splits[i] = program.emit(SPLIT, 0);
+                    node.emit(program);
+                }
+                for (int split : splits) {
+                    program.arg[split] = program.size;
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean isNullable() {
+            return min == 0 || node.isNullable();
+        }
+    }
+
+    /**
+     * Parses the supported subset of the {@link Pattern} syntax.
+     */
+    private static final class Parser {
+        /**
+         * The digits.
+         */
+        private static final int[] DIGITS = {'0', '9'};
+        /**
+         * The word characters.
+         */
+        private static final int[] WORDS = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+        /**
+         * The whitespace characters.
+         */
+        private static final int[] SPACES = {'\t', '\r', ' ', ' '};
+        /**
+         * The expression.
+         */
+        private final String regex;
+        /**
+         * The current position.
+         */
+        private int pos;
+
+        /**
+         * Constructor.
+         *
+         * @param regex the expression.
+         */
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        /**
+         * Parses the expression.
+         *
+         * @return the parsed expression.
+         * @throws Unsupported if the expression is outside the supported subset.
+         */
+        Node parse() throws Unsupported {
+            Node node = alternation();
+            if (pos != regex.length()) {
+                throw new Unsupported();
+            }
+            return node;
+        }
+
+        /**
+         * Parses an alternation.
+         *
+         * @return the parsed alternation.
+         * @throws Unsupported if the expression is outside the supported subset.
+         */
+        private Node alternation() throws Unsupported {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(sequence());
+            while (pos < regex.length() && regex.charAt(pos) == '|') {
+                pos++;
+                alternatives.add(sequence());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+        }
+
+        /**
+         * Parses a sequence.
+         *
+         * @return the parsed sequence.
+         * @throws Unsupported if the expression is outside the supported subset.
+         */
+        private Node sequence() throws Unsupported {
+            List<Node> nodes = new ArrayList<>();
+            while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                nodes.add(quantified(atom()));
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new Sequence(nodes);
+        }
+
+        /**
+         * Parses any quantifier following an atom.
+         *
+         * @param atom the atom.
+         * @return the (possibly quantified) atom.
+         * @throws Unsupported if the expression is outside the supported subset.
+         */
+        private Node quantified(Node atom) throws Unsupported {
+            if (pos == regex.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            switch (regex.charAt(pos)) {
+                case '*':
+                    min = 0;
+                    max = -1;
+                    pos++;
+                    break;
+                case '+':
+                    min = 1;
+                    max = -1;
+                    pos++;
+                    break;
+                case '?':
+                    min = 0;
+                    max = 1;
+                    pos++;
+                    break;
+                case '{':
+                    pos++;
+                    min = number();
+                    if (pos < regex.length() && regex.charAt(pos) == ',') {
+                        pos++;
+                        max = pos < regex.length() && regex.charAt(pos) == '}' ? -1 : number();
+                    } else {
+                        max = min;
+                    }
+                    if (pos == regex.length() || regex.charAt(pos) != '}' || (max != -1 && max < min)) {
+                        throw new Unsupported();
+                    }
+                    pos++;
+                    break;
+                default:
+                    return atom;
+            }
+            if (atom instanceof Quote || atom instanceof Instruction && ((Instruction) atom).isAssertion()) {
+                throw new Unsupported();
+            }
+            if (min > 1 && atom.isNullable()) {
+                // Pattern ends a repetition at the first empty iteration, even before the minimum is reached
+                throw new Unsupported();
+            }
+            if (pos < regex.length()) {
+                char c = regex.charAt(pos);
+                if (c == '?') {
+                    // reluctant quantifiers match the same names
+                    pos++;
+                } else if (c == '+') {
+                    // possessive quantifiers change which names match
+                    throw new Unsupported();
+                }
+            }
+            if (pos < regex.length() && "*+?{".indexOf(regex.charAt(pos)) != -1) {
+                throw new Unsupported();
+            }
+            return new Repetition(atom, min, max);
+        }
+
+        /**
+         * Parses a repetition count.
+         *
+         * @return the count.
+         * @throws Unsupported if there is no count or the count is too large.
+         */
+        private int number() throws Unsupported {
+            int start = pos;
+            while (pos < regex.length() && pos - start < 5 && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '9') {
+                pos++;
+            }
+            if (pos == start || pos - start == 5) {
+                throw new Unsupported();
+            }
+            return Integer.parseInt(regex.substring(start, pos));
+        }
+
+        /**
+         * Parses an atom.
+         *
+         * @return the parsed atom.
+         * @throws Unsupported if the expression is outside the supported subset.
+         */
+        private Node atom() throws Unsupported {
+            int c = regex.codePointAt(pos);
+            switch (c) {
+                case '(':
+                    pos++;
+                    if (regex.startsWith("?:", pos)) {
+                        pos += 2;
+                    } else if (regex.startsWith("?<", pos) && pos + 2 < regex.length()
+                            && Character.isLetter(regex.charAt(pos + 2))) {
+                        // named groups are only special for back-references, which are unsupported
+                        int end = regex.indexOf('>', pos);
+                        if (end == -1) {
+                            throw new Unsupported();
+                        }
+                        pos = end + 1;
+                    } else if (regex.startsWith("?", pos)) {
+                        // look-around, atomic groups, inline flags
+                        throw new Unsupported();
+                    }
+                    Node group = alternation();
+                    if (pos == regex.length() || regex.charAt(pos) != ')') {
+                        throw new Unsupported();
+                    }
+                    pos++;
+                    return group;
+                case '[':
+                    pos++;
+                    return characterClass();
+                case '.':
+                    pos++;
+                    return new Instruction(ANY, 0);
+                case '^':
+                    pos++;
+                    return new Instruction(BEGIN, 0);
+                case '$':
+                    pos++;
+                    return new Instruction(END, 0);
+                case '\\':
+                    pos++;
+                    return escape();
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new Unsupported();
+                default:
+                    pos += Character.charCount(c);
+                    return new Instruction(CHAR, c);
+            }
+        }
+
+        /**
+         * Parses an escape sequence outside a character class.
+         *
+         * @return the parsed escape.
+         * @throws Unsupported if the expression is outside the supported subset.
+         */
+        private Node escape() throws Unsupported {
+            if (pos == regex.length()) {
+                throw new Unsupported();
+            }
+            char c = regex.charAt(pos);
+            switch (c) {
+                case 'd':
+                case 'D':
+                    pos++;
+                    return new CharacterClass(c == 'd' ? DIGITS : negate(DIGITS));
+                case 'w':
+                case 'W':
+                    pos++;
+                    return new CharacterClass(c == 'w' ? WORDS : negate(WORDS));
+                case 's':
+                case 'S':
+                    pos++;
+                    return new CharacterClass(c == 's' ? SPACES : negate(SPACES));
+                case 'Q':
+                    pos++;
+                    int end = regex.indexOf("\\E", pos);
+                    String quoted = regex.substring(pos, end == -1 ? regex.length() : end);
+                    pos = end == -1 ? regex.length() : end + 2;
+                    List<Node> nodes = new ArrayList<>();
+                    for (int i = 0; i < quoted.length(); i += Character.charCount(quoted.codePointAt(i))) {
+                        nodes.add(new Instruction(CHAR, quoted.codePointAt(i)));
+                    }
+                    return new Quote(nodes);
+                default:
+                    return new Instruction(CHAR, escapedLiteral());
+            }
+        }
+
+        /**
+         * Parses an escaped literal, the position is after the backslash.
+         *
+         * @return the code point.
+         * @throws Unsupported if the escape is not a supported literal.
+         */
+        private int escapedLiteral() throws Unsupported {
+            if (pos == regex.length()) {
+                throw new Unsupported();
+            }
+            char c = regex.charAt(pos++);
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'a':
+                    return '\u0007';
+                case 'e':
+                    return '\u001B';
+                default:
+                    if (c < 128 && !Character.isLetterOrDigit(c)) {
+                        return c;
+                    }
+                    // octal, hex, unicode, control, back-references, boundaries, properties...
+                    throw new Unsupported();
+            }
+        }
+
+        /**
+         * Parses a character class, the position is after the opening bracket.
+         *
+         * @return the parsed character class.
+         * @throws Unsupported if the expression is outside the supported subset.
+         */
+        private Node characterClass() throws Unsupported {
+            boolean negated = pos < regex.length() && regex.charAt(pos) == '^';
+            if (negated) {
+                pos++;
+            }
+            List<int[]> ranges = new ArrayList<>();
+            if (pos < regex.length() && regex.charAt(pos) == ']') {
+                throw new Unsupported();
+            }
+            while (true) {
+                if (pos == regex.length()) {
+                    throw new Unsupported();
+                }
+                int c = regex.codePointAt(pos);
+                if (c == ']') {
+                    pos++;
+                    break;
+                }
+                if (c == '[' || c == '&' && regex.startsWith("&&", pos)) {
+                    // unions and intersections
+                    throw new Unsupported();
+                }
+                int low;
+                if (c == '\\') {
+                    pos++;
+                    int[] predefined = predefined();
+                    if (predefined != null) {
+                        for (int i = 0; i < predefined.length; i += 2) {
+                            ranges.add(new int[]{predefined[i], predefined[i + 1]});
+                        }
+                        continue;
+                    }
+                    low = escapedLiteral();
+                } else {
+                    pos += Character.charCount(c);
+                    low = c;
+                }
+                int high = low;
+                if (pos + 1 < regex.length() && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                    pos++;
+                    int h = regex.codePointAt(pos);
+                    if (h == '[') {
+                        throw new Unsupported();
+                    }
+                    if (h == '\\') {
+                        pos++;
+                        if (predefined() != null) {
+                            throw new Unsupported();
+                        }
+                        high = escapedLiteral();
+                    } else {
+                        pos += Character.charCount(h);
+                        high = h;
+                    }
+                    if (high < low) {
+                        throw new Unsupported();
+                    }
+                }
+                ranges.add(new int[]{low, high});
+            }
+            ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+            List<Integer> merged = new ArrayList<>();
+            for (int[] range : ranges) {
+                int last = merged.size() - 1;
+                if (last > 0 && range[0] <= merged.get(last) + 1) {
+                    merged.set(last, Math.max(merged.get(last), range[1]));
+                } else {
+                    merged.add(range[0]);
+                    merged.add(range[1]);
+                }
+            }
+            int[] result = new int[merged.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = merged.get(i);
+            }
+            return new CharacterClass(negated ? negate(result) : result);
+        }
+
+        /**
+         * Parses a predefined class escape inside a character class, the position is after the backslash.
+         *
+         * @return the ranges of the class or {@code null} if the escape is not a predefined class.
+         * @throws Unsupported if the escape is a negated predefined class or a quotation.
+         */
+        @CheckForNull
+        private int[] predefined() throws Unsupported {
+            if (pos == regex.length()) {
+                throw new Unsupported();
+            }
+            switch (regex.charAt(pos)) {
+                case 'd':
+                    pos++;
+                    return DIGITS;
+                case 'w':
+                    pos++;
+                    return WORDS;
+                case 's':
+                    pos++;
+                    return SPACES;
+                case 'D':
+                case 'W':
+                case 'S':
+                case 'Q':
+                    throw new Unsupported();
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Negates a class.
+         *
+         * @param ranges the sorted, non-overlapping ranges.
+         * @return the negated class.
+         */
+        private static int[] negate(int[] ranges) {
+            int[] result = new int[ranges.length + 1];
+            result[0] = -1;
+            System.arraycopy(ranges, 0, result, 1, ranges.length);
+            return result;
+        }
+    }
+}
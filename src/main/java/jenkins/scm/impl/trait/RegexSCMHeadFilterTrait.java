@@ -28,10 +28,12 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
 import hudson.util.FormValidation;
+import java.util.List;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMSource;
+import jenkins.scm.api.trait.SCMHeadNamePrefilter;
 import jenkins.scm.api.trait.SCMHeadPrefilter;
 import jenkins.scm.api.trait.SCMSourceContext;
 import jenkins.scm.api.trait.SCMSourceTrait;
@@ -56,10 +58,10 @@ public class RegexSCMHeadFilterTrait extends SCMSourceTrait {
     @NonNull
     private final String regex;
     /**
-     * The compiled {@link Pattern}.
+     * The compiled regular expression.
      */
     @CheckForNull
-    private transient Pattern pattern;
+    private transient CompiledRegex pattern;
 
     /**
      * Stapler constructor.
@@ -68,7 +70,7 @@ public class RegexSCMHeadFilterTrait extends SCMSourceTrait {
      */
     @DataBoundConstructor
     public RegexSCMHeadFilterTrait(@NonNull String regex) {
-        pattern = Pattern.compile(regex);
+        pattern = CompiledRegex.compile(regex);
         this.regex = regex;
     }
 
@@ -83,15 +85,15 @@ public class RegexSCMHeadFilterTrait extends SCMSourceTrait {
     }
 
     /**
-     * Gets the compiled {@link Pattern}.
+     * Gets the compiled regular expression.
      *
-     * @return the compiled {@link Pattern}.
+     * @return the compiled regular expression.
      */
     @NonNull
-    private Pattern getPattern() {
+    private CompiledRegex getPattern() {
         if (pattern == null) {
             // idempotent
-            pattern = Pattern.compile(regex);
+            pattern = CompiledRegex.compile(regex);
         }
         return pattern;
     }
@@ -101,12 +103,87 @@ public class RegexSCMHeadFilterTrait extends SCMSourceTrait {
      */
     @Override
     protected void decorateContext(SCMSourceContext<?, ?> context) {
-        context.withPrefilter(new SCMHeadPrefilter() {
-            @Override
-            public boolean isExcluded(@NonNull SCMSource source, @NonNull SCMHead head) {
-                return !getPattern().matcher(head.getName()).matches();
+        context.withPrefilter(new RegexPrefilter(getPattern()));
+    }
+
+    /**
+     * The {@link SCMHeadPrefilter} that applies the regular expression.
+     */
+    private static final class RegexPrefilter extends AutomatonNamePrefilter {
+
+        /**
+         * The compiled regular expression.
+         */
+        @NonNull
+        private final CompiledRegex pattern;
+
+        /**
+         * Constructor.
+         *
+         * @param pattern the compiled regular expression.
+         */
+        private RegexPrefilter(@NonNull CompiledRegex pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isExcluded(@NonNull String name) {
+            return !pattern.matches(name);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @CheckForNull
+        @Override
+        List<Term> terms() {
+            return pattern.isLinear() ? List.of(new Term(pattern, true)) : null;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Filters with the same expression are de-duplicated.
+         */
+        @CheckForNull
+        @Override
+        public SCMHeadNamePrefilter merge(@NonNull SCMHeadNamePrefilter other) {
+            return equals(other) ? this : super.merge(other);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
             }
-        });
+            RegexPrefilter that = (RegexPrefilter) o;
+            return pattern.pattern().pattern().equals(that.pattern.pattern().pattern());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return pattern.pattern().pattern().hashCode();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "RegexPrefilter{" + pattern.pattern().pattern() + '}';
+        }
     }
 
     /**
@@ -136,7 +213,9 @@ public class RegexSCMHeadFilterTrait extends SCMSourceTrait {
         public FormValidation doCheckRegex(@QueryParameter String value) {
             try {
                 Pattern.compile(value);
-                return FormValidation.ok();
+                return CompiledRegex.isLinear(value)
+                        ? FormValidation.ok()
+                        : FormValidation.warning(Messages.RegexSCMHeadFilterTrait_Backtracking());
             } catch (PatternSyntaxException e) {
                 return FormValidation.error(e.getMessage());
             }
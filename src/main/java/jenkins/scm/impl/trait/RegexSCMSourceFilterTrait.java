@@ -55,10 +55,10 @@ public class RegexSCMSourceFilterTrait extends SCMNavigatorTrait {
     @NonNull
     private final String regex;
     /**
-     * The compiled {@link Pattern}.
+     * The compiled regular expression.
      */
     @CheckForNull
-    private transient Pattern pattern;
+    private transient CompiledRegex pattern;
 
     /**
      * Stapler constructor.
@@ -67,7 +67,7 @@ public class RegexSCMSourceFilterTrait extends SCMNavigatorTrait {
      */
     @DataBoundConstructor
     public RegexSCMSourceFilterTrait(@NonNull String regex) {
-        pattern = Pattern.compile(regex);
+        pattern = CompiledRegex.compile(regex);
         this.regex = regex;
     }
 
@@ -82,15 +82,15 @@ public class RegexSCMSourceFilterTrait extends SCMNavigatorTrait {
     }
 
     /**
-     * Gets the compiled {@link Pattern}.
+     * Gets the compiled regular expression.
      *
-     * @return the compiled {@link Pattern}.
+     * @return the compiled regular expression.
      */
     @NonNull
-    private Pattern getPattern() {
+    private CompiledRegex getPattern() {
         if (pattern == null) {
             // idempotent
-            pattern = Pattern.compile(regex);
+            pattern = CompiledRegex.compile(regex);
         }
         return pattern;
     }
@@ -103,7 +103,7 @@ public class RegexSCMSourceFilterTrait extends SCMNavigatorTrait {
         context.withPrefilter(new SCMSourcePrefilter() {
             @Override
             public boolean isExcluded(@NonNull SCMNavigator source, @NonNull String projectName) {
-                return !getPattern().matcher(projectName).matches();
+                return !getPattern().matches(projectName);
             }
         });
     }
@@ -135,7 +135,9 @@ public class RegexSCMSourceFilterTrait extends SCMNavigatorTrait {
         public FormValidation doCheckRegex(@QueryParameter String value) {
             try {
                 Pattern.compile(value);
-                return FormValidation.ok();
+                return CompiledRegex.isLinear(value)
+                        ? FormValidation.ok()
+                        : FormValidation.warning(Messages.RegexSCMSourceFilterTrait_Backtracking());
             } catch (PatternSyntaxException e) {
                 return FormValidation.error(e.getMessage());
             }
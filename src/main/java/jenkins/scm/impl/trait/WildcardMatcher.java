@@ -0,0 +1,298 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl.trait;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled form of the space separated wildcard rules used by {@link WildcardSCMHeadFilterTrait} and
+ * {@link WildcardSCMSourceFilterTrait}. Rules without a {@code *} are matched with a hash lookup and rules with a
+ * {@code *} are matched by locating their literal segments in order, so matching never backtracks.
+ *
+ * @since TODO
+ */
+final class WildcardMatcher {
+
+    /**
+     * The original rules.
+     */
+    @NonNull
+    private final String rules;
+    /**
+     * The rules that do not contain a wildcard.
+     */
+    @NonNull
+    private final Set<String> literals;
+    /**
+     * The literal segments of each rule that contains a wildcard, the first segment must be a prefix and the last
+     * segment must be a suffix of the name.
+     */
+    @NonNull
+    private final String[][] globs;
+    /**
+     * The equivalent regular expression.
+     */
+    @NonNull
+    private final String regex;
+    /**
+     * The compiled {@link #regex}, only used for names containing line terminators as {@code *} historically
+     * translated to {@code .*} which does not match those characters.
+     */
+    @CheckForNull
+    private Pattern pattern;
+    /**
+     * The {@link #regex} compiled for {@link AutomatonNamePrefilter}.
+     */
+    @CheckForNull
+    private CompiledRegex compiled;
+
+    /**
+     * Constructor.
+     *
+     * @param rules    the original rules.
+     * @param literals the rules that do not contain a wildcard.
+     * @param globs    the literal segments of the rules that contain a wildcard.
+     * @param regex    the equivalent regular expression.
+     */
+    private WildcardMatcher(@NonNull String rules, @NonNull Set<String> literals, @NonNull String[][] globs,
+                            @NonNull String regex) {
+        this.rules = rules;
+        this.literals = literals;
+        this.globs = globs;
+        this.regex = regex;
+    }
+
+    /**
+     * Compiles the supplied space separated wildcard rules.
+     *
+     * @param rules the rules.
+     * @return the compiled rules.
+     */
+    @NonNull
+    static WildcardMatcher compile(@NonNull String rules) {
+        Set<String> literals = new HashSet<>();
+        List<String[]> globs = new ArrayList<>();
+        boolean empty = true;
+        for (String rule : rules.split(" ")) {
+            if (rule.isEmpty()) {
+                // an empty rule only matches the empty name once it follows a non-empty rule, see toRegex
+                if (!empty) {
+                    literals.add(rule);
+                }
+                continue;
+            }
+            empty = false;
+            if (rule.indexOf('*') == -1) {
+                literals.add(rule);
+                continue;
+            }
+            List<String> segments = new ArrayList<>();
+            int start = 0;
+            for (int index = rule.indexOf('*'); index != -1; index = rule.indexOf('*', start)) {
+                segments.add(rule.substring(start, index));
+                start = index + 1;
+            }
+            segments.add(rule.substring(start));
+            globs.add(segments.toArray(new String[0]));
+        }
+        if (empty) {
+            literals.add("");
+        }
+        return new WildcardMatcher(rules, literals, globs.toArray(new String[0][]), toRegex(rules));
+    }
+
+    /**
+     * Returns a matcher that matches a name if and only if either this or the other matcher matches the name.
+     *
+     * @param other the other matcher.
+     * @return the combined matcher.
+     */
+    @NonNull
+    WildcardMatcher union(@NonNull WildcardMatcher other) {
+        Set<String> literals = new HashSet<>(this.literals);
+        literals.addAll(other.literals);
+        String[][] globs = Arrays.copyOf(this.globs, this.globs.length + other.globs.length);
+        System.arraycopy(other.globs, 0, globs, this.globs.length, other.globs.length);
+        return new WildcardMatcher(rules + " " + other.rules, literals, globs,
+                "(?:" + regex + ")|(?:" + other.regex + ")");
+    }
+
+    /**
+     * Tests if the supplied name matches any of the rules.
+     *
+     * @param name the name.
+     * @return {@code true} if and only if the name matches at least one rule.
+     */
+    boolean matches(@NonNull String name) {
+        if (literals.contains(name)) {
+            return true;
+        }
+        if (globs.length == 0) {
+            return false;
+        }
+        if (hasLineTerminator(name)) {
+            return getPattern().matcher(name).matches();
+        }
+        for (String[] segments : globs) {
+            if (matches(segments, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the original rules, for a {@link #union(WildcardMatcher)} this is the space separated rules of both
+     * matchers.
+     *
+     * @return the original rules.
+     */
+    @NonNull
+    String getRules() {
+        return rules;
+    }
+
+    /**
+     * Tests if the name matches the literal segments of a rule with each segment separated by a wildcard.
+     *
+     * @param segments the literal segments.
+     * @param name     the name.
+     * @return {@code true} if and only if the name matches.
+     */
+    private static boolean matches(@NonNull String[] segments, @NonNull String name) {
+        String prefix = segments[0];
+        String suffix = segments[segments.length - 1];
+        int end = name.length() - suffix.length();
+        if (end < prefix.length() || !name.startsWith(prefix) || !name.endsWith(suffix)) {
+            return false;
+        }
+        int start = prefix.length();
+        for (int i = 1; i < segments.length - 1; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                continue;
+            }
+            // leftmost placement of each segment leaves the most room for those that follow
+            int index = name.indexOf(segment, start);
+            if (index == -1 || index + segment.length() > end) {
+                return false;
+            }
+            start = index + segment.length();
+        }
+        return true;
+    }
+
+    /**
+     * Tests if the name contains a character that {@code .} does not match.
+     *
+     * @param name the name.
+     * @return {@code true} if the name contains a line terminator.
+     */
+    private static boolean hasLineTerminator(@NonNull String name) {
+        for (int i = 0; i < name.length(); i++) {
+            switch (name.charAt(i)) {
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    return true;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the equivalent compiled {@link Pattern}.
+     *
+     * @return the equivalent compiled {@link Pattern}.
+     */
+    @NonNull
+    private Pattern getPattern() {
+        if (pattern == null) {
+            // idempotent
+            pattern = Pattern.compile(regex);
+        }
+        return pattern;
+    }
+
+    /**
+     * Gets the equivalent {@link CompiledRegex}.
+     *
+     * @return the equivalent {@link CompiledRegex}.
+     */
+    @NonNull
+    CompiledRegex getCompiledRegex() {
+        if (compiled == null) {
+            // idempotent
+            compiled = CompiledRegex.compile(regex);
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns the regular expression corresponding to the supplied wildcard rules.
+     *
+     * @param rules the rules.
+     * @return the regular expression.
+     */
+    @NonNull
+    static String toRegex(@NonNull String rules) {
+        StringBuilder quotedRules = new StringBuilder();
+        for (String wildcard : rules.split(" ")) {
+            StringBuilder quotedRule = new StringBuilder();
+            for (String part : wildcard.split("(?=[*])|(?<=[*])")) {
+                if (part.equals("*")) {
+                    quotedRule.append(".*");
+                } else if (!part.isEmpty()) {
+                    quotedRule.append(Pattern.quote(part));
+                }
+            }
+            if (quotedRules.length() > 0) {
+                quotedRules.append("|");
+            }
+            quotedRules.append(quotedRule);
+        }
+        return quotedRules.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "WildcardMatcher{" + rules + '}';
+    }
+}
@@ -27,9 +27,10 @@ package jenkins.scm.impl.trait;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
-import java.util.regex.Pattern;
+import java.util.List;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMSource;
+import jenkins.scm.api.trait.SCMHeadNamePrefilter;
 import jenkins.scm.api.trait.SCMHeadPrefilter;
 import jenkins.scm.api.trait.SCMSourceContext;
 import jenkins.scm.api.trait.SCMSourceTrait;
@@ -58,6 +59,18 @@ public class WildcardSCMHeadFilterTrait extends SCMSourceTrait {
     @NonNull
     private final String excludes;
 
+    /**
+     * The compiled include rules.
+     */
+    @CheckForNull
+    private transient WildcardMatcher includesMatcher;
+
+    /**
+     * The compiled exclude rules.
+     */
+    @CheckForNull
+    private transient WildcardMatcher excludesMatcher;
+
     /**
      * Stapler constructor.
      *
@@ -93,38 +106,113 @@ public class WildcardSCMHeadFilterTrait extends SCMSourceTrait {
      */
     @Override
     protected void decorateContext(SCMSourceContext<?, ?> context) {
-        context.withPrefilter(new SCMHeadPrefilter() {
-            @Override
-            public boolean isExcluded(@NonNull SCMSource request, @NonNull SCMHead head) {
-                return !Pattern.matches(getPattern(getIncludes()), head.getName())
-                        || (Pattern.matches(getPattern(getExcludes()), head.getName()));
-            }
-        });
+        context.withPrefilter(new WildcardPrefilter(getIncludesMatcher(), getExcludesMatcher()));
+    }
+
+    /**
+     * Gets the compiled include rules.
+     *
+     * @return the compiled include rules.
+     */
+    @NonNull
+    private WildcardMatcher getIncludesMatcher() {
+        if (includesMatcher == null) {
+            // idempotent
+            includesMatcher = WildcardMatcher.compile(includes);
+        }
+        return includesMatcher;
     }
 
     /**
-     * Returns the pattern corresponding to the branches containing wildcards.
+     * Gets the compiled exclude rules.
      *
-     * @param branches the names of branches to create a pattern for
-     * @return pattern corresponding to the branches containing wildcards
+     * @return the compiled exclude rules.
      */
-    private String getPattern(String branches) {
-        StringBuilder quotedBranches = new StringBuilder();
-        for (String wildcard : branches.split(" ")) {
-            StringBuilder quotedBranch = new StringBuilder();
-            for (String branch : wildcard.split("(?=[*])|(?<=[*])")) {
-                if (branch.equals("*")) {
-                    quotedBranch.append(".*");
-                } else if (!branch.isEmpty()) {
-                    quotedBranch.append(Pattern.quote(branch));
+    @NonNull
+    private WildcardMatcher getExcludesMatcher() {
+        if (excludesMatcher == null) {
+            // idempotent
+            excludesMatcher = WildcardMatcher.compile(excludes);
+        }
+        return excludesMatcher;
+    }
+
+    /**
+     * The {@link SCMHeadPrefilter} that applies the rules.
+     */
+    private static final class WildcardPrefilter extends AutomatonNamePrefilter {
+
+        /**
+         * The compiled include rules.
+         */
+        @NonNull
+        private final WildcardMatcher includes;
+
+        /**
+         * The compiled exclude rules.
+         */
+        @NonNull
+        private final WildcardMatcher excludes;
+
+        /**
+         * Constructor.
+         *
+         * @param includes the compiled include rules.
+         * @param excludes the compiled exclude rules.
+         */
+        private WildcardPrefilter(@NonNull WildcardMatcher includes, @NonNull WildcardMatcher excludes) {
+            this.includes = includes;
+            this.excludes = excludes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isExcluded(@NonNull String name) {
+            return !includes.matches(name) || excludes.matches(name);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @CheckForNull
+        @Override
+        List<Term> terms() {
+            CompiledRegex include = includes.getCompiledRegex();
+            CompiledRegex exclude = excludes.getCompiledRegex();
+            return include.isLinear() && exclude.isLinear()
+                    ? List.of(new Term(include, true), new Term(exclude, false))
+                    : null;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Filters with the same include rules are merged by combining their exclude rules, which keeps the literal
+         * rule lookup of {@link WildcardMatcher}.
+         */
+        @CheckForNull
+        @Override
+        public SCMHeadNamePrefilter merge(@NonNull SCMHeadNamePrefilter other) {
+            if (other instanceof WildcardPrefilter) {
+                WildcardPrefilter that = (WildcardPrefilter) other;
+                if (includes.getRules().equals(that.includes.getRules())) {
+                    return excludes.getRules().equals(that.excludes.getRules())
+                            ? this
+                            : new WildcardPrefilter(includes, excludes.union(that.excludes));
                 }
             }
-            if (quotedBranches.length() > 0) {
-                quotedBranches.append("|");
-            }
-            quotedBranches.append(quotedBranch);
+            return super.merge(other);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "WildcardPrefilter{includes=" + includes.getRules() + ", excludes=" + excludes.getRules() + '}';
         }
-        return quotedBranches.toString();
     }
 
     /**
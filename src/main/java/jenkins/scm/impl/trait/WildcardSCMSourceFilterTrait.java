@@ -24,9 +24,9 @@
 
 package jenkins.scm.impl.trait;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
-import java.util.regex.Pattern;
 import jenkins.scm.api.SCMNavigator;
 import jenkins.scm.api.trait.SCMNavigatorContext;
 import jenkins.scm.api.trait.SCMNavigatorTrait;
@@ -56,6 +56,18 @@ public class WildcardSCMSourceFilterTrait extends SCMNavigatorTrait {
     @NonNull
     private final String excludes;
 
+    /**
+     * The compiled include rules.
+     */
+    @CheckForNull
+    private transient WildcardMatcher includesMatcher;
+
+    /**
+     * The compiled exclude rules.
+     */
+    @CheckForNull
+    private transient WildcardMatcher excludesMatcher;
+
     /**
      * Stapler constructor.
      *
@@ -94,35 +106,38 @@ public class WildcardSCMSourceFilterTrait extends SCMNavigatorTrait {
         context.withPrefilter(new SCMSourcePrefilter() {
             @Override
             public boolean isExcluded(@NonNull SCMNavigator source, @NonNull String projectName) {
-                return !Pattern.matches(getPattern(getIncludes()), projectName)
-                        || (Pattern.matches(getPattern(getExcludes()), projectName));
+                return !getIncludesMatcher().matches(projectName)
+                        || getExcludesMatcher().matches(projectName);
             }
         });
     }
 
     /**
-     * Returns the pattern corresponding to the project name containing wildcards.
+     * Gets the compiled include rules.
      *
-     * @param branches the names of projects to create a pattern for
-     * @return pattern corresponding to the projects containing wildcards
+     * @return the compiled include rules.
      */
-    private String getPattern(String branches) {
-        StringBuilder quotedBranches = new StringBuilder();
-        for (String wildcard : branches.split(" ")) {
-            StringBuilder quotedBranch = new StringBuilder();
-            for (String branch : wildcard.split("(?=[*])|(?<=[*])")) {
-                if (branch.equals("*")) {
-                    quotedBranch.append(".*");
-                } else if (!branch.isEmpty()) {
-                    quotedBranch.append(Pattern.quote(branch));
-                }
-            }
-            if (quotedBranches.length() > 0) {
-                quotedBranches.append("|");
-            }
-            quotedBranches.append(quotedBranch);
+    @NonNull
+    private WildcardMatcher getIncludesMatcher() {
+        if (includesMatcher == null) {
+            // idempotent
+            includesMatcher = WildcardMatcher.compile(includes);
+        }
+        return includesMatcher;
+    }
+
+    /**
+     * Gets the compiled exclude rules.
+     *
+     * @return the compiled exclude rules.
+     */
+    @NonNull
+    private WildcardMatcher getExcludesMatcher() {
+        if (excludesMatcher == null) {
+            // idempotent
+            excludesMatcher = WildcardMatcher.compile(excludes);
         }
-        return quotedBranches.toString();
+        return excludesMatcher;
     }
 
     /**
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link SCMHeadObserver.Collector}, which sorts once in {@link SCMHeadObserver.Collector#result()}, with
+ * the {@link TreeMap} insertion it used to perform for every observation.
+ */
+@JmhBenchmark
+public class CollectorBenchmark {
+
+    @State(Scope.Thread)
+    public static class Observations {
+
+        @Param({"1000", "10000", "100000"})
+        public int heads;
+
+        SCMHead[] observedHeads;
+
+        SCMRevision[] observedRevisions;
+
+        @Setup
+        public void setup() {
+            List<SCMHead> list = new ArrayList<>(heads);
+            for (int i = 0; i < heads; i++) {
+                list.add(new SCMHead(i % 3 == 0 ? "feature/JENKINS-" + i : i % 3 == 1 ? "PR-" + i : "v1." + i));
+            }
+            // remote listings are rarely in our sort order
+            Collections.shuffle(list, new Random(42L));
+            observedHeads = list.toArray(new SCMHead[0]);
+            observedRevisions = new SCMRevision[heads];
+            for (int i = 0; i < heads; i++) {
+                observedRevisions[i] = new MockSCMRevision(observedHeads[i], Integer.toHexString(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<SCMHead, SCMRevision> collector(Observations state) {
+        SCMHeadObserver.Collector collector = new SCMHeadObserver.Collector();
+        for (int i = 0; i < state.heads; i++) {
+            collector.observe(state.observedHeads[i], state.observedRevisions[i]);
+        }
+        return collector.result();
+    }
+
+    @Benchmark
+    public Map<SCMHead, SCMRevision> treeMap(Observations state) {
+        Map<SCMHead, SCMRevision> result = new TreeMap<>();
+        for (int i = 0; i < state.heads; i++) {
+            result.put(state.observedHeads[i], state.observedRevisions[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.api.mixin.ChangeRequestSCMHead2;
+import jenkins.scm.api.mixin.SCMHeadMixin;
+import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the generated mixin equality, which is defined as a hidden class next to the head type, against the
+ * equivalent hand-written comparison. {@link MixinEqualityReflectiveBenchmark} runs the same benchmarks with the
+ * reflective equality.
+ */
+@JmhBenchmark
+public class MixinEqualityBenchmark {
+
+    @State(Scope.Thread)
+    public static class Heads {
+
+        SCMHeadMixin.Equality equality;
+
+        ChangeRequestSCMHead2 head;
+
+        ChangeRequestSCMHead2 same;
+
+        ChangeRequestSCMHead2 otherFork;
+
+        @Setup
+        public void setup() {
+            head = head("alice");
+            same = head("alice");
+            otherFork = head("bob");
+            equality = SCMHeadMixinEqualityGenerator.getOrCreate(MockChangeRequestSCMHead.class);
+        }
+
+        private static ChangeRequestSCMHead2 head(String fork) {
+            return new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork(fork), 42, "master",
+                    ChangeRequestCheckoutStrategy.MERGE, true);
+        }
+    }
+
+    @Benchmark
+    public boolean equalsSame(Heads state) {
+        return state.equality.equals(state.head, state.same);
+    }
+
+    @Benchmark
+    public boolean equalsOtherFork(Heads state) {
+        return state.equality.equals(state.head, state.otherFork);
+    }
+
+    @Benchmark
+    public int hashCode(Heads state) {
+        return state.equality.hashCode(state.head);
+    }
+
+    @Benchmark
+    public boolean handWrittenEqualsSame(Heads state) {
+        return handWrittenEquals(state.head, state.same);
+    }
+
+    private static boolean handWrittenEquals(ChangeRequestSCMHead2 h1, ChangeRequestSCMHead2 h2) {
+        return h1.getCheckoutStrategy() == h2.getCheckoutStrategy()
+                && h1.getId().equals(h2.getId())
+                && h1.getOrigin().equals(h2.getOrigin())
+                && h1.getOriginName().equals(h2.getOriginName())
+                && h1.getTarget().equals(h2.getTarget());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.scm.SCM;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import jenkins.scm.impl.mock.MockSCMSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Matches and filters a single head event against a source, as {@link SCMSource#fetch} does for every matched source,
+ * and compares it with the three maps the former {@code Validated} built for every call. Run with the GC profiler of
+ * {@code BenchmarkRunner} and compare {@code gc.alloc.rate.norm}.
+ */
+@JmhBenchmark
+public class SCMHeadEventFilterBenchmark {
+
+    @State(Scope.Thread)
+    public static class Source {
+
+        final MockSCMSource source = new MockSCMSource("benchmark", "repository");
+
+        final SCMHead head = new SCMHead("master");
+
+        final SCMRevision revision = new MockSCMRevision(head, "abc");
+    }
+
+    @Benchmark
+    public SCMHeadObserver.Any validated(Source state) throws Exception {
+        SingleHeadEvent event = new SingleHeadEvent(state.head, state.revision);
+        SCMHeadObserver.Any any = SCMHeadObserver.any();
+        if (event.isMatch(state.source)) {
+            SCMHeadObserver filtered = event.filter(state.source, any);
+            if (filtered.isObserving()) {
+                filtered.observe(state.head, state.revision);
+            }
+        }
+        return any;
+    }
+
+    @Benchmark
+    public SCMHeadObserver.Any formerValidated(Source state) throws Exception {
+        SingleHeadEvent event = new SingleHeadEvent(state.head, state.revision);
+        SCMHeadObserver.Any any = SCMHeadObserver.any();
+        if (!event.heads(state.source).isEmpty()) {
+            SCMHeadObserver filtered = new FormerValidated<>(any, event.heads(state.source));
+            if (filtered.isObserving()) {
+                filtered.observe(state.head, state.revision);
+            }
+        }
+        return any;
+    }
+
+    /**
+     * An event for a single head, as most webhook events are.
+     */
+    static class SingleHeadEvent extends SCMHeadEvent<String> {
+
+        private final SCMHead head;
+
+        private final SCMRevision revision;
+
+        SingleHeadEvent(SCMHead head, SCMRevision revision) {
+            super(Type.UPDATED, head.getName(), "benchmark");
+            this.head = head;
+            this.revision = revision;
+        }
+
+        @Override
+        public boolean isMatch(@NonNull SCMNavigator navigator) {
+            return false;
+        }
+
+        @NonNull
+        @Override
+        public String getSourceName() {
+            return "repository";
+        }
+
+        @NonNull
+        @Override
+        public Map<SCMHead, SCMRevision> heads(@NonNull SCMSource source) {
+            return Collections.singletonMap(head, revision);
+        }
+
+        @Override
+        public boolean isMatch(@NonNull SCM scm) {
+            return false;
+        }
+    }
+
+    /**
+     * The filtering {@code Validated} performed before it stopped copying the event heads.
+     */
+    static class FormerValidated<O extends SCMHeadObserver> extends SCMHeadObserver.Wrapped<O> {
+
+        private final Set<SCMHead> includes;
+
+        private final Map<SCMHead, SCMRevision> untrusted;
+
+        private final Map<SCMHead, SCMRevision> trusted;
+
+        FormerValidated(O delegate, Map<SCMHead, SCMRevision> heads) {
+            super(delegate);
+            untrusted = new HashMap<>(heads);
+            Set<SCMHead> i = super.getIncludes();
+            if (i != null) {
+                untrusted.keySet().retainAll(i);
+            }
+            includes = new HashSet<>(untrusted.keySet());
+            trusted = new HashMap<>(untrusted.size());
+        }
+
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision)
+                throws IOException, InterruptedException {
+            if (untrusted.containsKey(head)) {
+                trusted.put(head, revision);
+                untrusted.remove(head);
+                super.observe(head, revision);
+            }
+        }
+
+        @Override
+        public boolean isObserving() {
+            return !untrusted.isEmpty() && super.isObserving();
+        }
+
+        @Override
+        public Set<SCMHead> getIncludes() {
+            return includes;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looks up change requests that share a name across many forks, hashed by {@link SCMHead#hashCode()} and by the name
+ * alone as {@link SCMHead#hashCode()} used to, where every head of a name lands in the same bucket.
+ */
+@JmhBenchmark
+public class SCMHeadHashBenchmark {
+
+    @State(Scope.Thread)
+    public static class Forks {
+
+        @Param({"100", "1000"})
+        public int forks;
+
+        final Map<SCMHead, Boolean> mixinHashed = new HashMap<>();
+
+        final Map<NameHashed, Boolean> nameHashed = new HashMap<>();
+
+        SCMHead[] probes;
+
+        @Setup
+        public void setup() {
+            probes = new SCMHead[forks * 2];
+            int index = 0;
+            for (int fork = 0; fork < forks; fork++) {
+                for (int number = 1; number <= 2; number++) {
+                    SCMHead head = head(fork, number);
+                    mixinHashed.put(head, Boolean.TRUE);
+                    nameHashed.put(new NameHashed(head), Boolean.TRUE);
+                    probes[index++] = head(fork, number);
+                }
+            }
+        }
+
+        private static SCMHead head(int fork, int number) {
+            return new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork("fork-" + fork), number, "master",
+                    ChangeRequestCheckoutStrategy.MERGE, true);
+        }
+    }
+
+    @Benchmark
+    public void mixinHash(Forks state, Blackhole blackhole) {
+        for (SCMHead probe : state.probes) {
+            blackhole.consume(state.mixinHashed.get(probe));
+        }
+    }
+
+    @Benchmark
+    public void nameHash(Forks state, Blackhole blackhole) {
+        for (SCMHead probe : state.probes) {
+            blackhole.consume(state.nameHashed.get(new NameHashed(probe)));
+        }
+    }
+
+    /**
+     * A key with the former name-only hash of {@link SCMHead}.
+     */
+    static final class NameHashed {
+
+        private final SCMHead head;
+
+        NameHashed(SCMHead head) {
+            this.head = head;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NameHashed && head.equals(((NameHashed) o).head);
+        }
+
+        @Override
+        public int hashCode() {
+            return head.getName().hashCode();
+        }
+    }
+}
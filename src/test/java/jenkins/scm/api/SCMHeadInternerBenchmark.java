@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the heap retained by the heads of repeated indexing runs collected through
+ * {@link SCMHeadObserver.Collector}, with interning disabled. {@link SCMHeadInternerEnabledBenchmark} runs the same
+ * benchmark with interning enabled. The retained heap is reported as the {@code retainedKilobytes} secondary result.
+ */
+@JmhBenchmark
+public class SCMHeadInternerBenchmark {
+
+    private static final int RUNS = 10;
+
+    private static final int HEADS = 10000;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+
+        public long retainedKilobytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedKilobytes = 0;
+        }
+    }
+
+    @Benchmark
+    public List<List<SCMHead>> indexingRuns(Heap heap) throws Exception {
+        long before = usedAfterGc();
+        List<List<SCMHead>> runs = new ArrayList<>(RUNS);
+        for (int run = 0; run < RUNS; run++) {
+            SCMHeadObserver.Collector collector = new SCMHeadObserver.Collector();
+            for (int i = 0; i < HEADS; i++) {
+                // fresh instances and strings each run, as after a fetch or a deserialization
+                SCMHead head = new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork("fork-" + (i % 100)), i,
+                        "master", ChangeRequestCheckoutStrategy.MERGE, true);
+                collector.observe(head, new MockSCMRevision(head, "abc"));
+            }
+            runs.add(new ArrayList<>(collector.result().keySet()));
+        }
+        heap.retainedKilobytes = (usedAfterGc() - before) / 1024;
+        return runs;
+    }
+
+    private static long usedAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
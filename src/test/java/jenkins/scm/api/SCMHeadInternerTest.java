@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SCMHeadInternerTest {
+
+    @Test
+    public void equalHeadsShareInstance() {
+        SCMHead h1 = SCMHeadInterner.canonical(new SCMHead("interned"));
+        assertThat(SCMHeadInterner.canonical(new SCMHead("interned")), sameInstance(h1));
+        assertThat(SCMHeadInterner.canonical(new SCMHead("other")), not(sameInstance(h1)));
+    }
+
+    @Test
+    public void mixinPropertiesDistinguishHeads() {
+        SCMHead c1 = SCMHeadInterner.canonical(new MockChangeRequestSCMHead(1, "master"));
+        assertThat(SCMHeadInterner.canonical(new MockChangeRequestSCMHead(1, "master")), sameInstance(c1));
+        assertThat(SCMHeadInterner.canonical(new MockChangeRequestSCMHead(1, "develop")), not(sameInstance(c1)));
+    }
+
+    @Test
+    public void equalForksShareInstance() {
+        SCMHeadOrigin.Fork f1 = SCMHeadInterner.canonical(new SCMHeadOrigin.Fork("bob"));
+        assertThat(SCMHeadInterner.canonical(new SCMHeadOrigin.Fork("bob")), sameInstance(f1));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@code HashMap<SCMHead, SCMRevision>} operations with 10k change request heads from several threads, each
+ * lookup compares heads through the generated mixin equality.
+ */
+@JmhBenchmark
+@Threads(8)
+public class SCMHeadMapBenchmark {
+
+    private static final int HEADS = 10000;
+
+    @State(Scope.Benchmark)
+    public static class Heads {
+
+        final Map<SCMHead, SCMRevision> map = new HashMap<>();
+
+        SCMHead[] keys;
+
+        SCMHead[] probes;
+
+        @Setup
+        public void setup() {
+            keys = new SCMHead[HEADS];
+            probes = new SCMHead[HEADS];
+            for (int i = 0; i < HEADS; i++) {
+                keys[i] = head(i);
+                // equal but distinct instances so that every hit runs equals
+                probes[i] = head(i);
+                map.put(keys[i], new MockSCMRevision(keys[i], Integer.toHexString(i)));
+            }
+        }
+
+        private static SCMHead head(int i) {
+            return new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork("fork-" + (i % 50)), i, "master",
+                    ChangeRequestCheckoutStrategy.MERGE, true);
+        }
+    }
+
+    @Benchmark
+    public void get(Heads state, Blackhole blackhole) {
+        for (SCMHead probe : state.probes) {
+            blackhole.consume(state.map.get(probe));
+        }
+    }
+
+    @Benchmark
+    public Map<SCMHead, SCMRevision> put(Heads state) {
+        Map<SCMHead, SCMRevision> map = new HashMap<>();
+        for (int i = 0; i < HEADS; i++) {
+            map.put(state.keys[i], null);
+            map.put(state.probes[i], null);
+        }
+        return map;
+    }
+}
@@ -25,6 +25,17 @@
 
 package jenkins.scm.api;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jenkins.scm.impl.mock.MockSCMRevision;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
@@ -36,6 +47,8 @@ import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -67,6 +80,25 @@ public class SCMHeadObserverTest {
         assertThat("Stops when one of the observers has stopped", instance.isObserving(), is(false));
     }
 
+    @Test
+    public void compositesNoticeObserversFinishedElsewhere() throws Exception {
+        SCMHead head1 = new SCMHead("bar");
+        SCMHead head2 = new SCMHead("foo");
+        SCMRevision revision = mock(SCMRevision.class);
+        SCMHeadObserver.Selector selector1 = SCMHeadObserver.select(head1);
+        SCMHeadObserver.Selector selector2 = SCMHeadObserver.select(head2);
+        SCMHeadObserver.AllFinished all = SCMHeadObserver.allOf(selector1, selector2);
+        SCMHeadObserver.OneFinished one = SCMHeadObserver.first(selector1, selector2);
+        assertThat(all.isObserving(), is(true));
+        assertThat(one.isObserving(), is(true));
+        // observed directly rather than through the composites
+        selector1.observe(head1, revision);
+        assertThat("Still observing while one observer is", all.isObserving(), is(true));
+        assertThat("Stops when one of the observers has stopped", one.isObserving(), is(false));
+        selector2.observe(head2, revision);
+        assertThat("Stops when all of the observers have stopped", all.isObserving(), is(false));
+    }
+
     @Test
     public void collect() throws Exception {
         SCMHead head1 = new SCMHead("bar");
@@ -84,6 +116,59 @@ public class SCMHeadObserverTest {
 
     }
 
+    @Test
+    public void collectSortsAndCollapses() throws Exception {
+        SCMHead head1 = new SCMHead("foo");
+        SCMHead head2 = new SCMHead("bar");
+        SCMHead head3 = new SCMHead("foo");
+        SCMHead head4 = new SCMHead("baz");
+        SCMRevision revision1 = mock(SCMRevision.class);
+        SCMRevision revision2 = mock(SCMRevision.class);
+        SCMRevision revision3 = mock(SCMRevision.class);
+        SCMRevision revision4 = mock(SCMRevision.class);
+        SCMHeadObserver.Collector instance = SCMHeadObserver.collect();
+        instance.observe(head1, revision1);
+        instance.observe(head2, revision2);
+        instance.observe(head3, revision3);
+        assertThat(instance.result().keySet(), contains(head2, head1));
+        assertThat(instance.result(), Matchers.allOf(hasEntry(head1, revision3), hasEntry(head2, revision2)));
+        instance.observe(head4, revision4);
+        assertThat(instance.result().keySet(), contains(head2, head4, head1));
+    }
+
+    @Test
+    public void collectResultIsSortedView() throws Exception {
+        SCMHeadObserver.Collector instance = SCMHeadObserver.collect();
+        for (String name : new String[]{"foo", "qux", "bar", "baz"}) {
+            SCMHead head = new SCMHead(name);
+            instance.observe(head, new MockSCMRevision(head, name));
+        }
+        SortedMap<SCMHead, SCMRevision> result = (SortedMap<SCMHead, SCMRevision>) instance.result();
+        assertThat(result.firstKey(), is(new SCMHead("bar")));
+        assertThat(result.lastKey(), is(new SCMHead("qux")));
+        SortedMap<SCMHead, SCMRevision> middle = result.subMap(new SCMHead("baz"), new SCMHead("qux"));
+        assertThat(middle.keySet(), contains(new SCMHead("baz"), new SCMHead("foo")));
+        assertThat(result.headMap(new SCMHead("c")).keySet(), contains(new SCMHead("bar"), new SCMHead("baz")));
+        assertThat(result.tailMap(new SCMHead("c")).keySet(), contains(new SCMHead("foo"), new SCMHead("qux")));
+        assertThat(middle.get(new SCMHead("qux")), nullValue());
+        // later observations and removals are seen by existing views
+        SCMHead corge = new SCMHead("corge");
+        instance.observe(corge, new MockSCMRevision(corge, "corge"));
+        assertThat(middle.keySet(), contains(new SCMHead("baz"), corge, new SCMHead("foo")));
+        result.remove(new SCMHead("baz"));
+        assertThat(middle.firstKey(), is(corge));
+        middle.keySet().removeIf(head -> head.getName().startsWith("f"));
+        assertThat(result.keySet(), contains(new SCMHead("bar"), corge, new SCMHead("qux")));
+        try {
+            middle.put(new SCMHead("zzz"), mock(SCMRevision.class));
+            fail("out of range");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        middle.clear();
+        assertThat(result.keySet(), contains(new SCMHead("bar"), new SCMHead("qux")));
+    }
+
     @Test
     public void select() throws Exception {
         SCMHead head1 = new SCMHead("bar");
@@ -124,6 +209,7 @@ public class SCMHeadObserverTest {
         SCMHeadObserver.Named instance = SCMHeadObserver.named("foo");
         assertThat("Observing from the start", instance.isObserving(), is(true));
         assertThat("Wants everything", instance.getIncludes(), nullValue());
+        assertThat("Wants only the name", instance.getIncludedNames(), contains("foo"));
         SCMHead head1 = mock(SCMHead.class);
         SCMRevision revision1 = mock(SCMRevision.class);
         SCMHead head2 = mock(SCMHead.class);
@@ -137,6 +223,94 @@ public class SCMHeadObserverTest {
         assertThat(instance.result(), is(revision2));
     }
 
+    @Test
+    public void top() throws Exception {
+        SCMHeadObserver.Top instance = SCMHeadObserver.top(2,
+                Comparator.comparing(revision -> ((MockSCMRevision) revision).getHash()));
+        for (String hash : new String[]{"3", "1", "4", "5", "2"}) {
+            SCMHead head = new SCMHead("head-" + hash);
+            instance.observe(head, new MockSCMRevision(head, hash));
+        }
+        assertThat(instance.isObserving(), is(true));
+        assertThat(instance.result().keySet(), contains(new SCMHead("head-5"), new SCMHead("head-4")));
+    }
+
+    @Test
+    public void topRetainsEachHeadOnce() throws Exception {
+        SCMHeadObserver.Top instance = SCMHeadObserver.top(2,
+                Comparator.comparing(revision -> ((MockSCMRevision) revision).getHash()));
+        SCMHead retried = new SCMHead("retried");
+        instance.observe(retried, new MockSCMRevision(retried, "8"));
+        instance.observe(retried, new MockSCMRevision(retried, "9"));
+        SCMHead other = new SCMHead("other");
+        instance.observe(other, new MockSCMRevision(other, "5"));
+        SCMHead worst = new SCMHead("worst");
+        instance.observe(worst, new MockSCMRevision(worst, "1"));
+        assertThat(instance.result().keySet(), contains(retried, other));
+        assertThat(((MockSCMRevision) instance.result().get(retried)).getHash(), is("9"));
+        // the latest observation of a retained head replaces its revision
+        instance.observe(retried, new MockSCMRevision(retried, "7"));
+        assertThat(instance.result().keySet(), contains(retried, other));
+        assertThat(((MockSCMRevision) instance.result().get(retried)).getHash(), is("7"));
+    }
+
+    @Test
+    public void topByRankTakenAtObservation() throws Exception {
+        Map<String, Long> lastModified = new HashMap<>();
+        SCMHeadObserver.Top instance = SCMHeadObserver.topBy(2,
+                (head, revision) -> lastModified.getOrDefault(head.getName(), 0L));
+        for (String name : new String[]{"old", "newest", "unknown", "newer"}) {
+            lastModified.put(name, "old".equals(name) ? 10L : "newest".equals(name) ? 30L : 20L);
+            if ("unknown".equals(name)) {
+                lastModified.remove(name);
+            }
+            SCMHead head = new SCMHead(name);
+            instance.observe(head, new MockSCMRevision(head, "abc"));
+        }
+        assertThat(instance.result().keySet(), contains(new SCMHead("newest"), new SCMHead("newer")));
+        // the rank was taken when the head was observed
+        lastModified.put("newer", 40L);
+        assertThat(instance.result().keySet(), contains(new SCMHead("newest"), new SCMHead("newer")));
+        SCMHead old = new SCMHead("old");
+        lastModified.put("old", 50L);
+        instance.observe(old, new MockSCMRevision(old, "def"));
+        assertThat(instance.result().keySet(), contains(old, new SCMHead("newest")));
+    }
+
+    @Test
+    public void matching() throws Exception {
+        SCMHeadObserver.Matching instance = SCMHeadObserver.matching(head -> head.getName().startsWith("PR-"), 2);
+        SCMRevision revision = mock(SCMRevision.class);
+        instance.observe(new SCMHead("master"), revision);
+        instance.observe(new SCMHead("PR-2"), revision);
+        assertThat(instance.isObserving(), is(true));
+        instance.observe(new SCMHead("PR-1"), revision);
+        assertThat(instance.isObserving(), is(false));
+        assertThat(instance.result().keySet(), contains(new SCMHead("PR-1"), new SCMHead("PR-2")));
+    }
+
+    @Test
+    public void includedNames() throws Exception {
+        assertThat(SCMHeadObserver.collect().getIncludedNames(), nullValue());
+        assertThat(SCMHeadObserver.select(new SCMHead("foo")).getIncludedNames(), contains("foo"));
+        assertThat(SCMHeadObserver.filter(SCMHeadObserver.collect(), new SCMHead("bar")).getIncludedNames(),
+                contains("bar"));
+        assertThat(SCMHeadObserver.allOf(SCMHeadObserver.named("foo"), SCMHeadObserver.named("bar"))
+                .getIncludedNames(), containsInAnyOrder("foo", "bar"));
+        assertThat(SCMHeadObserver.allOf(SCMHeadObserver.named("foo"), SCMHeadObserver.collect())
+                .getIncludedNames(), nullValue());
+    }
+
+    @Test
+    public void includedNamesComputedOnce() throws Exception {
+        SCMHeadObserver filter = SCMHeadObserver.filter(SCMHeadObserver.collect(), new SCMHead("bar"));
+        assertThat(filter.getIncludedNames(), sameInstance(filter.getIncludedNames()));
+        SCMHeadObserver all = SCMHeadObserver.allOf(SCMHeadObserver.named("foo"), SCMHeadObserver.named("bar"));
+        assertThat(all.getIncludedNames(), sameInstance(all.getIncludedNames()));
+        SCMHeadObserver one = SCMHeadObserver.first(SCMHeadObserver.named("foo"), filter);
+        assertThat(one.getIncludedNames(), sameInstance(one.getIncludedNames()));
+    }
+
     @Test
     public void any() throws Exception {
         SCMHeadObserver.Any instance = SCMHeadObserver.any();
@@ -149,4 +323,46 @@ public class SCMHeadObserverTest {
         assertThat(instance.result(), is(revision));
     }
 
+    @Test
+    public void concurrentObservers() throws Exception {
+        final int threads = 8;
+        final int heads = 2000;
+        final SCMHeadObserver.ConcurrentCollector collector = SCMHeadObserver.collectConcurrently();
+        final SCMHeadObserver.ConcurrentCollector filtered = SCMHeadObserver.collectConcurrently();
+        final SCMHeadObserver.ConcurrentFilter<SCMHeadObserver.ConcurrentCollector> filter =
+                SCMHeadObserver.filterConcurrently(filtered, new SCMHead("head-7"), new SCMHead("head-42"));
+        final SCMHeadObserver.ConcurrentNamed named = SCMHeadObserver.namedConcurrently("head-99");
+        final SCMHeadObserver.ConcurrentAny any = SCMHeadObserver.anyConcurrently();
+        final SCMRevision revision = mock(SCMRevision.class);
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // every thread observes every head so that the filter sees each head concurrently
+                    for (int i = 0; i < heads; i++) {
+                        SCMHead head = new SCMHead("head-" + i);
+                        collector.observe(head, revision);
+                        filter.observe(head, revision);
+                        named.observe(head, revision);
+                        any.observe(head, revision);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(collector.result().size(), is(heads));
+        assertThat(filtered.result().keySet(), containsInAnyOrder(new SCMHead("head-7"), new SCMHead("head-42")));
+        assertThat(filter.isObserving(), is(false));
+        assertThat(named.result(), is(revision));
+        assertThat(any.result(), is(revision));
+    }
 }
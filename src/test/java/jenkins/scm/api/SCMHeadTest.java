@@ -26,12 +26,14 @@
 package jenkins.scm.api;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
 import jenkins.scm.api.mixin.SCMHeadMixin;
 import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
 import org.junit.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 
 public class SCMHeadTest {
@@ -62,6 +64,66 @@ public class SCMHeadTest {
         assertThat(h1, not(equalTo(z)));
     }
 
+    @Test
+    public void mixinEqualityGenerated() {
+        assertThat(SCMHeadMixinEqualityGenerator.getOrCreate(MockChangeRequestSCMHead.class).getClass().isHidden(),
+                is(true));
+        assertThat(SCMHeadMixinEqualityGenerator.getOrCreate(CrazyHead.class).getClass().isHidden(), is(true));
+    }
+
+    @Test
+    public void mixinHashCode() {
+        SCMHead h1 = new MockChangeRequestSCMHead(1, "h1");
+        SCMHead h2 = new MockChangeRequestSCMHead(1, "h1");
+        SCMHead x = new MockChangeRequestSCMHead(1, "h2");
+        SCMHead c1 = new CrazyHead("crazy", true, (byte)0, 'a', 0.1, 0.2f, 3, 4L, (short)5, "String");
+        SCMHead c2 = new CrazyHead("crazy", true, (byte) 0, 'a', 0.1, 0.2f, 3, 4L, (short) 5, "String");
+
+        assertThat(new SCMHead("h1").hashCode(), equalTo("h1".hashCode()));
+        assertThat(h1.hashCode(), equalTo(h2.hashCode()));
+        assertThat(h1.hashCode(), not(equalTo(x.hashCode())));
+        assertThat(c1.hashCode(), equalTo(c2.hashCode()));
+    }
+
+    @Test
+    public void generatedHashCodeMatchesReflection() {
+        SCMHead[] heads = {
+                new SCMHead("plain"),
+                new MockChangeRequestSCMHead(1, "h1"),
+                new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork("fork"), 2, "h1",
+                        ChangeRequestCheckoutStrategy.MERGE, false),
+                new CrazyHead("crazy", true, (byte) -7, 'a', 0.1, 0.2f, -3, 4L << 40, (short) 5, "String"),
+                new CrazyHead("crazy", false, (byte) 0, '\uffff', 0.1, 0.2f, 3, -4L, (short) -5, null)
+        };
+        for (SCMHead head : heads) {
+            SCMHeadMixin.Equality generated = SCMHeadMixinEqualityGenerator.getOrCreate(head.getClass());
+            SCMHeadMixin.Equality reflective = SCMHeadMixinEqualityGenerator.create(head.getClass(), true);
+            assertThat(head.toString(), generated.hashCode(head), equalTo(reflective.hashCode(head)));
+        }
+        assertThat(SCMHeadMixinEqualityGenerator.getOrCreate(CrazyHead.class).getClass(),
+                not(equalTo(SCMHeadMixinEqualityGenerator.create(CrazyHead.class, true).getClass())));
+    }
+
+    @Test
+    public void forkOriginHashCode() {
+        SCMHead origin = new MockChangeRequestSCMHead(1, "master");
+        SCMHead alice = new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork("alice"), 1, "master",
+                ChangeRequestCheckoutStrategy.HEAD, true);
+        SCMHead bob = new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork("bob"), 1, "master",
+                ChangeRequestCheckoutStrategy.HEAD, true);
+        SCMHead alice2 = new MockChangeRequestSCMHead(new SCMHeadOrigin.Fork("alice"), 1, "master",
+                ChangeRequestCheckoutStrategy.HEAD, true);
+
+        assertThat(alice.getName(), equalTo(bob.getName()));
+        assertThat(alice, not(equalTo(bob)));
+        assertThat(alice, not(equalTo(origin)));
+        assertThat(alice, equalTo(alice2));
+        assertThat(alice.hashCode(), equalTo(alice2.hashCode()));
+        assertThat(alice.hashCode(), not(equalTo(bob.hashCode())));
+        assertThat(alice.hashCode(), not(equalTo(origin.hashCode())));
+        assertThat(bob.hashCode(), not(equalTo(origin.hashCode())));
+    }
+
     @Test
     public void crazyMixinEquality() {
         SCMHead h1 = new CrazyHead("crazy", true, (byte)0, 'a', 0.1, 0.2f, 3, 4L, (short)5, "String");
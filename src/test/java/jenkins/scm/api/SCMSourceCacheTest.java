@@ -0,0 +1,296 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Action;
+import hudson.model.InvisibleAction;
+import hudson.model.TaskListener;
+import hudson.scm.SCM;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
+import jenkins.scm.impl.mock.MockChangeRequestSCMRevision;
+import jenkins.scm.impl.mock.MockSCMHead;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SCMSourceCacheTest {
+
+    @Test
+    public void trustedRevisionsReusedUntilHeadEvent() throws Exception {
+        CountingSource source = new CountingSource();
+        SCMHead head = new SCMHead("feature");
+        SCMRevision revision = new MockSCMRevision(head, "abc");
+        assertThat(source.fetchTrustedRevision(revision, null), is(revision));
+        assertThat(source.fetchTrustedRevision(new MockSCMRevision(head, "abc"), null), is(revision));
+        assertThat(source.trustCalls.get(), is(1));
+        source.fetchTrustedRevision(new MockSCMRevision(head, "def"), null);
+        assertThat(source.trustCalls.get(), is(2));
+        SCMSourceCache.invalidateAll(new HeadEvent(new SCMHead("other")));
+        source.fetchTrustedRevision(revision, null);
+        assertThat(source.trustCalls.get(), is(2));
+        SCMSourceCache.invalidateAll(new HeadEvent(head));
+        source.fetchTrustedRevision(revision, null);
+        assertThat(source.trustCalls.get(), is(3));
+    }
+
+    @Test
+    public void actionsReusedUnlessEventSupplied() throws Exception {
+        CountingSource source = new CountingSource();
+        SCMHead head = new SCMHead("feature");
+        assertThat(source.fetchActions(head, null, null), hasSize(1));
+        assertThat(source.fetchActions(head, null, null), hasSize(1));
+        assertThat(source.actionCalls.get(), is(1));
+        source.fetchActions(head, new HeadEvent(head), null);
+        assertThat(source.actionCalls.get(), is(2));
+        SCMSourceCache.invalidateAll(new HeadEvent(head));
+        source.fetchActions(head, null, null);
+        assertThat(source.actionCalls.get(), is(3));
+        source.invalidateActionsCache();
+        source.fetchActions(head, null, null);
+        assertThat(source.actionCalls.get(), is(4));
+    }
+
+    @Test
+    public void staleResultsNotStoredAfterInvalidation() throws Exception {
+        CountingSource source = new CountingSource();
+        SCMHead head = new SCMHead("feature");
+        SCMRevision revision = new MockSCMRevision(head, "abc");
+        // an event for the head is dispatched while the results are being retrieved
+        source.whileRetrieving = () -> SCMSourceCache.invalidateAll(new HeadEvent(head));
+        source.fetchActions(head, null, null);
+        source.fetchTrustedRevision(revision, null);
+        source.whileRetrieving = null;
+        source.fetchActions(head, null, null);
+        source.fetchTrustedRevision(revision, null);
+        assertThat(source.actionCalls.get(), is(2));
+        assertThat(source.trustCalls.get(), is(2));
+        // results retrieved without an invalidation in between are reused
+        source.fetchActions(head, null, null);
+        source.fetchTrustedRevision(revision, null);
+        assertThat(source.actionCalls.get(), is(2));
+        assertThat(source.trustCalls.get(), is(2));
+    }
+
+    @Test
+    public void headsNotComputedForSourcesThatDoNotMatch() throws Exception {
+        CountingSource source = new CountingSource();
+        SCMHead head = new SCMHead("feature");
+        source.fetchActions(head, null, null);
+        HeadEvent event = new HeadEvent(head);
+        event.matches = false;
+        SCMSourceCache.invalidateAll(event);
+        assertThat(event.headsCalls.get(), is(0));
+        source.fetchActions(head, null, null);
+        assertThat(source.actionCalls.get(), is(1));
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        CountingSource source = new CountingSource(0L);
+        SCMHead head = new SCMHead("feature");
+        SCMRevision revision = new MockSCMRevision(head, "abc");
+        source.fetchTrustedRevision(revision, null);
+        source.fetchTrustedRevision(revision, null);
+        source.fetchActions(head, null, null);
+        source.fetchActions(head, null, null);
+        assertThat(source.trustCalls.get(), is(2));
+        assertThat(source.actionCalls.get(), is(2));
+    }
+
+    @Test
+    public void eventHeadsComputedOncePerSource() throws Exception {
+        CountingSource source = new CountingSource();
+        SCMHead head = new SCMHead("feature");
+        HeadEvent event = new HeadEvent(head);
+        assertThat(event.isMatch(source), is(true));
+        SCMHeadObserver.Collector collector = SCMHeadObserver.collect();
+        SCMHeadObserver.Wrapped<SCMHeadObserver.Collector> filtered = event.filter(source, collector);
+        assertThat(filtered.getIncludes(), is(Collections.singleton(head)));
+        filtered.observe(new SCMHead("other"), new MockSCMRevision(new SCMHead("other"), "abc"));
+        assertThat(filtered.isObserving(), is(true));
+        filtered.observe(head, new MockSCMRevision(head, "def"));
+        assertThat(filtered.isObserving(), is(false));
+        assertThat(collector.result().keySet(), is(Collections.singleton(head)));
+        assertThat(event.headsCalls.get(), is(1));
+        event.isMatch(new CountingSource());
+        assertThat(event.headsCalls.get(), is(2));
+    }
+
+    @Test
+    public void parentHeadsAnsweredFromIndex() throws Exception {
+        CountingSource source = new CountingSource();
+        MockSCMHead master = new MockSCMHead("master");
+        MockSCMRevision masterRevision = new MockSCMRevision(master, "abc");
+        MockChangeRequestSCMHead change = new MockChangeRequestSCMHead(1, "master");
+        source.remote.put(master, masterRevision);
+        source.remote.put(change, new MockChangeRequestSCMRevision(change, masterRevision, "def"));
+        assertThat(source.parentHeads(change, null).isEmpty(), is(true));
+        source.fetch(new SCMHeadObserver.Collector(), null);
+        assertThat(source.parentHeads(change, null), is(Collections.singletonMap(master, masterRevision)));
+        assertThat(source.parentHeads(master, null).isEmpty(), is(true));
+        SCMSourceCache.invalidateAll(new HeadEvent(master));
+        assertThat(source.parentHeads(change, null).isEmpty(), is(true));
+    }
+
+    @Test
+    public void headIndexIsOptIn() throws Exception {
+        CountingSource source = new CountingSource(0L);
+        MockSCMHead master = new MockSCMHead("master");
+        MockSCMRevision masterRevision = new MockSCMRevision(master, "abc");
+        MockChangeRequestSCMHead change = new MockChangeRequestSCMHead(1, "master");
+        source.remote.put(master, masterRevision);
+        source.remote.put(change, new MockChangeRequestSCMRevision(change, masterRevision, "def"));
+        SCMHeadObserver.Collector observer = new SCMHeadObserver.Collector();
+        source.fetch(observer, null);
+        assertThat(source.lastObserver, sameInstance(observer));
+        assertThat(source.parentHeads(change, null).isEmpty(), is(true));
+        assertThat(source.parentRevisions(change, masterRevision, null).isEmpty(), is(true));
+    }
+
+    private static class CountingSource extends SCMSource {
+        private final Map<SCMHead, SCMRevision> remote = new LinkedHashMap<>();
+        private final long ttl;
+        private final AtomicInteger trustCalls = new AtomicInteger();
+        private final AtomicInteger actionCalls = new AtomicInteger();
+        private volatile Runnable whileRetrieving;
+        private volatile SCMHeadObserver lastObserver;
+
+        CountingSource() {
+            this(60000L);
+        }
+
+        CountingSource(long ttl) {
+            this.ttl = ttl;
+            setId("counting");
+        }
+
+        @Override
+        protected long getActionsCacheTtl() {
+            return ttl;
+        }
+
+        @Override
+        protected long getTrustedRevisionCacheTtl() {
+            return ttl;
+        }
+
+        @NonNull
+        @Override
+        public SCMRevision getTrustedRevision(@NonNull SCMRevision revision, @NonNull TaskListener listener) {
+            trustCalls.incrementAndGet();
+            retrieving();
+            return revision;
+        }
+
+        @NonNull
+        @Override
+        protected List<Action> retrieveActions(@NonNull SCMHead head, @CheckForNull SCMHeadEvent event,
+                                               @NonNull TaskListener listener) {
+            actionCalls.incrementAndGet();
+            retrieving();
+            return Collections.singletonList(new InvisibleAction() {});
+        }
+
+        private void retrieving() {
+            Runnable hook = whileRetrieving;
+            if (hook != null) {
+                hook.run();
+            }
+        }
+
+        @Override
+        protected int getHeadIndexSize() {
+            return ttl > 0 ? 16 : 0;
+        }
+
+        @Override
+        protected void retrieve(@CheckForNull SCMSourceCriteria criteria, @NonNull SCMHeadObserver observer,
+                                @CheckForNull SCMHeadEvent<?> event, @NonNull TaskListener listener)
+                throws IOException, InterruptedException {
+            lastObserver = observer;
+            for (Map.Entry<SCMHead, SCMRevision> entry : remote.entrySet()) {
+                observer.observe(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @NonNull
+        @Override
+        public SCM build(@NonNull SCMHead head, @CheckForNull SCMRevision revision) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class HeadEvent extends SCMHeadEvent<String> {
+        private final SCMHead head;
+        private final AtomicInteger headsCalls = new AtomicInteger();
+        private boolean matches = true;
+
+        HeadEvent(SCMHead head) {
+            super(Type.UPDATED, head.getName(), "test");
+            this.head = head;
+        }
+
+        @Override
+        public boolean isMatch(@NonNull SCMNavigator navigator) {
+            return false;
+        }
+
+        @Override
+        public boolean isMatch(@NonNull SCMSource source) {
+            return matches && super.isMatch(source);
+        }
+
+        @NonNull
+        @Override
+        public String getSourceName() {
+            return "counting";
+        }
+
+        @NonNull
+        @Override
+        public Map<SCMHead, SCMRevision> heads(@NonNull SCMSource source) {
+            headsCalls.incrementAndGet();
+            return Collections.singletonMap(head, null);
+        }
+
+        @Override
+        public boolean isMatch(@NonNull SCM scm) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.TaskListener;
+import hudson.scm.SCM;
+import hudson.util.LogTaskListener;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link SCMSource#fetch(SCMHeadObserver, TaskListener)} without a listener, as event-driven callers do,
+ * against the per-call level resolution that {@code defaultListener} used to perform.
+ */
+@JmhBenchmark
+@Threads(4)
+public class SCMSourceFetchBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Source {
+
+        final SingleHeadSource source = new SingleHeadSource();
+    }
+
+    @Benchmark
+    public void fetchWithoutListener(Source state, Blackhole blackhole) throws Exception {
+        blackhole.consume(state.source.fetch(new SCMHeadObserver.Collector(), null));
+    }
+
+    @Benchmark
+    public void fetchWithListener(Source state, Blackhole blackhole) throws Exception {
+        blackhole.consume(state.source.fetch(new SCMHeadObserver.Collector(), TaskListener.NULL));
+    }
+
+    @Benchmark
+    public TaskListener perCallResolution() {
+        Level level;
+        try {
+            level = Level.parse(System.getProperty(SingleHeadSource.class.getName() + ".defaultListenerLevel", "FINE"));
+        } catch (IllegalArgumentException e) {
+            level = Level.FINE;
+        }
+        return new LogTaskListener(Logger.getLogger(SingleHeadSource.class.getName()), level);
+    }
+
+    public static class SingleHeadSource extends SCMSource {
+
+        private final SCMHead head = new SCMHead("master");
+
+        private final SCMRevision revision = new MockSCMRevision(head, "abc");
+
+        @Override
+        protected int getHeadIndexSize() {
+            return 0;
+        }
+
+        @Override
+        protected void retrieve(@CheckForNull SCMSourceCriteria criteria, @NonNull SCMHeadObserver observer,
+                                @CheckForNull SCMHeadEvent<?> event, @NonNull TaskListener listener)
+                throws IOException, InterruptedException {
+            listener.getLogger();
+            observer.observe(head, revision);
+        }
+
+        @NonNull
+        @Override
+        public SCM build(@NonNull SCMHead head, @CheckForNull SCMRevision revision) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.TaskListener;
+import hudson.scm.SCM;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SCMSourceLegacyCriteriaTest {
+
+    @Test
+    public void parallelLegacyFetchesSeeOwnCriteria() throws Exception {
+        int parallelism = 4;
+        ExecutorService handoff = Executors.newCachedThreadPool();
+        ExecutorService callers = Executors.newFixedThreadPool(parallelism);
+        try {
+            LegacySource source = legacyOnly();
+            source.handoff = handoff;
+            // every call waits for the others, so serialized calls would time out here
+            source.barrier = new CyclicBarrier(parallelism);
+            assertThat(MethodUtils.isOverridden(SCMSource.class, source.getClass(), "retrieve",
+                    SCMSourceCriteria.class, SCMHeadObserver.class, SCMHeadEvent.class, TaskListener.class), is(false));
+            List<ExpectingObserver> observers = new ArrayList<>();
+            List<Future<ExpectingObserver>> calls = new ArrayList<>();
+            for (int i = 0; i < 4 * parallelism; i++) {
+                ExpectingObserver observer = new ExpectingObserver(new NamedCriteria("criteria-" + i));
+                observers.add(observer);
+                calls.add(callers.submit(() -> source.fetch(observer.expected, observer, null)));
+            }
+            for (Future<ExpectingObserver> call : calls) {
+                call.get(30, TimeUnit.SECONDS);
+            }
+            for (ExpectingObserver observer : observers) {
+                assertThat(observer.seen, contains(
+                        // getCriteria() on the calling thread
+                        "caller-" + observer.expected,
+                        // getCriteria(observer) after handing off to another thread
+                        "bound-" + observer.expected,
+                        // getCriteria() outside the call chain sees the owner's criteria (there is no owner)
+                        "unrelated-null"
+                ));
+            }
+            // once the calls are complete there are no legacy criteria left behind
+            assertThat(source.criteria(), nullValue());
+            assertThat(handoff.submit(() -> source.criteria()).get(), nullValue());
+        } finally {
+            callers.shutdownNow();
+            handoff.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a source that only implements the legacy {@link SCMSource#retrieve(SCMHeadObserver, TaskListener)},
+     * as a source compiled against the pre-2.0 API would. The Java compiler insists on the abstract methods being
+     * implemented, so the concrete class is generated.
+     */
+    private static LegacySource legacyOnly() throws Exception {
+        String superName = Type.getInternalName(LegacySource.class);
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, "jenkins/scm/api/LegacyOnlySCMSource", null,
+                superName, null);
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        Class<?> type = MethodHandles.lookup().defineHiddenClass(cw.toByteArray(), true).lookupClass();
+        return (LegacySource) type.getDeclaredConstructor().newInstance();
+    }
+
+    private static class NamedCriteria implements SCMSourceCriteria {
+        private final String name;
+
+        NamedCriteria(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean isHead(@NonNull Probe probe, @NonNull TaskListener listener) {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static class ExpectingObserver extends SCMHeadObserver {
+        private final NamedCriteria expected;
+        private final List<String> seen = new CopyOnWriteArrayList<>();
+
+        ExpectingObserver(NamedCriteria expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+            seen.add(head.getName());
+        }
+    }
+
+    abstract static class LegacySource extends SCMSource {
+        ExecutorService handoff;
+        CyclicBarrier barrier;
+
+        LegacySource() {
+        }
+
+        @CheckForNull
+        SCMSourceCriteria criteria() {
+            return getCriteria();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        protected void retrieve(@NonNull SCMHeadObserver observer, @NonNull TaskListener listener)
+                throws IOException, InterruptedException {
+            try {
+                barrier.await(30, TimeUnit.SECONDS);
+                observe(observer, "caller-" + getCriteria());
+                observe(observer, "bound-" + handoff.submit(() -> getCriteria(observer)).get());
+                observe(observer, "unrelated-" + handoff.submit(() -> getCriteria()).get());
+            } catch (BrokenBarrierException | ExecutionException | TimeoutException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private static void observe(SCMHeadObserver observer, String name)
+                throws IOException, InterruptedException {
+            SCMHead head = new SCMHead(name);
+            observer.observe(head, new MockSCMRevision(head, "abc"));
+        }
+
+        @NonNull
+        @Override
+        public SCM build(@NonNull SCMHead head, @CheckForNull SCMRevision revision) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.TaskListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.api.SCMFile;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadObserver;
+import jenkins.scm.api.SCMProbe;
+import jenkins.scm.api.SCMProbeStat;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMSourceCriteria;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import jenkins.scm.impl.mock.MockSCMSource;
+import jenkins.scm.impl.mock.MockSCMSourceContext;
+import jenkins.scm.impl.mock.MockSCMSourceRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Fetches the last head of a repository by name through {@link SCMHeadObserver.Named}, where every probe costs a
+ * simulated remote call. Compares a source that looks the name hint up directly, a source that enumerates every head
+ * and relies on {@link SCMSourceRequest} to skip the other names before probing, and the cost without any hint.
+ */
+@JmhBenchmark
+public class FetchByNameBenchmark {
+
+    private static final SCMSourceCriteria CRITERIA = (probe, listener) -> probe.stat("Jenkinsfile").exists();
+
+    @State(Scope.Thread)
+    public static class Repository {
+
+        @Param({"100", "1000", "10000"})
+        public int heads;
+
+        final MockSCMSource source = new MockSCMSource("benchmark", "repository");
+
+        final Map<String, SCMRevision> revisions = new LinkedHashMap<>();
+
+        String target;
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < heads; i++) {
+                SCMHead head = new SCMHead("head-" + i);
+                revisions.put(head.getName(), new MockSCMRevision(head, Integer.toHexString(i)));
+            }
+            target = "head-" + (heads - 1);
+        }
+    }
+
+    @Benchmark
+    public SCMRevision lookUpHint(Repository state) throws Exception {
+        SCMHeadObserver.Named observer = SCMHeadObserver.named(state.target);
+        try (MockSCMSourceRequest request = request(state, observer)) {
+            Set<String> names = observer.getIncludedNames();
+            if (names == null) {
+                enumerate(state, request);
+            } else {
+                for (String name : names) {
+                    SCMRevision revision = state.revisions.get(name);
+                    if (revision != null && process(request, revision)) {
+                        break;
+                    }
+                }
+            }
+        }
+        return observer.result();
+    }
+
+    @Benchmark
+    public SCMRevision enumerateWithHint(Repository state) throws Exception {
+        SCMHeadObserver.Named observer = SCMHeadObserver.named(state.target);
+        try (MockSCMSourceRequest request = request(state, observer)) {
+            enumerate(state, request);
+        }
+        return observer.result();
+    }
+
+    @Benchmark
+    public SCMRevision enumerateWithoutHint(Repository state) throws Exception {
+        SCMHeadObserver.Named named = SCMHeadObserver.named(state.target);
+        // hides the name hint, as observers did before they could publish one
+        SCMHeadObserver observer = new SCMHeadObserver() {
+            @Override
+            public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+                named.observe(head, revision);
+            }
+
+            @Override
+            public boolean isObserving() {
+                return named.isObserving();
+            }
+        };
+        try (MockSCMSourceRequest request = request(state, observer)) {
+            enumerate(state, request);
+        }
+        return named.result();
+    }
+
+    private static MockSCMSourceRequest request(Repository state, SCMHeadObserver observer) {
+        return new MockSCMSourceContext(state.source, CRITERIA, observer).newRequest(state.source, TaskListener.NULL);
+    }
+
+    private static void enumerate(Repository state, MockSCMSourceRequest request) throws Exception {
+        for (SCMRevision revision : state.revisions.values()) {
+            if (process(request, revision)) {
+                break;
+            }
+        }
+    }
+
+    private static boolean process(MockSCMSourceRequest request, SCMRevision revision) throws Exception {
+        return request.process(revision.getHead(), revision, (head, ignored) -> new RemoteProbe(head.getName()));
+    }
+
+    /**
+     * A probe whose every check costs about as much CPU as a cheap remote call.
+     */
+    private static class RemoteProbe extends SCMProbe {
+
+        private final String name;
+
+        RemoteProbe(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public long lastModified() {
+            return 0L;
+        }
+
+        @NonNull
+        @Override
+        public SCMProbeStat stat(@NonNull String path) {
+            Blackhole.consumeCPU(1000);
+            return SCMProbeStat.fromType(SCMFile.Type.REGULAR_FILE);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
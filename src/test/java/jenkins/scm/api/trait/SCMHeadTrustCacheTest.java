@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadOrigin;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.impl.mock.MockChangeRequestSCMHead;
+import jenkins.scm.impl.mock.MockSCMSource;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SCMHeadTrustCacheTest {
+
+    @Test
+    public void decisionSharedByHeadsFromSameOrigin() {
+        SCMHeadTrustCache cache = new SCMHeadTrustCache(16, 60000L);
+        MockSCMSource source = new MockSCMSource("trust", "foo");
+        ForkAuthority authority = new ForkAuthority();
+        SCMHeadOrigin fork = new SCMHeadOrigin.Fork("stephenc");
+        SCMHeadTrustCache.Scope scope = SCMHeadTrustCache.scopeOf(source, authority);
+        cache.put(scope, changeRequest(fork, 1), true);
+        // a new authority instance in a later request
+        assertThat(cache.get(SCMHeadTrustCache.scopeOf(source, new ForkAuthority()), changeRequest(fork, 2)), is(true));
+        assertThat(cache.get(scope, changeRequest(new SCMHeadOrigin.Fork("other"), 3)), nullValue());
+        assertThat(cache.get(scope, new SCMHead("master")), nullValue());
+        assertThat(cache.get(SCMHeadTrustCache.scopeOf(new MockSCMSource("other", "foo"), authority),
+                changeRequest(fork, 4)), nullValue());
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void sourcesWithSameIdDoNotShareDecisions() {
+        SCMHeadTrustCache cache = new SCMHeadTrustCache(16, 60000L);
+        SCMHeadOrigin fork = new SCMHeadOrigin.Fork("stephenc");
+        // e.g. two multibranch projects generated with a fixed source id, each pointing at a different repository
+        MockSCMSource trusting = new MockSCMSource("trust", "foo");
+        trusting.setId("fixed");
+        MockSCMSource other = new MockSCMSource("trust", "bar");
+        other.setId("fixed");
+        cache.put(SCMHeadTrustCache.scopeOf(trusting, new ForkAuthority()), changeRequest(fork, 1), true);
+        assertThat(cache.get(SCMHeadTrustCache.scopeOf(trusting, new ForkAuthority()), changeRequest(fork, 2)),
+                is(true));
+        assertThat(cache.get(SCMHeadTrustCache.scopeOf(other, new ForkAuthority()), changeRequest(fork, 2)),
+                nullValue());
+    }
+
+    @Test
+    public void reconfiguredAuthorityDoesNotReuseDecisions() {
+        SCMHeadTrustCache cache = new SCMHeadTrustCache(16, 60000L);
+        MockSCMSource source = new MockSCMSource("trust", "foo");
+        SCMHeadOrigin fork = new SCMHeadOrigin.Fork("stephenc");
+        cache.put(SCMHeadTrustCache.scopeOf(source, new PermissionAuthority("write")), changeRequest(fork, 1), true);
+        // the same configuration in a later request
+        assertThat(cache.get(SCMHeadTrustCache.scopeOf(source, new PermissionAuthority("write")),
+                changeRequest(fork, 2)), is(true));
+        // the authority was reconfigured to require a different permission
+        SCMHeadTrustCache.Scope admin = SCMHeadTrustCache.scopeOf(source, new PermissionAuthority("admin"));
+        assertThat(cache.get(admin, changeRequest(fork, 2)), nullValue());
+        cache.put(admin, changeRequest(fork, 2), false);
+        assertThat(cache.get(SCMHeadTrustCache.scopeOf(source, new PermissionAuthority("admin")),
+                changeRequest(fork, 3)), is(false));
+        assertThat(cache.get(SCMHeadTrustCache.scopeOf(source, new PermissionAuthority("write")),
+                changeRequest(fork, 3)), is(true));
+        assertThat(cache.size(), is(2));
+    }
+
+    private static MockChangeRequestSCMHead changeRequest(SCMHeadOrigin origin, int number) {
+        return new MockChangeRequestSCMHead(origin, number, "master", ChangeRequestCheckoutStrategy.HEAD, true);
+    }
+
+    private static class ForkAuthority extends SCMHeadAuthority<SCMSourceRequest, SCMHead, SCMRevision> {
+        @Override
+        protected boolean checkTrusted(@NonNull SCMSourceRequest request, @NonNull SCMHead head) {
+            return true;
+        }
+
+        @Override
+        protected boolean isTrustDeterminedByOrigin() {
+            return true;
+        }
+    }
+
+    private static class PermissionAuthority extends SCMHeadAuthority<SCMSourceRequest, SCMHead, SCMRevision> {
+        private final String permission;
+
+        PermissionAuthority(String permission) {
+            this.permission = permission;
+        }
+
+        @Override
+        protected boolean checkTrusted(@NonNull SCMSourceRequest request, @NonNull SCMHead head) {
+            return "write".equals(permission);
+        }
+
+        @Override
+        protected boolean isTrustDeterminedByOrigin() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.concurrent.atomic.AtomicInteger;
+import jenkins.scm.api.SCMFile;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMProbe;
+import jenkins.scm.api.SCMProbeStat;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMSourceCriteria;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import jenkins.scm.impl.mock.MockSCMSource;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SCMProbeCacheTest {
+
+    @Test
+    public void statReusedAcrossProbesForSameRevision() throws Exception {
+        SCMProbeCache cache = new SCMProbeCache(16, 60000L);
+        MockSCMSource source = new MockSCMSource("probe", "foo");
+        SCMHead head = new SCMHead("master");
+        CountingProbe first = new CountingProbe();
+        SCMSourceCriteria.Probe probe = cache.wrap(source, new MockSCMRevision(head, "abc"), first);
+        assertThat(probe.stat("Jenkinsfile").exists(), is(true));
+        assertThat(probe.stat("Jenkinsfile").exists(), is(true));
+        assertThat(probe.stat("missing").exists(), is(false));
+        assertThat(first.stats.get(), is(2));
+        // next indexing run
+        CountingProbe second = new CountingProbe();
+        probe = cache.wrap(source, new MockSCMRevision(head, "abc"), second);
+        assertThat(probe.stat("Jenkinsfile").exists(), is(true));
+        assertThat(second.stats.get(), is(0));
+        probe = cache.wrap(source, new MockSCMRevision(head, "def"), second);
+        assertThat(probe.stat("Jenkinsfile").exists(), is(true));
+        assertThat(second.stats.get(), is(1));
+        assertThat(cache.size(), is(3));
+    }
+
+    @Test
+    public void nonDeterministicRevisionsNotCached() throws Exception {
+        SCMProbeCache cache = new SCMProbeCache(16, 60000L);
+        MockSCMSource source = new MockSCMSource("probe", "foo");
+        CountingProbe probe = new CountingProbe();
+        SCMRevision revision = new MockSCMRevision(new SCMHead("master"), "abc") {
+            @Override
+            public boolean isDeterministic() {
+                return false;
+            }
+        };
+        assertThat(cache.wrap(source, revision, probe), sameInstance(probe));
+        assertThat(cache.wrap(source, null, probe), sameInstance(probe));
+    }
+
+    @Test
+    public void nonRevisionIntermediatesNotCached() throws Exception {
+        SCMProbeCache cache = new SCMProbeCache(16, 60000L);
+        MockSCMSource source = new MockSCMSource("probe", "foo");
+        CountingProbe probe = new CountingProbe();
+        assertThat(cache.wrap(source, "abc", probe), sameInstance(probe));
+        assertThat(cache.size(), is(0));
+    }
+
+    private static class CountingProbe extends SCMProbe {
+        private final AtomicInteger stats = new AtomicInteger();
+
+        @Override
+        public String name() {
+            return "master";
+        }
+
+        @Override
+        public long lastModified() {
+            return 0L;
+        }
+
+        @NonNull
+        @Override
+        public SCMProbeStat stat(@NonNull String path) {
+            stats.incrementAndGet();
+            return SCMProbeStat.fromType(
+                    "Jenkinsfile".equals(path) ? SCMFile.Type.REGULAR_FILE : SCMFile.Type.NONEXISTENT);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
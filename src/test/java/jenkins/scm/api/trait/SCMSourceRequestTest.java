@@ -0,0 +1,364 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.api.trait;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import jenkins.scm.api.SCMFile;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadObserver;
+import jenkins.scm.api.SCMProbe;
+import jenkins.scm.api.SCMProbeStat;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMSource;
+import jenkins.scm.api.SCMSourceCriteria;
+import jenkins.scm.impl.mock.MockSCMRevision;
+import jenkins.scm.impl.mock.MockSCMSource;
+import jenkins.scm.impl.mock.MockSCMSourceContext;
+import jenkins.scm.impl.mock.MockSCMSourceRequest;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class SCMSourceRequestTest {
+
+    @Test
+    public void processStatistics() throws Exception {
+        MockSCMSource source = new MockSCMSource("stats", "foo");
+        SCMHeadObserver.Collector collector = SCMHeadObserver.collect();
+        MockSCMSourceContext context = new MockSCMSourceContext(source,
+                (probe, listener) -> !"rejected".equals(probe.name()), collector);
+        context.withPrefilter(new SCMHeadPrefilter() {
+            @Override
+            public boolean isExcluded(@NonNull SCMSource source, @NonNull SCMHead head) {
+                return head.getName().startsWith("tmp-");
+            }
+        });
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            assertThat(request.prefilter(Arrays.asList(new SCMHead("tmp-1"), new SCMHead("master"))),
+                    contains(new SCMHead("master")));
+            for (String name : new String[]{"master", "tmp-2", "rejected", "feature"}) {
+                SCMHead head = new SCMHead(name);
+                request.process(head, new MockSCMRevision(head, "abc"),
+                        (h, revision) -> new NamedProbe(h.getName()));
+            }
+            SCMSourceRequest.ProcessStatistics statistics = request.getProcessStatistics();
+            assertThat(statistics.getHeads(), is(5L));
+            assertThat(statistics.getExcluded(), is(2L));
+            assertThat(statistics.getRejected(), is(1L));
+            assertThat(statistics.getObserved(), is(2L));
+            assertThat(statistics.getProbeTime(TimeUnit.NANOSECONDS), greaterThanOrEqualTo(0L));
+        }
+        assertThat(collector.result().size(), is(2));
+    }
+
+    @Test
+    public void statisticsListenerReceivesFinalStatistics() throws Exception {
+        MockSCMSource source = new MockSCMSource("listener", "foo");
+        SCMSourceCriteria criteria = (probe, listener) -> !"rejected".equals(probe.name());
+        List<SCMSourceRequest.ProcessStatistics> received = new ArrayList<>();
+        List<List<SCMSourceRequest.CriteriaStatistics>> receivedCriteria = new ArrayList<>();
+        MockSCMSourceContext context = new MockSCMSourceContext(source, criteria, SCMHeadObserver.collect());
+        context.withStatisticsListener((request, statistics, criteriaStatistics) -> {
+            throw new IllegalStateException("must not stop the other listeners");
+        });
+        context.withStatisticsListener((request, statistics, criteriaStatistics) -> {
+            received.add(statistics);
+            receivedCriteria.add(criteriaStatistics);
+        });
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            for (String name : new String[]{"master", "rejected", "feature"}) {
+                process(request, name);
+            }
+            assertThat(received.isEmpty(), is(true));
+        }
+        assertThat(received.size(), is(1));
+        assertThat(received.get(0).getHeads(), is(3L));
+        assertThat(received.get(0).getRejected(), is(1L));
+        assertThat(received.get(0).getObserved(), is(2L));
+        assertThat(receivedCriteria.get(0).size(), is(1));
+        assertThat(receivedCriteria.get(0).get(0).getCriteria() == criteria, is(true));
+        assertThat(receivedCriteria.get(0).get(0).getEvaluations(), is(3L));
+        assertThat(receivedCriteria.get(0).get(0).getRejections(), is(1L));
+    }
+
+    @Test
+    public void processAsync() throws Exception {
+        MockSCMSource source = new MockSCMSource("async", "foo");
+        SCMHeadObserver.Collector collector = SCMHeadObserver.collect();
+        MockSCMSourceContext context = new MockSCMSourceContext(source,
+                (probe, listener) -> !"rejected".equals(probe.name()), collector);
+        List<CompletableFuture<MockSCMRevision>> revisions = new ArrayList<>();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            for (String name : new String[]{"master", "rejected", "feature"}) {
+                results.add(request.processAsync(new SCMHead(name), null,
+                        (head, ignored) -> CompletableFuture.completedFuture(new NamedProbe(head.getName())),
+                        (head, ignored) -> {
+                            CompletableFuture<MockSCMRevision> revision = new CompletableFuture<>();
+                            revisions.add(revision);
+                            return revision;
+                        }));
+            }
+            assertThat(results.get(1).isDone(), is(true));
+            assertThat(revisions.size(), is(2));
+            // complete out of order
+            for (int i = revisions.size() - 1; i >= 0; i--) {
+                CompletableFuture<MockSCMRevision> revision = revisions.get(i);
+                revision.complete(new MockSCMRevision(new SCMHead(i == 0 ? "master" : "feature"), "abc"));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+            SCMSourceRequest.ProcessStatistics statistics = request.getProcessStatistics();
+            assertThat(statistics.getRejected(), is(1L));
+            assertThat(statistics.getObserved(), is(2L));
+        }
+        assertThat(collector.result().keySet(), containsInAnyOrder(new SCMHead("master"), new SCMHead("feature")));
+    }
+
+    @Test
+    public void processAsyncObserverFailure() throws Exception {
+        MockSCMSource source = new MockSCMSource("async-failure", "foo");
+        SCMHeadObserver observer = new SCMHeadObserver() {
+            @Override
+            public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) throws IOException {
+                throw new IOException("boom");
+            }
+        };
+        MockSCMSourceContext context = new MockSCMSourceContext(source, null, observer);
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            SCMHead head = new SCMHead("master");
+            CompletableFuture<MockSCMRevision> revision = new CompletableFuture<>();
+            CompletableFuture<Boolean> result = request.processAsync(head, null,
+                    (h, ignored) -> CompletableFuture.completedFuture(new NamedProbe(h.getName())),
+                    (h, ignored) -> revision);
+            assertThat(result.isDone(), is(false));
+            revision.complete(new MockSCMRevision(head, "abc"));
+            try {
+                result.join();
+                fail("observer failure should complete the future exceptionally");
+            } catch (CompletionException e) {
+                assertThat(e.getCause(), instanceOf(IOException.class));
+            }
+            assertThat(request.getProcessStatistics().getObserved(), is(1L));
+        }
+    }
+
+    @Test
+    public void processAsyncWithoutCriteriaSkipsProbe() throws Exception {
+        MockSCMSource source = new MockSCMSource("async-no-criteria", "foo");
+        SCMHeadObserver.Collector collector = SCMHeadObserver.collect();
+        MockSCMSourceContext context = new MockSCMSourceContext(source, null, collector);
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            SCMHead head = new SCMHead("master");
+            CompletableFuture<Boolean> result = request.processAsync(head, null,
+                    (h, ignored) -> {
+                        throw new AssertionError("no criteria so no probe is needed");
+                    },
+                    (h, ignored) -> CompletableFuture.completedFuture(new MockSCMRevision(h, "abc")));
+            assertThat(result.join(), is(false));
+            assertThat(request.getProcessStatistics().getObserved(), is(1L));
+            assertThat(request.getProcessStatistics().getProbeTime(TimeUnit.NANOSECONDS), is(0L));
+        }
+        assertThat(collector.result().keySet(), contains(new SCMHead("master")));
+    }
+
+    @Test
+    public void processAsyncInterruptedProbe() throws Exception {
+        MockSCMSource source = new MockSCMSource("async-interrupted-probe", "foo");
+        SCMHeadObserver.Collector collector = SCMHeadObserver.collect();
+        MockSCMSourceContext context = new MockSCMSourceContext(source, (probe, listener) -> true, collector);
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            CompletableFuture<SCMSourceCriteria.Probe> probe = new CompletableFuture<>();
+            CompletableFuture<Boolean> result = request.processAsync(new SCMHead("master"), null,
+                    (h, ignored) -> probe,
+                    (h, ignored) -> {
+                        throw new AssertionError("an interrupted probe must not create a revision");
+                    });
+            probe.completeExceptionally(new InterruptedException());
+            try {
+                result.join();
+                fail("an interrupted probe should complete the future exceptionally");
+            } catch (CompletionException e) {
+                assertThat(e.getCause(), instanceOf(InterruptedException.class));
+            }
+            assertThat(request.getProcessStatistics().getRejected(), is(0L));
+            assertThat(request.getProcessStatistics().getObserved(), is(0L));
+        }
+        assertThat(collector.result().isEmpty(), is(true));
+    }
+
+    @Test
+    public void processAsyncRestoresInterruptFlag() throws Exception {
+        MockSCMSource source = new MockSCMSource("async-interrupted", "foo");
+        SCMHeadObserver observer = new SCMHeadObserver() {
+            @Override
+            public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) throws InterruptedException {
+                throw new InterruptedException();
+            }
+        };
+        MockSCMSourceContext context = new MockSCMSourceContext(source, null, observer);
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            SCMHead head = new SCMHead("master");
+            CompletableFuture<MockSCMRevision> revision = new CompletableFuture<>();
+            CompletableFuture<Boolean> result = request.processAsync(head, null,
+                    (h, ignored) -> CompletableFuture.completedFuture(new NamedProbe(h.getName())),
+                    (h, ignored) -> revision);
+            // completing the revision runs the observation on this thread
+            revision.complete(new MockSCMRevision(head, "abc"));
+            assertThat(Thread.interrupted(), is(true));
+            try {
+                result.join();
+                fail("an interrupted observation should complete the future exceptionally");
+            } catch (CompletionException e) {
+                assertThat(e.getCause(), instanceOf(InterruptedException.class));
+            }
+        }
+    }
+
+    @Test
+    public void criteriaStatisticsAndReordering() throws Exception {
+        MockSCMSource source = new MockSCMSource("criteria", "foo");
+        List<String> log = new ArrayList<>();
+        List<String> accepted = new ArrayList<>();
+        SCMHeadObserver observer = new SCMHeadObserver() {
+            @Override
+            public void observe(@NonNull SCMHead head, @NonNull SCMRevision revision) {
+                accepted.add(head.getName());
+            }
+        };
+        LoggingCriteria slow = new LoggingCriteria("slow", "a", 2, log);
+        LoggingCriteria fast = new LoggingCriteria("fast", "b", 0, log);
+        LoggingCriteria none = new LoggingCriteria("none", null, 0, log);
+        MockSCMSourceContext context = new MockSCMSourceContext(source, slow, observer)
+                .withCriteria(fast)
+                .withCriteria(none);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            names.add("abc".charAt(i % 3) + "-" + i);
+        }
+        try (MockSCMSourceRequest request = context.newRequest(source, null)) {
+            for (String name : names) {
+                process(request, name);
+            }
+            List<SCMSourceRequest.CriteriaStatistics> statistics = request.getCriteriaStatistics();
+            assertThat(statistics.get(0).getCriteria() == slow, is(true));
+            assertThat(statistics.get(0).getEvaluations(), is(12L));
+            assertThat(statistics.get(0).getRejections(), is(4L));
+            assertThat(statistics.get(1).getEvaluations(), is(8L));
+            assertThat(statistics.get(1).getRejections(), is(4L));
+            assertThat(statistics.get(2).getEvaluations(), is(4L));
+            assertThat(statistics.get(2).getRejections(), is(0L));
+            assertThat(statistics.get(0).getTime(TimeUnit.MILLISECONDS), greaterThanOrEqualTo(24L));
+            List<String> acceptedBefore = new ArrayList<>(accepted);
+            assertThat(acceptedBefore, contains("c-2", "c-5", "c-8", "c-11"));
+            log.clear();
+            process(request, "c-list-order");
+            assertThat(log, contains("slow", "fast", "none"));
+
+            ((SCMSourceRequest) request).reorderCriteria();
+            log.clear();
+            process(request, "c-reordered");
+            // the cheapest rejecting criteria now runs first and the never rejecting criteria last
+            assertThat(log, contains("fast", "slow", "none"));
+            accepted.clear();
+            for (String name : names) {
+                process(request, name);
+            }
+            assertThat(accepted, is(acceptedBefore));
+            assertThat(request.getCriteriaStatistics().get(1).getEvaluations(), is(22L));
+        }
+    }
+
+    private static void process(SCMSourceRequest request, String name) throws Exception {
+        SCMHead head = new SCMHead(name);
+        request.process(head, new MockSCMRevision(head, "abc"), (h, revision) -> new NamedProbe(h.getName()));
+    }
+
+    private static class LoggingCriteria implements SCMSourceCriteria {
+        private final String name;
+        private final String rejectPrefix;
+        private final long sleep;
+        private final List<String> log;
+
+        LoggingCriteria(String name, String rejectPrefix, long sleep, List<String> log) {
+            this.name = name;
+            this.rejectPrefix = rejectPrefix;
+            this.sleep = sleep;
+            this.log = log;
+        }
+
+        @Override
+        public boolean isHead(@NonNull Probe probe, @NonNull TaskListener listener) {
+            log.add(name);
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sleep);
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            return rejectPrefix == null || !probe.name().startsWith(rejectPrefix);
+        }
+    }
+
+    private static class NamedProbe extends SCMProbe {
+        private final String name;
+
+        NamedProbe(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public long lastModified() {
+            return 0L;
+        }
+
+        @NonNull
+        @Override
+        public SCMProbeStat stat(@NonNull String path) {
+            return SCMProbeStat.fromType(SCMFile.Type.NONEXISTENT);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
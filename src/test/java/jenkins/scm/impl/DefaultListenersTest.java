@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl;
+
+import hudson.model.TaskListener;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class DefaultListenersTest {
+
+    private static final String PROPERTY = DefaultListenersTest.class.getName() + ".defaultListenerLevel";
+
+    private final Logger logger = Logger.getLogger(DefaultListenersTest.class.getName());
+
+    private final List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Before
+    public void captureLog() {
+        logger.addHandler(handler);
+    }
+
+    @After
+    public void clearProperty() {
+        logger.removeHandler(handler);
+        System.clearProperty(PROPERTY);
+        DefaultListeners.refresh();
+    }
+
+    @Test
+    public void suppliedListenerReturned() {
+        TaskListener listener = TaskListener.NULL;
+        assertThat(DefaultListeners.of(listener, DefaultListenersTest.class), sameInstance(listener));
+    }
+
+    @Test
+    public void defaultListenerNotShared() {
+        System.setProperty(PROPERTY, "INFO");
+        DefaultListeners.refresh();
+        TaskListener first = DefaultListeners.of(null, DefaultListenersTest.class);
+        TaskListener second = DefaultListeners.of(null, DefaultListenersTest.class);
+        assertThat(second, not(sameInstance(first)));
+        first.getLogger().println("first");
+        first.getLogger().close();
+        second.getLogger().println("second");
+        assertThat(messages(), contains("first", "second"));
+    }
+
+    @Test
+    public void levelCachedUntilRefresh() {
+        System.setProperty(PROPERTY, "INFO");
+        DefaultListeners.refresh();
+        DefaultListeners.of(DefaultListenersTest.class).getLogger().println("one");
+        System.setProperty(PROPERTY, "WARNING");
+        DefaultListeners.of(DefaultListenersTest.class).getLogger().println("two");
+        DefaultListeners.refresh();
+        DefaultListeners.of(DefaultListenersTest.class).getLogger().println("three");
+        List<Level> levels = new ArrayList<>();
+        for (LogRecord record : records) {
+            levels.add(record.getLevel());
+        }
+        assertThat(levels, contains(Level.INFO, Level.INFO, Level.WARNING));
+    }
+
+    @Test
+    public void concurrentCallersDoNotInterleave() throws Exception {
+        System.setProperty(PROPERTY, "INFO");
+        DefaultListeners.refresh();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String id = Integer.toString(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    PrintStream out = DefaultListeners.of(DefaultListenersTest.class).getLogger();
+                    for (int j = 0; j < 100; j++) {
+                        out.print("thread-");
+                        Thread.yield();
+                        out.print(id);
+                        out.println();
+                    }
+                    out.close();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            for (int j = 0; j < 100; j++) {
+                expected.add("thread-" + i);
+            }
+        }
+        assertThat(messages(), containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    public void levelResolved() {
+        assertThat(DefaultListeners.level(DefaultListenersTest.class), is(Level.FINE));
+        System.setProperty(PROPERTY, "INFO");
+        assertThat(DefaultListeners.level(DefaultListenersTest.class), is(Level.INFO));
+        System.setProperty(PROPERTY, "bogus");
+        assertThat(DefaultListeners.level(DefaultListenersTest.class), is(Level.FINE));
+    }
+
+    @Test
+    public void refreshReplacesListener() {
+        TaskListener listener = DefaultListeners.of(DefaultListenersTest.class);
+        System.setProperty(PROPERTY, "INFO");
+        DefaultListeners.refresh();
+        assertThat(DefaultListeners.of(DefaultListenersTest.class), not(sameInstance(listener)));
+    }
+
+    private List<String> messages() {
+        List<String> messages = new ArrayList<>();
+        synchronized (records) {
+            for (LogRecord record : records) {
+                messages.add(record.getMessage());
+            }
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void entriesExpire() {
+        ExpiringCache<String, String> instance = new ExpiringCache<>(10, 5, TimeUnit.NANOSECONDS, now::get);
+        instance.put("a", "A");
+        instance.put("b", "B", 10, TimeUnit.NANOSECONDS);
+        assertThat(instance.get("a"), is("A"));
+        now.set(5);
+        assertThat(instance.get("a"), nullValue());
+        assertThat(instance.get("b"), is("B"));
+        now.set(10);
+        assertThat(instance.get("b"), nullValue());
+        assertThat(instance.size(), is(0));
+    }
+
+    @Test
+    public void leastRecentlyUsedEvicted() {
+        ExpiringCache<String, String> instance = new ExpiringCache<>(2, 1, TimeUnit.HOURS, now::get);
+        instance.put("a", "A");
+        instance.put("b", "B");
+        assertThat(instance.get("a"), is("A"));
+        instance.put("c", "C");
+        assertThat(instance.get("b"), nullValue());
+        assertThat(instance.get("a"), is("A"));
+        assertThat(instance.get("c"), is("C"));
+        assertThat(instance.size(), is(2));
+    }
+
+    @Test
+    public void removal() {
+        ExpiringCache<String, String> instance = new ExpiringCache<>(10, 1, TimeUnit.HOURS, now::get);
+        instance.put("a", "A");
+        instance.put("ab", "AB");
+        instance.put("b", "B");
+        instance.removeIf(k -> k.startsWith("a"));
+        assertThat(instance.get("a"), nullValue());
+        assertThat(instance.get("ab"), nullValue());
+        assertThat(instance.get("b"), is("B"));
+        instance.put("b", "B", 0, TimeUnit.SECONDS);
+        assertThat(instance.get("b"), nullValue());
+    }
+}
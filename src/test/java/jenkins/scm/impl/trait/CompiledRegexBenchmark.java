@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl.trait;
+
+import java.util.regex.Pattern;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link CompiledRegex} with {@link Pattern} on realistic branch names and on a name that makes
+ * {@link Pattern} backtrack.
+ */
+@JmhBenchmark
+public class CompiledRegexBenchmark {
+
+    private static final String[] BRANCHES = {
+            "master", "develop", "release/2.401.x", "feature/JENKINS-71234-cache-heads", "bugfix/npe-in-observer",
+            "renovate/org.jenkins-ci.plugins-plugin-5.x", "PR-1234", "hotfix/1.2.3", "users/alice/experiment",
+            "dependabot/maven/org.ow2.asm-asm-9.8"
+    };
+
+    @State(Scope.Thread)
+    public static class Names {
+
+        @Param({"realistic", "adversarial"})
+        public String workload;
+
+        CompiledRegex compiled;
+
+        Pattern pattern;
+
+        String[] names;
+
+        @Setup
+        public void setup() {
+            String regex;
+            if (workload.equals("realistic")) {
+                regex = "(master|develop|release/.*|(feature|bugfix|hotfix)/[A-Za-z0-9.-]+|PR-\\d+)";
+                names = BRANCHES;
+            } else {
+                regex = "(a|aa)*c";
+                names = new String[]{"a".repeat(24)};
+            }
+            compiled = CompiledRegex.compile(regex);
+            if (!compiled.isLinear()) {
+                throw new IllegalStateException(regex + " is not matched by the automaton");
+            }
+            pattern = Pattern.compile(regex);
+        }
+    }
+
+    @Benchmark
+    public void pattern(Names state, Blackhole blackhole) {
+        for (String name : state.names) {
+            blackhole.consume(state.pattern.matcher(name).matches());
+        }
+    }
+
+    @Benchmark
+    public void compiled(Names state, Blackhole blackhole) {
+        for (String name : state.names) {
+            blackhole.consume(state.compiled.matches(name));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl.trait;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class CompiledRegexTest {
+
+    private static final String[] ATOMS = {
+            "a", "b", ".", "\\d", "\\w", "\\s", "\\D", "\\W", "[ab]", "[^a]", "[a-c]", "[a-]", "[\\d-]", "\\.",
+            "\\Qa.b\\E", "\n", "^", "$", "(?:a|b)", "(a|)", "\\\\", "\uD83D\uDE00", "\r"
+    };
+
+    private static final String[] QUANTIFIERS = {"", "", "*", "+", "?", "*?", "+?", "{2}", "{1,3}", "{0,}"};
+
+    private static final String[] CHARS = {"a", "b", "c", "1", " ", "\n", "\r", ".", "-", "\\", "\uD83D\uDE00"};
+
+    @Test
+    public void matchesLikePattern() {
+        Random entropy = new Random(42L);
+        for (int i = 0; i < 5000; i++) {
+            String regex = regex(entropy, 0);
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                continue;
+            }
+            CompiledRegex compiled = CompiledRegex.compile(regex);
+            for (int j = 0; j < 20; j++) {
+                StringBuilder name = new StringBuilder();
+                for (int k = entropy.nextInt(7); k > 0; k--) {
+                    name.append(CHARS[entropy.nextInt(CHARS.length)]);
+                }
+                assertThat(regex + " ~ " + name, compiled.matches(name),
+                        is(pattern.matcher(name).matches()));
+            }
+        }
+    }
+
+    @Test
+    public void combinedMatchesLikeEachExpression() {
+        Random entropy = new Random(7L);
+        for (int i = 0; i < 1000; i++) {
+            List<CompiledRegex> expressions = new ArrayList<>();
+            while (expressions.size() < 3) {
+                String regex = regex(entropy, 0);
+                try {
+                    Pattern.compile(regex);
+                } catch (PatternSyntaxException e) {
+                    continue;
+                }
+                CompiledRegex compiled = CompiledRegex.compile(regex);
+                if (compiled.isLinear()) {
+                    expressions.add(compiled);
+                }
+            }
+            CompiledRegex.Combined combined = CompiledRegex.combine(expressions);
+            assertThat(combined.size(), is(expressions.size()));
+            for (int j = 0; j < 20; j++) {
+                StringBuilder name = new StringBuilder();
+                for (int k = entropy.nextInt(7); k > 0; k--) {
+                    name.append(CHARS[entropy.nextInt(CHARS.length)]);
+                }
+                boolean[] expected = new boolean[expressions.size()];
+                for (int k = 0; k < expected.length; k++) {
+                    expected[k] = expressions.get(k).matches(name);
+                }
+                assertThat(expressions + " ~ " + name, combined.matches(name, expected), is(true));
+                expected[j % expected.length] ^= true;
+                assertThat(expressions + " ~ " + name, combined.matches(name, expected), is(false));
+            }
+        }
+        assertThat(CompiledRegex.combine(Arrays.asList(CompiledRegex.compile("a"), CompiledRegex.compile("(a)\\1"))),
+                nullValue());
+    }
+
+    @Test
+    public void catastrophicPatternsAreLinear() {
+        String name = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!";
+        for (String regex : new String[]{"(a+)+b", "(a|a)*b", "(a|aa)+$", "^(\\w+\\s?)*$", "([a-z]+)*[0-9]"}) {
+            CompiledRegex compiled = CompiledRegex.compile(regex);
+            assertThat(regex, compiled.isLinear(), is(true));
+            assertThat(regex, compiled.matches(name), is(false));
+        }
+    }
+
+    @Test
+    public void patternFallbackIsTimeBounded() {
+        // the back-reference keeps the expression on the Pattern path, where it backtracks exponentially
+        CompiledRegex compiled = CompiledRegex.compile("(a*)*\\1b");
+        assertThat(compiled.isLinear(), is(false));
+        long start = System.nanoTime();
+        assertThat(compiled.matches("a".repeat(28) + "!", 100L), is(false));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(10000L));
+        assertThat(compiled.matches("aab", 100L), is(true));
+    }
+
+    @Test
+    public void backtrackingFeaturesDetected() {
+        for (String regex : new String[]{"(a)\\1", "(?=a)a", "(?<!b)a", "a*+", "(?i)a", "\\bfoo", "[a&&b]", "\\p{L}"}) {
+            assertThat(regex, CompiledRegex.isLinear(regex), is(false));
+            assertThat(regex, CompiledRegex.compile(regex).matches("a"),
+                    is(Pattern.compile(regex).matcher("a").matches()));
+        }
+        for (String regex : new String[]{"master|develop", "PR-\\d+", "release/[0-9.]+(-rc\\d*)?", "feature/.*"}) {
+            assertThat(regex, CompiledRegex.isLinear(regex), is(true));
+        }
+    }
+
+    private static String regex(Random entropy, int depth) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = entropy.nextInt(4) + 1; i > 0; i--) {
+            if (depth < 2 && entropy.nextInt(8) == 0) {
+                regex.append('(').append(regex(entropy, depth + 1)).append('|')
+                        .append(regex(entropy, depth + 1)).append(')');
+            } else {
+                regex.append(ATOMS[entropy.nextInt(ATOMS.length)]);
+            }
+            regex.append(QUANTIFIERS[entropy.nextInt(QUANTIFIERS.length)]);
+        }
+        return regex.toString();
+    }
+}
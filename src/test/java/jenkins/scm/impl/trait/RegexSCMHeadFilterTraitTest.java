@@ -30,15 +30,20 @@ import java.util.TreeSet;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMHeadObserver;
 import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.trait.SCMHeadNamePrefilter;
+import jenkins.scm.api.trait.SCMHeadPrefilter;
 import jenkins.scm.impl.mock.MockSCMController;
 import jenkins.scm.impl.mock.MockSCMDiscoverBranches;
 import jenkins.scm.impl.mock.MockSCMSource;
+import jenkins.scm.impl.mock.MockSCMSourceContext;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.jvnet.hudson.test.JenkinsRule;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
 
 public class RegexSCMHeadFilterTraitTest {
     @ClassRule
@@ -59,4 +64,35 @@ public class RegexSCMHeadFilterTraitTest {
             assertThat(names, containsInAnyOrder("master", "fork"));
         }
     }
+
+    @Test
+    public void given_sourceWithRegexAndWildcardRules_when_scanning_then_rulesCombinedAndApplied() throws Exception {
+        try (MockSCMController c = MockSCMController.create()) {
+            c.createRepository("foo");
+            c.createBranch("foo", "fork");
+            c.createBranch("foo", "foo");
+            c.createBranch("foo", "alt");
+            RegexSCMHeadFilterTrait regex = new RegexSCMHeadFilterTrait("[fm].*");
+            WildcardSCMHeadFilterTrait wildcard = new WildcardSCMHeadFilterTrait("*", "fo*");
+            MockSCMSourceContext context = new MockSCMSourceContext(null, null, SCMHeadObserver.collect());
+            regex.applyToContext(context);
+            wildcard.applyToContext(context);
+            SCMHeadPrefilter compiled = SCMHeadPrefilter.compile(context.prefilters());
+            assertThat(compiled, instanceOf(SCMHeadNamePrefilter.class));
+            for (String name : new String[]{"master", "fork", "foo", "alt", "f", "", "fo\nx"}) {
+                boolean excluded = false;
+                for (SCMHeadPrefilter prefilter : context.prefilters()) {
+                    excluded |= ((SCMHeadNamePrefilter) prefilter).isExcluded(name);
+                }
+                assertThat(name, ((SCMHeadNamePrefilter) compiled).isExcluded(name), is(excluded));
+            }
+            MockSCMSource src = new MockSCMSource(c, "foo", new MockSCMDiscoverBranches(), regex, wildcard);
+            Map<SCMHead, SCMRevision> result = src.fetch(null, SCMHeadObserver.collect(), null, null).result();
+            Set<String> names = new TreeSet<>();
+            for (SCMHead h: result.keySet()) {
+                names.add(h.getName());
+            }
+            assertThat(names, containsInAnyOrder("master"));
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl.trait;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Filters realistic branch names with typical include and exclude rules through {@link WildcardMatcher}, through
+ * precompiled {@link Pattern}s and by translating and compiling the rules for every name as the wildcard traits used
+ * to.
+ */
+@JmhBenchmark
+public class WildcardMatcherBenchmark {
+
+    private static final String INCLUDES = "master develop release/* feature/* PR-* renovate/*";
+
+    private static final String EXCLUDES = "*-wip feature/*/experiment* release/0.*";
+
+    private static final String[] PREFIXES = {
+            "feature/", "bugfix/", "release/", "PR-", "renovate/", "dependabot/maven/", "users/"
+    };
+
+    @State(Scope.Thread)
+    public static class Names {
+
+        String[] names;
+
+        WildcardMatcher includes;
+
+        WildcardMatcher excludes;
+
+        Pattern includesPattern;
+
+        Pattern excludesPattern;
+
+        @Setup
+        public void setup() {
+            Random entropy = new Random(42L);
+            names = new String[1000];
+            names[0] = "master";
+            names[1] = "develop";
+            for (int i = 2; i < names.length; i++) {
+                String prefix = PREFIXES[entropy.nextInt(PREFIXES.length)];
+                String suffix = prefix.equals("PR-") ? Integer.toString(entropy.nextInt(5000))
+                        : "JENKINS-" + entropy.nextInt(70000) + (entropy.nextInt(10) == 0 ? "-wip" : "-fix-npe");
+                names[i] = prefix + suffix;
+            }
+            includes = WildcardMatcher.compile(INCLUDES);
+            excludes = WildcardMatcher.compile(EXCLUDES);
+            includesPattern = Pattern.compile(WildcardMatcher.toRegex(INCLUDES));
+            excludesPattern = Pattern.compile(WildcardMatcher.toRegex(EXCLUDES));
+        }
+    }
+
+    @Benchmark
+    public void matcher(Names state, Blackhole blackhole) {
+        for (String name : state.names) {
+            blackhole.consume(state.includes.matches(name) && !state.excludes.matches(name));
+        }
+    }
+
+    @Benchmark
+    public void precompiledPattern(Names state, Blackhole blackhole) {
+        for (String name : state.names) {
+            blackhole.consume(state.includesPattern.matcher(name).matches()
+                    && !state.excludesPattern.matcher(name).matches());
+        }
+    }
+
+    @Benchmark
+    public void patternPerName(Names state, Blackhole blackhole) {
+        for (String name : state.names) {
+            blackhole.consume(Pattern.matches(WildcardMatcher.toRegex(INCLUDES), name)
+                    && !Pattern.matches(WildcardMatcher.toRegex(EXCLUDES), name));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package jenkins.scm.impl.trait;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WildcardMatcherTest {
+
+    private static final String[] RULES = {
+            "*", "", "master", "master develop", "feature/*", "*-rc", "release/*/hotfix-*", "a*b*a", "**", "*.*",
+            "PR-* master  release-*", " master", " ", "a\\E*(b)?", "*x*x*"
+    };
+
+    private static final String[] NAMES = {
+            "", "master", "develop", "feature/foo", "feature/", "features/foo", "1.0-rc", "rc", "release/1.x/hotfix-2",
+            "release/hotfix-2", "aba", "ab", "aa", "abba", "a.b", "ab.", "PR-12", "release-1", "a\\E(b)?", "a\\Ez",
+            "xx", "x", "feature/\nfoo", "a\nb\na", "master\r"
+    };
+
+    @Test
+    public void matchesLikeRegex() {
+        for (String rules : RULES) {
+            WildcardMatcher matcher = WildcardMatcher.compile(rules);
+            Pattern pattern = Pattern.compile(WildcardMatcher.toRegex(rules));
+            for (String name : NAMES) {
+                assertThat(rules + " ~ " + name, matcher.matches(name), is(pattern.matcher(name).matches()));
+            }
+        }
+    }
+
+    @Test
+    public void matchesLikeRegexRandom() {
+        Random entropy = new Random(42L);
+        char[] alphabet = {'a', 'b', '-', '*', ' ', '\n'};
+        for (int i = 0; i < 2000; i++) {
+            String rules = random(entropy, alphabet, 8);
+            WildcardMatcher matcher = WildcardMatcher.compile(rules);
+            Pattern pattern = Pattern.compile(WildcardMatcher.toRegex(rules));
+            for (int j = 0; j < 20; j++) {
+                String name = random(entropy, alphabet, 10).replace("*", "").replace(" ", "");
+                assertThat(rules + " ~ " + name, matcher.matches(name), is(pattern.matcher(name).matches()));
+            }
+        }
+    }
+
+    @Test
+    public void unionMatchesEither() {
+        for (String first : RULES) {
+            for (String second : RULES) {
+                WildcardMatcher a = WildcardMatcher.compile(first);
+                WildcardMatcher b = WildcardMatcher.compile(second);
+                WildcardMatcher union = a.union(b);
+                for (String name : NAMES) {
+                    assertThat(first + " | " + second + " ~ " + name, union.matches(name),
+                            is(a.matches(name) || b.matches(name)));
+                }
+            }
+        }
+    }
+
+    private static String random(Random entropy, char[] alphabet, int maxLength) {
+        StringBuilder result = new StringBuilder();
+        for (int i = entropy.nextInt(maxLength + 1); i > 0; i--) {
+            result.append(alphabet[entropy.nextInt(alphabet.length)]);
+        }
+        return result.toString();
+    }
+}
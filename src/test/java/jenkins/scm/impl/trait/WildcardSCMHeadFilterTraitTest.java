@@ -24,21 +24,28 @@
 
 package jenkins.scm.impl.trait;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMHeadObserver;
 import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.trait.SCMHeadNamePrefilter;
+import jenkins.scm.api.trait.SCMHeadPrefilter;
 import jenkins.scm.impl.mock.MockSCMController;
 import jenkins.scm.impl.mock.MockSCMDiscoverBranches;
 import jenkins.scm.impl.mock.MockSCMSource;
+import jenkins.scm.impl.mock.MockSCMSourceContext;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.jvnet.hudson.test.JenkinsRule;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
 
 public class WildcardSCMHeadFilterTraitTest {
     @ClassRule
@@ -91,4 +98,43 @@ public class WildcardSCMHeadFilterTraitTest {
             assertThat(names, containsInAnyOrder("master", "fork"));
         }
     }
+
+    @Test
+    public void given_sourceWithSeveralWildcardRules_when_scanning_then_rulesMergedAndApplied() throws Exception {
+        try (MockSCMController c = MockSCMController.create()) {
+            c.createRepository("foo");
+            c.createBranch("foo", "fork");
+            c.createBranch("foo", "foo");
+            c.createBranch("foo", "alt");
+            WildcardSCMHeadFilterTrait first = new WildcardSCMHeadFilterTrait("*", "fo*");
+            WildcardSCMHeadFilterTrait second = new WildcardSCMHeadFilterTrait("*", "alt");
+            MockSCMSourceContext context = new MockSCMSourceContext(null, null, SCMHeadObserver.collect());
+            first.applyToContext(context);
+            second.applyToContext(context);
+            assertThat(SCMHeadPrefilter.compile(context.prefilters()), instanceOf(SCMHeadNamePrefilter.class));
+            MockSCMSource src = new MockSCMSource(c, "foo", new MockSCMDiscoverBranches(), first, second);
+            Map<SCMHead, SCMRevision> result = src.fetch(null, SCMHeadObserver.collect(), null, null).result();
+            Set<String> names = new TreeSet<>();
+            for (SCMHead h: result.keySet()) {
+                names.add(h.getName());
+            }
+            assertThat(names, containsInAnyOrder("master"));
+        }
+    }
+
+    @Test
+    public void given_contextWithWildcardAndRegexRules_when_filteringInBulk_then_rulesApplied() throws Exception {
+        MockSCMSourceContext context = new MockSCMSourceContext(null, null, SCMHeadObserver.collect());
+        new WildcardSCMHeadFilterTrait("master fo*", "foo").applyToContext(context);
+        new RegexSCMHeadFilterTrait("[fm].*").applyToContext(context);
+        List<SCMHead> heads = new ArrayList<>();
+        for (String name : new String[]{"master", "fork", "foo", "alt", "fox"}) {
+            heads.add(new SCMHead(name));
+        }
+        List<String> names = new ArrayList<>();
+        for (SCMHead h : SCMHeadPrefilter.compile(context.prefilters()).filter(new MockSCMSource("bulk", "foo"), heads)) {
+            names.add(h.getName());
+        }
+        assertThat(names, contains("master", "fork", "fox"));
+    }
 }